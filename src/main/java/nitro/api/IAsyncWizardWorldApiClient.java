@@ -0,0 +1,55 @@
+package nitro.api;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+
+/**
+ * Defines the IAsyncWizardWorldApiClient interface, the non-blocking counterpart of
+ * the IWizardWorldApiClient: every request returns at once and completes its stage
+ * when the response arrives.
+ */
+@Path("/")
+@Produces(MediaType.APPLICATION_JSON)
+public interface IAsyncWizardWorldApiClient {
+
+    /**
+     * Gets all the existing ingredients.
+     * @return The stage of the list of Ingredients.
+     */
+    @GET
+    @Path("ingredients")
+    CompletionStage<List<Ingredient>> getAllIngredients();
+
+    /**
+     * Searches the Ingredient by name.
+     * @param name The Ingredient name.
+     * @return The stage of a list of the found Ingredients.
+     */
+    @GET
+    @Path("ingredients")
+    CompletionStage<List<Ingredient>> getIngredientByName(@QueryParam("name") String name);
+
+    /**
+     * Gets all the craftable elixirs.
+     * @return The stage of a list of the Elixirs.
+     */
+    @GET
+    @Path("elixirs")
+    CompletionStage<List<Elixir>> getAllElixirs();
+
+    /**
+     * Searches all the Elixirs that need a specific Ingredient.
+     * @param ingredient The Ingredient.
+     * @return The stage of a list of elixirs that need that Ingredient.
+     */
+    @GET
+    @Path("elixirs")
+    CompletionStage<List<Elixir>> getElixirsByIngredient(@QueryParam("ingredient") String ingredient);
+}
@@ -0,0 +1,227 @@
+package nitro.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Defines an asynchronous cache service running the operations of a blocking one on
+ * virtual threads, so waiting for Redis parks a virtual thread instead of holding a
+ * platform thread.
+ * The decoding variants call the decoding operations of the wrapped service, so the
+ * decoded values it keeps (like the L1 of the TieredCacheService) are reused.
+ */
+public class AsyncCacheService implements IAsyncCacheService, AutoCloseable {
+    private final ICacheService cacheService;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Constructs the AsyncCacheService, running the operations on a virtual thread each.
+     * @param cacheService The blocking cache service.
+     */
+    public AsyncCacheService(ICacheService cacheService) {
+        this(cacheService, Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * Constructs the AsyncCacheService.
+     * @param cacheService The blocking cache service.
+     * @param executor The executor running the operations. It is not shut down on close.
+     */
+    public AsyncCacheService(ICacheService cacheService, Executor executor) {
+        this(cacheService, executor, false);
+    }
+
+    /**
+     * Constructs the AsyncCacheService.
+     * @param cacheService The blocking cache service.
+     * @param executor The executor running the operations.
+     * @param ownsExecutor Whether the executor is shut down on close.
+     */
+    private AsyncCacheService(ICacheService cacheService, Executor executor, boolean ownsExecutor) {
+        if (cacheService == null) {
+            throw new IllegalArgumentException("ICacheService must not be null");
+        }
+
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+
+        this.cacheService = cacheService;
+        this.executor = executor;
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+    }
+
+    /**
+     * Retrieves a value from the cache based on its key.
+     * @param key The unique key to identify the cached data.
+     * @return The future of the cached string data.
+     */
+    @Override
+    public CompletableFuture<String> get(String key) {
+        return supply(() -> cacheService.get(key));
+    }
+
+    /**
+     * Retrieves a value from the cache and decodes it.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached string data.
+     * @return The future of the decoded value.
+     */
+    @Override
+    public <T> CompletableFuture<T> get(String key, Function<String, T> decoder) {
+        return supply(() -> cacheService.get(key, decoder));
+    }
+
+    /**
+     * Retrieves many values from the cache at once.
+     * @param keys The keys to retrieve.
+     * @return The future of the data strings found, by key.
+     */
+    @Override
+    public CompletableFuture<Map<String, String>> getAll(Collection<String> keys) {
+        return supply(() -> cacheService.getAll(keys));
+    }
+
+    /**
+     * Retrieves many values from the cache at once and decodes them.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached string data.
+     * @return The future of the decoded values found, by key.
+     */
+    @Override
+    public <T> CompletableFuture<Map<String, T>> getAll(Collection<String> keys, Function<String, T> decoder) {
+        return supply(() -> cacheService.getAll(keys, decoder));
+    }
+
+    /**
+     * Stores a key-value pair in the cache.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @return The future completed once the value is stored.
+     */
+    @Override
+    public CompletableFuture<Void> set(String key, String value) {
+        return run(() -> cacheService.set(key, value));
+    }
+
+    /**
+     * Stores a key-value pair in the cache with its own TTL.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @param ttlSeconds The TTL of this entry.
+     * @return The future completed once the value is stored.
+     */
+    @Override
+    public CompletableFuture<Void> set(String key, String value, int ttlSeconds) {
+        return run(() -> cacheService.set(key, value, ttlSeconds));
+    }
+
+    /**
+     * Stores many key-value pairs in the cache at once.
+     * @param entries The string data to cache, by key.
+     * @return The future completed once the values are stored.
+     */
+    @Override
+    public CompletableFuture<Void> setAll(Map<String, String> entries) {
+        return run(() -> cacheService.setAll(entries));
+    }
+
+    /**
+     * Retrieves a binary value from the cache based on its key.
+     * @param key The unique key to identify the cached data.
+     * @return The future of the cached binary data.
+     */
+    @Override
+    public CompletableFuture<byte[]> getBytes(String key) {
+        return supply(() -> cacheService.getBytes(key));
+    }
+
+    /**
+     * Retrieves a binary value from the cache and decodes it.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The future of the decoded value.
+     */
+    @Override
+    public <T> CompletableFuture<T> getBytes(String key, Function<byte[], T> decoder) {
+        return supply(() -> cacheService.getBytes(key, decoder));
+    }
+
+    /**
+     * Retrieves many binary values from the cache at once.
+     * @param keys The keys to retrieve.
+     * @return The future of the binary data found, by key.
+     */
+    @Override
+    public CompletableFuture<Map<String, byte[]>> getAllBytes(Collection<String> keys) {
+        return supply(() -> cacheService.getAllBytes(keys));
+    }
+
+    /**
+     * Retrieves many binary values from the cache at once and decodes them.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The future of the decoded values found, by key.
+     */
+    @Override
+    public <T> CompletableFuture<Map<String, T>> getAllBytes(Collection<String> keys, Function<byte[], T> decoder) {
+        return supply(() -> cacheService.getAllBytes(keys, decoder));
+    }
+
+    /**
+     * Stores a key-value pair of binary data in the cache.
+     * @param key The unique key for the data.
+     * @param value The binary data to cache.
+     * @return The future completed once the value is stored.
+     */
+    @Override
+    public CompletableFuture<Void> setBytes(String key, byte[] value) {
+        return run(() -> cacheService.setBytes(key, value));
+    }
+
+    /**
+     * Stores many key-value pairs of binary data in the cache at once.
+     * @param entries The binary data to cache, by key.
+     * @return The future completed once the values are stored.
+     */
+    @Override
+    public CompletableFuture<Void> setAllBytes(Map<String, byte[]> entries) {
+        return run(() -> cacheService.setAllBytes(entries));
+    }
+
+    /**
+     * Shuts down the executor if it was created by this service.
+     * The blocking cache service is not closed, since it is owned by the caller.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Runs a blocking read on the executor.
+     * @param call The blocking read.
+     * @return The future of its result.
+     */
+    private <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    /**
+     * Runs a blocking write on the executor.
+     * @param call The blocking write.
+     * @return The future completed once it is done.
+     */
+    private CompletableFuture<Void> run(Runnable call) {
+        return CompletableFuture.runAsync(call, executor);
+    }
+}
@@ -0,0 +1,335 @@
+package nitro.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Defines a cache service that compresses the values above a size threshold
+ * before handing them to another cache service (usually Redis).
+ * Compressed values are Deflate data at the fastest level, after a header made of
+ * a zero byte, the "ZD" magic, the format version and the uncompressed length.
+ * Values below the threshold are stored untouched, so small keys cost nothing and
+ * the values cached before compression was enabled are still readable.
+ * Values above the maximum uncompressed size are stored untouched too, and compressed
+ * values claiming a larger or implausible size are treated as corrupted, so a damaged
+ * header can not make the reader allocate an arbitrary amount of memory.
+ * All the values go through the binary operations of the wrapped service, so it
+ * must store binary data as is.
+ */
+public class CompressingCacheService implements ICacheService, AutoCloseable {
+    private static final byte[] MAGIC = {0, 'Z', 'D'};
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = MAGIC.length + 1 + Integer.BYTES;
+    private static final int DEFAULT_MAX_UNCOMPRESSED_BYTES = 64 * 1024 * 1024;
+    // Deflate can not expand data by more than about 1032 times.
+    private static final int MAX_COMPRESSION_RATIO = 1032;
+
+    private final ICacheService delegate;
+    private final int thresholdBytes;
+    private final int maxUncompressedBytes;
+
+    /**
+     * Constructs the CompressingCacheService.
+     * @param delegate The cache service storing the values.
+     * @param thresholdBytes The size from which the values are compressed.
+     */
+    public CompressingCacheService(ICacheService delegate, int thresholdBytes) {
+        this(delegate, thresholdBytes, DEFAULT_MAX_UNCOMPRESSED_BYTES);
+    }
+
+    /**
+     * Constructs the CompressingCacheService.
+     * @param delegate The cache service storing the values.
+     * @param thresholdBytes The size from which the values are compressed.
+     * @param maxUncompressedBytes The size above which the values are neither compressed nor decompressed.
+     */
+    public CompressingCacheService(ICacheService delegate, int thresholdBytes, int maxUncompressedBytes) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate ICacheService must not be null");
+        }
+
+        if (thresholdBytes <= 0) {
+            throw new IllegalArgumentException("Compression threshold should be a positive number");
+        }
+
+        if (maxUncompressedBytes < thresholdBytes) {
+            throw new IllegalArgumentException("Max uncompressed size should not be below the compression threshold");
+        }
+
+        this.delegate = delegate;
+        this.thresholdBytes = thresholdBytes;
+        this.maxUncompressedBytes = maxUncompressedBytes;
+    }
+
+    /**
+     * Retrieves a value from the cache, decompressing it if needed.
+     * @param key The unique key to identify the cached data.
+     * @return The data string found.
+     */
+    @Override
+    public String get(String key) {
+        return toString(getBytes(key));
+    }
+
+    /**
+     * Retrieves many values from the cache at once, decompressing them if needed.
+     * @param keys The keys to retrieve.
+     * @return The data strings found, by key.
+     */
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> found = new LinkedHashMap<>();
+
+        getAllBytes(keys).forEach((key, value) -> found.put(key, toString(value)));
+
+        return found;
+    }
+
+    /**
+     * Stores a key-value pair in the cache, compressing it if it is large.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     */
+    @Override
+    public void set(String key, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+
+        setBytes(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stores a key-value pair with its own TTL, untouched.
+     * Entries with their own TTL are small markers, not worth compressing.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @param ttlSeconds The TTL of this entry.
+     */
+    @Override
+    public void set(String key, String value, int ttlSeconds) {
+        delegate.set(key, value, ttlSeconds);
+    }
+
+    /**
+     * Stores many key-value pairs in the cache at once, compressing the large ones.
+     * @param entries The string data to cache, by key.
+     */
+    @Override
+    public void setAll(Map<String, String> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        Map<String, byte[]> binaryEntries = new LinkedHashMap<>();
+
+        entries.forEach((key, value) -> {
+            if (value != null && !value.trim().isEmpty()) binaryEntries.put(key, value.getBytes(StandardCharsets.UTF_8));
+        });
+
+        setAllBytes(binaryEntries);
+    }
+
+    /**
+     * Retrieves a binary value from the cache, decompressing it if needed.
+     * @param key The unique key to identify the cached data.
+     * @return The binary data found.
+     */
+    @Override
+    public byte[] getBytes(String key) {
+        return decompress(key, delegate.getBytes(key));
+    }
+
+    /**
+     * Retrieves many binary values from the cache at once, decompressing them if needed.
+     * @param keys The keys to retrieve.
+     * @return The binary data found, by key.
+     */
+    @Override
+    public Map<String, byte[]> getAllBytes(Collection<String> keys) {
+        Map<String, byte[]> found = new LinkedHashMap<>();
+
+        delegate.getAllBytes(keys).forEach((key, value) -> {
+            byte[] data = decompress(key, value);
+            if (data != null) found.put(key, data);
+        });
+
+        return found;
+    }
+
+    /**
+     * Stores a key-value pair of binary data in the cache, compressing it if it is large.
+     * @param key The unique key for the data.
+     * @param value The binary data to cache.
+     */
+    @Override
+    public void setBytes(String key, byte[] value) {
+        if (value == null || value.length == 0) {
+            return;
+        }
+
+        delegate.setBytes(key, compress(value));
+    }
+
+    /**
+     * Stores many key-value pairs of binary data in the cache at once, compressing the large ones.
+     * @param entries The binary data to cache, by key.
+     */
+    @Override
+    public void setAllBytes(Map<String, byte[]> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        Map<String, byte[]> compressed = new LinkedHashMap<>();
+
+        entries.forEach((key, value) -> {
+            if (value != null && value.length > 0) compressed.put(key, compress(value));
+        });
+
+        delegate.setAllBytes(compressed);
+    }
+
+    /**
+     * Closes the wrapped cache service.
+     */
+    @Override
+    public void close() {
+        if (delegate instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("Warning: Failed to close the wrapped cache service: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Compresses a value if it reaches the threshold, does not exceed the maximum
+     * uncompressed size and compression makes it smaller.
+     * @param value The binary data.
+     * @return The compressed data with its header, or the data itself.
+     */
+    private byte[] compress(byte[] value) {
+        if (value.length < thresholdBytes || value.length > maxUncompressedBytes) {
+            return value;
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+
+        try {
+            deflater.setInput(value);
+            deflater.finish();
+
+            byte[] buffer = new byte[HEADER_LENGTH + value.length];
+            int length = HEADER_LENGTH;
+
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+
+            if (!deflater.finished()) {
+                return value;
+            }
+
+            ByteBuffer header = ByteBuffer.wrap(buffer, 0, HEADER_LENGTH);
+            header.put(MAGIC).put((byte) FORMAT_VERSION).putInt(value.length);
+
+            byte[] compressed = new byte[length];
+            System.arraycopy(buffer, 0, compressed, 0, length);
+
+            return compressed;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses a value if it has the compression header.
+     * @param key The key of the value, for logging.
+     * @param value The cached data.
+     * @return The decompressed data, the data itself, or null if it is corrupted.
+     */
+    private byte[] decompress(String key, byte[] value) {
+        if (!isCompressed(value)) {
+            return value;
+        }
+
+        ByteBuffer header = ByteBuffer.wrap(value, MAGIC.length, HEADER_LENGTH - MAGIC.length);
+        int version = header.get() & 0xFF;
+        int length = header.getInt();
+
+        if (version != FORMAT_VERSION || length < 0) {
+            System.err.println("Error decompressing key '" + key + "': unsupported header");
+            return null;
+        }
+
+        long compressedLength = value.length - HEADER_LENGTH;
+
+        if (length > maxUncompressedBytes || length > compressedLength * MAX_COMPRESSION_RATIO) {
+            System.err.println("Error decompressing key '" + key + "': implausible uncompressed length " + length);
+            return null;
+        }
+
+        Inflater inflater = new Inflater(true);
+
+        try {
+            inflater.setInput(value, HEADER_LENGTH, value.length - HEADER_LENGTH);
+
+            byte[] data = new byte[length];
+            int read = 0;
+
+            while (read < length && !inflater.finished()) {
+                int count = inflater.inflate(data, read, length - read);
+
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+
+                read += count;
+            }
+
+            if (read != length) {
+                System.err.println("Error decompressing key '" + key + "': truncated data");
+                return null;
+            }
+
+            return data;
+        } catch (DataFormatException e) {
+            System.err.println("Error decompressing key '" + key + "': " + e.getMessage());
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * See if cached data starts with the compression header.
+     * @param value The cached data.
+     * @return True if the data is compressed.
+     */
+    private static boolean isCompressed(byte[] value) {
+        if (value == null || value.length < HEADER_LENGTH) {
+            return false;
+        }
+
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (value[i] != MAGIC[i]) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Converts binary data to a string.
+     * @param value The binary data.
+     * @return The UTF-8 string, or null for null data.
+     */
+    private static String toString(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,128 @@
+package nitro.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Defines the asynchronous Cache Service interface.
+ * Every operation returns at once and completes its future when the cache answers.
+ */
+public interface IAsyncCacheService {
+    /**
+     * Retrieves a value from the cache based on its key.
+     * @param key The unique key to identify the cached data.
+     * @return The future of the cached string data, completed with null if the key is not cached.
+     */
+    CompletableFuture<String> get(String key);
+
+    /**
+     * Retrieves a value from the cache and decodes it.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached string data.
+     * @return The future of the decoded value, completed with null if the key is not cached.
+     */
+    default <T> CompletableFuture<T> get(String key, Function<String, T> decoder) {
+        return get(key).thenApply(value -> value == null ? null : decoder.apply(value));
+    }
+
+    /**
+     * Retrieves many values from the cache at once.
+     * @param keys The keys to retrieve.
+     * @return The future of the data strings found, by key.
+     */
+    CompletableFuture<Map<String, String>> getAll(Collection<String> keys);
+
+    /**
+     * Retrieves many values from the cache at once and decodes them.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached string data.
+     * @return The future of the decoded values found, by key.
+     */
+    default <T> CompletableFuture<Map<String, T>> getAll(Collection<String> keys, Function<String, T> decoder) {
+        return getAll(keys).thenApply(values -> {
+            Map<String, T> decoded = new LinkedHashMap<>();
+            values.forEach((key, value) -> decoded.put(key, decoder.apply(value)));
+            return decoded;
+        });
+    }
+
+    /**
+     * Stores a key-value pair in the cache.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @return The future completed once the value is stored.
+     */
+    CompletableFuture<Void> set(String key, String value);
+
+    /**
+     * Stores a key-value pair in the cache with its own TTL.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @param ttlSeconds The TTL of this entry.
+     * @return The future completed once the value is stored.
+     */
+    CompletableFuture<Void> set(String key, String value, int ttlSeconds);
+
+    /**
+     * Stores many key-value pairs in the cache at once.
+     * @param entries The string data to cache, by key.
+     * @return The future completed once the values are stored.
+     */
+    CompletableFuture<Void> setAll(Map<String, String> entries);
+
+    /**
+     * Retrieves a binary value from the cache based on its key.
+     * @param key The unique key to identify the cached data.
+     * @return The future of the cached binary data, completed with null if the key is not cached.
+     */
+    CompletableFuture<byte[]> getBytes(String key);
+
+    /**
+     * Retrieves a binary value from the cache and decodes it.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The future of the decoded value, completed with null if the key is not cached.
+     */
+    default <T> CompletableFuture<T> getBytes(String key, Function<byte[], T> decoder) {
+        return getBytes(key).thenApply(value -> value == null ? null : decoder.apply(value));
+    }
+
+    /**
+     * Retrieves many binary values from the cache at once.
+     * @param keys The keys to retrieve.
+     * @return The future of the binary data found, by key.
+     */
+    CompletableFuture<Map<String, byte[]>> getAllBytes(Collection<String> keys);
+
+    /**
+     * Retrieves many binary values from the cache at once and decodes them.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The future of the decoded values found, by key.
+     */
+    default <T> CompletableFuture<Map<String, T>> getAllBytes(Collection<String> keys, Function<byte[], T> decoder) {
+        return getAllBytes(keys).thenApply(values -> {
+            Map<String, T> decoded = new LinkedHashMap<>();
+            values.forEach((key, value) -> decoded.put(key, decoder.apply(value)));
+            return decoded;
+        });
+    }
+
+    /**
+     * Stores a key-value pair of binary data in the cache.
+     * @param key The unique key for the data.
+     * @param value The binary data to cache.
+     * @return The future completed once the value is stored.
+     */
+    CompletableFuture<Void> setBytes(String key, byte[] value);
+
+    /**
+     * Stores many key-value pairs of binary data in the cache at once.
+     * @param entries The binary data to cache, by key.
+     * @return The future completed once the values are stored.
+     */
+    CompletableFuture<Void> setAllBytes(Map<String, byte[]> entries);
+}
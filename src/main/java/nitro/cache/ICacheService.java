@@ -1,5 +1,10 @@
 package nitro.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
 /**
  * Defines the Cache Service interface.
  */
@@ -11,10 +16,115 @@ public interface ICacheService {
      */
     String get(String key);
 
+    /**
+     * Retrieves a value from the cache and decodes it.
+     * Implementations may keep the decoded object, so the decoder must always
+     * produce the same type for a key and its result must not be modified.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached string data.
+     * @return The decoded value or null if the key is not cached.
+     */
+    default <T> T get(String key, Function<String, T> decoder) {
+        String value = get(key);
+
+        return value == null ? null : decoder.apply(value);
+    }
+
+    /**
+     * Retrieves many values from the cache at once.
+     * @param keys The keys to retrieve.
+     * @return The cached string data of the keys that were found.
+     */
+    Map<String, String> getAll(Collection<String> keys);
+
+    /**
+     * Retrieves many values from the cache at once and decodes them.
+     * Follows the same rules as {@link #get(String, Function)}.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached string data.
+     * @return The decoded values of the keys that were found.
+     */
+    default <T> Map<String, T> getAll(Collection<String> keys, Function<String, T> decoder) {
+        Map<String, T> decoded = new LinkedHashMap<>();
+
+        getAll(keys).forEach((key, value) -> decoded.put(key, decoder.apply(value)));
+
+        return decoded;
+    }
+
     /**
      * Stores a key-value pair in the cache with the defined TTL.
      * @param key The unique key for the data.
      * @param value The string data to cache.
      */
     void set(String key, String value);
+
+    /**
+     * Stores a key-value pair in the cache with its own TTL, usually a short one.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @param ttlSeconds The TTL of this entry.
+     */
+    void set(String key, String value, int ttlSeconds);
+
+    /**
+     * Stores many key-value pairs in the cache at once, with the defined TTL.
+     * @param entries The string data to cache, by key.
+     */
+    void setAll(Map<String, String> entries);
+
+    /**
+     * Retrieves a binary value from the cache based on its key.
+     * @param key The unique key to identify the cached data.
+     * @return The cached binary data associated with the key.
+     */
+    byte[] getBytes(String key);
+
+    /**
+     * Retrieves a binary value from the cache and decodes it.
+     * Follows the same rules as {@link #get(String, Function)}.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The decoded value or null if the key is not cached.
+     */
+    default <T> T getBytes(String key, Function<byte[], T> decoder) {
+        byte[] value = getBytes(key);
+
+        return value == null ? null : decoder.apply(value);
+    }
+
+    /**
+     * Retrieves many binary values from the cache at once.
+     * @param keys The keys to retrieve.
+     * @return The cached binary data of the keys that were found.
+     */
+    Map<String, byte[]> getAllBytes(Collection<String> keys);
+
+    /**
+     * Retrieves many binary values from the cache at once and decodes them.
+     * Follows the same rules as {@link #get(String, Function)}.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The decoded values of the keys that were found.
+     */
+    default <T> Map<String, T> getAllBytes(Collection<String> keys, Function<byte[], T> decoder) {
+        Map<String, T> decoded = new LinkedHashMap<>();
+
+        getAllBytes(keys).forEach((key, value) -> decoded.put(key, decoder.apply(value)));
+
+        return decoded;
+    }
+
+    /**
+     * Stores a key-value pair of binary data in the cache with the defined TTL.
+     * @param key The unique key for the data.
+     * @param value The binary data to cache.
+     */
+    void setBytes(String key, byte[] value);
+
+    /**
+     * Stores many key-value pairs of binary data in the cache at once, with the defined TTL.
+     * @param entries The binary data to cache, by key.
+     */
+    void setAllBytes(Map<String, byte[]> entries);
 }
@@ -0,0 +1,44 @@
+package nitro.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import nitro.data.Elixir;
+
+/**
+ * Defines the normalized Elixir Store interface: every Elixir is stored once, and
+ * each Ingredient only keeps the IDs of the Elixirs that require it.
+ */
+public interface IElixirStore {
+    /**
+     * See if the Elixir catalog is stored and not expired.
+     * @return True if the catalog is stored.
+     */
+    boolean isLoaded();
+
+    /**
+     * Replaces the stored Elixir catalog.
+     * @param elixirs The full Elixir catalog.
+     */
+    void store(List<Elixir> elixirs);
+
+    /**
+     * Gets all the stored Elixirs.
+     * @return The list of Elixirs, in no particular order.
+     */
+    List<Elixir> getElixirs();
+
+    /**
+     * Gets the Elixirs that require each one of the Ingredients.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs of each Ingredient name.
+     */
+    Map<String, List<Elixir>> getElixirsByIngredientNames(Collection<String> ingredientNames);
+
+    /**
+     * Gets the distinct Elixirs that require at least one of the Ingredients.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs.
+     */
+    List<Elixir> getElixirsWithAnyIngredient(Collection<String> ingredientNames);
+}
@@ -0,0 +1,247 @@
+package nitro.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Defines a cache service that sends the keys starting with some prefixes straight to
+ * one cache service, and all the other keys to another one.
+ * It keeps the keys cached client-side by Redis out of the in-process L1 and off-heap
+ * caches: those layers are not invalidated when another node writes a key, while the
+ * client-side cache is, so the routed keys are never served stale.
+ * Batch reads and writes are split in one call to each cache service.
+ */
+public class KeyPrefixRoutingCacheService implements ICacheService, AutoCloseable {
+    private final ICacheService defaultCache;
+    private final ICacheService routedCache;
+    private final List<String> keyPrefixes;
+
+    /**
+     * Constructs the KeyPrefixRoutingCacheService.
+     * @param defaultCache The cache service of the keys without one of the prefixes.
+     * @param routedCache The cache service of the keys starting with one of the prefixes.
+     * @param keyPrefixes The prefixes of the routed keys.
+     */
+    public KeyPrefixRoutingCacheService(ICacheService defaultCache, ICacheService routedCache, Collection<String> keyPrefixes) {
+        if (defaultCache == null || routedCache == null) {
+            throw new IllegalArgumentException("ICacheService must not be null");
+        }
+
+        if (keyPrefixes == null || keyPrefixes.isEmpty()) {
+            throw new IllegalArgumentException("Key prefixes must not be null or empty");
+        }
+
+        this.defaultCache = defaultCache;
+        this.routedCache = routedCache;
+        this.keyPrefixes = List.copyOf(keyPrefixes);
+    }
+
+    /**
+     * Retrieves a value from the cache service of its key.
+     * @param key The unique key to identify the cached data.
+     * @return The data string found.
+     */
+    @Override
+    public String get(String key) {
+        return cacheOf(key).get(key);
+    }
+
+    /**
+     * Retrieves a decoded value from the cache service of its key.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached string data.
+     * @return The decoded value or null if the key is not cached.
+     */
+    @Override
+    public <T> T get(String key, Function<String, T> decoder) {
+        return cacheOf(key).get(key, decoder);
+    }
+
+    /**
+     * Retrieves many values, with one call to each cache service.
+     * @param keys The keys to retrieve.
+     * @return The data strings found, by key.
+     */
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        return getAllSplit(keys, ICacheService::getAll);
+    }
+
+    /**
+     * Retrieves many decoded values, with one call to each cache service.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached string data.
+     * @return The decoded values found, by key.
+     */
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, Function<String, T> decoder) {
+        return getAllSplit(keys, (cache, cacheKeys) -> cache.getAll(cacheKeys, decoder));
+    }
+
+    /**
+     * Stores a key-value pair in the cache service of its key.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     */
+    @Override
+    public void set(String key, String value) {
+        cacheOf(key).set(key, value);
+    }
+
+    /**
+     * Stores a key-value pair with its own TTL in the cache service of its key.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @param ttlSeconds The TTL of this entry.
+     */
+    @Override
+    public void set(String key, String value, int ttlSeconds) {
+        cacheOf(key).set(key, value, ttlSeconds);
+    }
+
+    /**
+     * Stores many key-value pairs, with one call to each cache service.
+     * @param entries The string data to cache, by key.
+     */
+    @Override
+    public void setAll(Map<String, String> entries) {
+        setAllSplit(entries, ICacheService::setAll);
+    }
+
+    /**
+     * Retrieves a binary value from the cache service of its key.
+     * @param key The unique key to identify the cached data.
+     * @return The binary data found.
+     */
+    @Override
+    public byte[] getBytes(String key) {
+        return cacheOf(key).getBytes(key);
+    }
+
+    /**
+     * Retrieves a decoded binary value from the cache service of its key.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The decoded value or null if the key is not cached.
+     */
+    @Override
+    public <T> T getBytes(String key, Function<byte[], T> decoder) {
+        return cacheOf(key).getBytes(key, decoder);
+    }
+
+    /**
+     * Retrieves many binary values, with one call to each cache service.
+     * @param keys The keys to retrieve.
+     * @return The binary data found, by key.
+     */
+    @Override
+    public Map<String, byte[]> getAllBytes(Collection<String> keys) {
+        return getAllSplit(keys, ICacheService::getAllBytes);
+    }
+
+    /**
+     * Retrieves many decoded binary values, with one call to each cache service.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The decoded values found, by key.
+     */
+    @Override
+    public <T> Map<String, T> getAllBytes(Collection<String> keys, Function<byte[], T> decoder) {
+        return getAllSplit(keys, (cache, cacheKeys) -> cache.getAllBytes(cacheKeys, decoder));
+    }
+
+    /**
+     * Stores a key-value pair of binary data in the cache service of its key.
+     * @param key The unique key for the data.
+     * @param value The binary data to cache.
+     */
+    @Override
+    public void setBytes(String key, byte[] value) {
+        cacheOf(key).setBytes(key, value);
+    }
+
+    /**
+     * Stores many key-value pairs of binary data, with one call to each cache service.
+     * @param entries The binary data to cache, by key.
+     */
+    @Override
+    public void setAllBytes(Map<String, byte[]> entries) {
+        setAllSplit(entries, ICacheService::setAllBytes);
+    }
+
+    /**
+     * Closes the default cache service, which usually wraps the routed one and closes it too.
+     */
+    @Override
+    public void close() {
+        if (defaultCache instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("Warning: Failed to close the cache service: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the cache service of a key.
+     * @param key The key.
+     * @return The routed cache service if the key starts with one of the prefixes, the default one otherwise.
+     */
+    private ICacheService cacheOf(String key) {
+        if (key != null) {
+            for (String prefix : keyPrefixes) {
+                if (key.startsWith(prefix)) return routedCache;
+            }
+        }
+
+        return defaultCache;
+    }
+
+    /**
+     * Reads many keys, splitting them in one call to each cache service.
+     * @param keys The keys to retrieve.
+     * @param reader The batch read of a cache service.
+     * @return The values found, by key.
+     */
+    private <V> Map<String, V> getAllSplit(Collection<String> keys, BiFunction<ICacheService, Collection<String>, Map<String, V>> reader) {
+        List<String> defaultKeys = new ArrayList<>();
+        List<String> routedKeys = new ArrayList<>();
+
+        for (String key : keys) {
+            (cacheOf(key) == routedCache ? routedKeys : defaultKeys).add(key);
+        }
+
+        Map<String, V> found = new LinkedHashMap<>();
+
+        if (!defaultKeys.isEmpty()) found.putAll(reader.apply(defaultCache, defaultKeys));
+        if (!routedKeys.isEmpty()) found.putAll(reader.apply(routedCache, routedKeys));
+
+        return found;
+    }
+
+    /**
+     * Writes many entries, splitting them in one call to each cache service.
+     * @param entries The values to cache, by key.
+     * @param writer The batch write of a cache service.
+     */
+    private <V> void setAllSplit(Map<String, V> entries, BiConsumer<ICacheService, Map<String, V>> writer) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        Map<String, V> defaultEntries = new LinkedHashMap<>();
+        Map<String, V> routedEntries = new LinkedHashMap<>();
+
+        entries.forEach((key, value) -> (cacheOf(key) == routedCache ? routedEntries : defaultEntries).put(key, value));
+
+        if (!defaultEntries.isEmpty()) writer.accept(defaultCache, defaultEntries);
+        if (!routedEntries.isEmpty()) writer.accept(routedCache, routedEntries);
+    }
+}
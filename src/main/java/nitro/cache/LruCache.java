@@ -0,0 +1,159 @@
+package nitro.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Defines a size-bounded, thread-safe in-process cache with least recently used eviction
+ * and an optional time to live per entry.
+ * Keeps hit and miss counters so the cache can be sized.
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class LruCache<K, V> {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructs the LruCache without expiration.
+     * @param maxEntries The maximum number of entries kept.
+     */
+    public LruCache(int maxEntries) {
+        this(maxEntries, 0);
+    }
+
+    /**
+     * Constructs the LruCache.
+     * @param maxEntries The maximum number of entries kept.
+     * @param ttlMillis The time to live of each entry, 0 to never expire them.
+     */
+    public LruCache(int maxEntries, long ttlMillis) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries should be a positive number");
+        }
+
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("TTL should not be a negative number");
+        }
+
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > LruCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets a cached value.
+     * @param key The key.
+     * @return The value or null if it is not cached or has expired.
+     */
+    public V get(K key) {
+        V value = null;
+
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+
+            if (entry != null) {
+                if (entry.isExpired(System.nanoTime())) {
+                    entries.remove(key);
+                } else {
+                    value = entry.value;
+                }
+            }
+        }
+
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+
+        return value;
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entry when full.
+     * @param key The key.
+     * @param value The value. Null values are not cached.
+     */
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    /**
+     * Removes a cached value.
+     * @param key The key.
+     */
+    public void remove(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes all the cached values.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the number of cached values, including expired ones not yet removed.
+     * @return The cache size.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the number of lookups that found a cached value.
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of lookups that did not find a cached value.
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Defines a cached value with its expiration time.
+     * @param value The cached value.
+     * @param expiresAt The System.nanoTime() at which it expires, 0 if it never does.
+     */
+    private record Entry<V>(V value, long expiresAt) {
+        /**
+         * Whether the entry has expired.
+         * @param now The current System.nanoTime().
+         * @return True if it has expired.
+         */
+        private boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+}
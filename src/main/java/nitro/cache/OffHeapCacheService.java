@@ -0,0 +1,681 @@
+package nitro.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Defines an in-process cache service that keeps the values off the Java heap, in
+ * direct ByteBuffer slabs, so large catalogs do not grow the heap or the GC pauses.
+ * Slabs are allocated on demand up to the memory limit and split in blocks of one
+ * size class each. A value takes the smallest block it fits in, and every size class
+ * evicts its least recently used entries when it has no free block left. When all
+ * the slabs are allocated and a size class has none, a slab of the size class
+ * holding the most is emptied and given to it.
+ * Only the index of the keys stays on the heap. Values larger than a slab are not
+ * kept locally, so the slab size should be set above the largest value cached.
+ * It can run on its own or as an L1 in front of another cache service (usually
+ * Redis): reads then fall back to it and writes go to both. It replaces the on-heap
+ * L1 of the TieredCacheService rather than sitting behind it.
+ */
+public class OffHeapCacheService implements ICacheService, AutoCloseable {
+    /**
+     * The default size of each slab.
+     */
+    public static final int DEFAULT_SLAB_BYTES = 1 << 20;
+
+    private static final int MIN_BLOCK_BYTES = 64;
+    private static final double BLOCK_GROWTH_FACTOR = 1.25;
+
+    private final ICacheService delegate;
+    private final int slabBytes;
+    private final int maxSlabs;
+    private final long ttlNanos;
+    private final int[] blockSizes;
+    private final SizeClass[] sizeClasses;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final List<SizeClass> slabOwners = new ArrayList<>();
+    private final Map<String, Slot> index = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private long storedBytes;
+
+    /**
+     * Constructs the OffHeapCacheService with the default slab size.
+     * @param delegate The cache service behind this one, null to run on its own.
+     * @param maxBytes The maximum off-heap memory used by the slabs.
+     * @param ttlSeconds The TTL of the entries.
+     */
+    public OffHeapCacheService(ICacheService delegate, long maxBytes, int ttlSeconds) {
+        this(delegate, maxBytes, ttlSeconds, DEFAULT_SLAB_BYTES);
+    }
+
+    /**
+     * Constructs the OffHeapCacheService.
+     * @param delegate The cache service behind this one, null to run on its own.
+     * @param maxBytes The maximum off-heap memory used by the slabs.
+     * @param ttlSeconds The TTL of the entries.
+     * @param slabBytes The size of each slab, which is also the largest value kept.
+     */
+    public OffHeapCacheService(ICacheService delegate, long maxBytes, int ttlSeconds, int slabBytes) {
+        if (slabBytes < MIN_BLOCK_BYTES) {
+            throw new IllegalArgumentException("Slab size should be at least " + MIN_BLOCK_BYTES + " bytes");
+        }
+
+        if (maxBytes < slabBytes) {
+            throw new IllegalArgumentException("Off-heap cache size should be at least one slab");
+        }
+
+        if (ttlSeconds <= 0) {
+            throw new IllegalArgumentException("Off-heap cache TTL should be a positive number");
+        }
+
+        this.delegate = delegate;
+        this.slabBytes = slabBytes;
+        this.maxSlabs = (int) Math.min(maxBytes / slabBytes, Integer.MAX_VALUE);
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.blockSizes = buildBlockSizes(slabBytes);
+        this.sizeClasses = new SizeClass[blockSizes.length];
+
+        for (int i = 0; i < blockSizes.length; i++) {
+            sizeClasses[i] = new SizeClass(blockSizes[i]);
+        }
+    }
+
+    /**
+     * Retrieves a value from the off-heap cache, or from the delegate as fallback.
+     * @param key The unique key to identify the cached data.
+     * @return The data string found.
+     */
+    @Override
+    public String get(String key) {
+        return toString(getBytes(key));
+    }
+
+    /**
+     * Retrieves many values from the off-heap cache, and the missing ones from the delegate at once.
+     * @param keys The keys to retrieve.
+     * @return The data strings found, by key.
+     */
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> found = new LinkedHashMap<>();
+
+        getAllBytes(keys).forEach((key, value) -> found.put(key, toString(value)));
+
+        return found;
+    }
+
+    /**
+     * Stores a key-value pair in the delegate and the off-heap cache.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     */
+    @Override
+    public void set(String key, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+
+        setBytes(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stores a key-value pair with its own TTL in the delegate and the off-heap cache.
+     * The local entry never outlives the TTL of the off-heap cache.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @param ttlSeconds The TTL of this entry.
+     */
+    @Override
+    public void set(String key, String value, int ttlSeconds) {
+        if (key == null || key.trim().isEmpty()) {
+            return;
+        }
+
+        if (delegate != null) {
+            delegate.set(key, value, ttlSeconds);
+        }
+
+        if (value == null || value.trim().isEmpty() || ttlSeconds <= 0) {
+            discard(key);
+            return;
+        }
+
+        put(key, value.getBytes(StandardCharsets.UTF_8), Math.min(ttlSeconds * 1_000_000_000L, ttlNanos));
+    }
+
+    /**
+     * Stores many key-value pairs in the delegate and the off-heap cache.
+     * @param entries The string data to cache, by key.
+     */
+    @Override
+    public void setAll(Map<String, String> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        Map<String, byte[]> binaryEntries = new LinkedHashMap<>();
+
+        entries.forEach((key, value) -> {
+            if (value != null && !value.trim().isEmpty()) binaryEntries.put(key, value.getBytes(StandardCharsets.UTF_8));
+        });
+
+        setAllBytes(binaryEntries);
+    }
+
+    /**
+     * Retrieves a binary value from the off-heap cache, or from the delegate as fallback.
+     * @param key The unique key to identify the cached data.
+     * @return The binary data found.
+     */
+    @Override
+    public byte[] getBytes(String key) {
+        if (key == null || key.trim().isEmpty()) {
+            return null;
+        }
+
+        byte[] value = read(key);
+
+        if (value == null && delegate != null) {
+            value = delegate.getBytes(key);
+
+            if (value != null) {
+                put(key, value, ttlNanos);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Retrieves many binary values from the off-heap cache, and the missing ones from the delegate at once.
+     * @param keys The keys to retrieve.
+     * @return The binary data found, by key.
+     */
+    @Override
+    public Map<String, byte[]> getAllBytes(Collection<String> keys) {
+        Map<String, byte[]> found = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String key : keys) {
+            if (key == null || key.trim().isEmpty()) continue;
+
+            byte[] value = read(key);
+
+            if (value != null) {
+                found.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (!missing.isEmpty() && delegate != null) {
+            delegate.getAllBytes(missing).forEach((key, value) -> {
+                put(key, value, ttlNanos);
+                found.put(key, value);
+            });
+        }
+
+        return found;
+    }
+
+    /**
+     * Stores a key-value pair of binary data in the delegate and the off-heap cache.
+     * @param key The unique key for the data.
+     * @param value The binary data to cache.
+     */
+    @Override
+    public void setBytes(String key, byte[] value) {
+        if (key == null || key.trim().isEmpty() || value == null || value.length == 0) {
+            return;
+        }
+
+        if (delegate != null) {
+            delegate.setBytes(key, value);
+        }
+
+        put(key, value, ttlNanos);
+    }
+
+    /**
+     * Stores many key-value pairs of binary data in the delegate and the off-heap cache.
+     * @param entries The binary data to cache, by key.
+     */
+    @Override
+    public void setAllBytes(Map<String, byte[]> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        if (delegate != null) {
+            delegate.setAllBytes(entries);
+        }
+
+        entries.forEach((key, value) -> {
+            if (key != null && !key.trim().isEmpty() && value != null && value.length > 0) {
+                put(key, value, ttlNanos);
+            }
+        });
+    }
+
+    /**
+     * Gets the number of lookups that found a value off-heap.
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of lookups that did not find a value off-heap.
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of entries evicted to make room for others.
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Gets the number of entries kept off-heap, including expired ones not yet removed.
+     * @return The entry count.
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Gets the size of the values kept off-heap.
+     * @return The stored bytes.
+     */
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * Gets the off-heap memory allocated by the slabs.
+     * @return The allocated bytes.
+     */
+    public synchronized long getAllocatedBytes() {
+        return (long) slabs.size() * slabBytes;
+    }
+
+    /**
+     * Drops all the slabs, so their memory is released, and closes the delegate.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            index.clear();
+            slabs.clear();
+            slabOwners.clear();
+            storedBytes = 0;
+
+            for (int i = 0; i < sizeClasses.length; i++) {
+                sizeClasses[i] = new SizeClass(blockSizes[i]);
+            }
+        }
+
+        if (delegate instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("Warning: Failed to close the cache service behind the off-heap cache: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads a value from its slab.
+     * @param key The key.
+     * @return A copy of the value or null if it is not cached or has expired.
+     */
+    private synchronized byte[] read(String key) {
+        Slot slot = index.get(key);
+
+        if (slot != null && System.nanoTime() - slot.expiresAt >= 0) {
+            remove(slot);
+            slot = null;
+        }
+
+        if (slot == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        SizeClass sizeClass = sizeClasses[slot.sizeClass];
+        sizeClass.unlink(slot);
+        sizeClass.link(slot);
+
+        byte[] value = new byte[slot.length];
+        slabs.get(slot.slab).get(slot.offset, value);
+
+        hits.incrementAndGet();
+        return value;
+    }
+
+    /**
+     * Writes a value to a free block, replacing the previous value of the key.
+     * @param key The key.
+     * @param value The binary data.
+     * @param ttlNanos The TTL of the entry.
+     */
+    private synchronized void put(String key, byte[] value, long ttlNanos) {
+        Slot previous = index.get(key);
+
+        if (previous != null) {
+            remove(previous);
+        }
+
+        if (value.length > slabBytes) {
+            return;
+        }
+
+        int sizeClassIndex = sizeClassOf(value.length);
+        SizeClass sizeClass = sizeClasses[sizeClassIndex];
+        long block = allocate(sizeClass);
+
+        if (block < 0) {
+            return;
+        }
+
+        int slab = (int) (block >>> 32);
+        int offset = (int) block;
+        slabs.get(slab).put(offset, value);
+
+        Slot slot = new Slot(key, sizeClassIndex, slab, offset, value.length, System.nanoTime() + ttlNanos);
+        index.put(key, slot);
+        sizeClass.link(slot);
+        storedBytes += value.length;
+    }
+
+    /**
+     * Removes the entry of a key, if there is one.
+     * @param key The key.
+     */
+    private synchronized void discard(String key) {
+        Slot slot = index.get(key);
+
+        if (slot != null) {
+            remove(slot);
+        }
+    }
+
+    /**
+     * Removes an entry, freeing its block.
+     * @param slot The entry.
+     */
+    private void remove(Slot slot) {
+        SizeClass sizeClass = sizeClasses[slot.sizeClass];
+
+        index.remove(slot.key);
+        sizeClass.unlink(slot);
+        sizeClass.pushFree(((long) slot.slab << 32) | slot.offset);
+        storedBytes -= slot.length;
+    }
+
+    /**
+     * Gets a free block of a size class: a free one, one of a new slab, the one of the
+     * least recently used entry of the class, or one of a slab taken from another class.
+     * @param sizeClass The size class.
+     * @return The block address, the slab in the high bits and the offset in the low ones, or -1.
+     */
+    private long allocate(SizeClass sizeClass) {
+        if (!sizeClass.hasFree()) {
+            if (slabs.size() < maxSlabs) {
+                assignSlab(slabs.size(), sizeClass);
+            } else if (sizeClass.head != null) {
+                remove(sizeClass.head);
+                evictions.incrementAndGet();
+            } else {
+                reassignSlab(sizeClass);
+            }
+        }
+
+        return sizeClass.hasFree() ? sizeClass.popFree() : -1;
+    }
+
+    /**
+     * Empties the least recently used slab of the size class holding the most slabs, and
+     * gives it to another size class.
+     * @param target The size class that gets the slab.
+     */
+    private void reassignSlab(SizeClass target) {
+        SizeClass victim = null;
+
+        for (SizeClass sizeClass : sizeClasses) {
+            if (sizeClass != target && (victim == null || sizeClass.slabCount > victim.slabCount)) {
+                victim = sizeClass;
+            }
+        }
+
+        if (victim == null || victim.slabCount == 0) {
+            return;
+        }
+
+        int slab = victim.head != null ? victim.head.slab : slabOwners.indexOf(victim);
+
+        for (Slot slot = victim.head; slot != null; ) {
+            Slot next = slot.next;
+
+            if (slot.slab == slab) {
+                remove(slot);
+                evictions.incrementAndGet();
+            }
+
+            slot = next;
+        }
+
+        victim.removeFree(slab);
+        victim.slabCount--;
+        assignSlab(slab, target);
+    }
+
+    /**
+     * Gives a slab to a size class, allocating it if it is new, and splits it in free blocks.
+     * @param slab The slab index.
+     * @param sizeClass The size class.
+     */
+    private void assignSlab(int slab, SizeClass sizeClass) {
+        if (slab == slabs.size()) {
+            slabs.add(ByteBuffer.allocateDirect(slabBytes));
+            slabOwners.add(sizeClass);
+        } else {
+            slabOwners.set(slab, sizeClass);
+        }
+
+        sizeClass.slabCount++;
+
+        for (int offset = slabBytes / sizeClass.blockBytes * sizeClass.blockBytes - sizeClass.blockBytes; offset >= 0; offset -= sizeClass.blockBytes) {
+            sizeClass.pushFree(((long) slab << 32) | offset);
+        }
+    }
+
+    /**
+     * Gets the smallest size class a value fits in.
+     * @param length The value length.
+     * @return The size class index.
+     */
+    private int sizeClassOf(int length) {
+        int position = Arrays.binarySearch(blockSizes, length);
+
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * Builds the block sizes, growing by a constant factor from the smallest block to a slab.
+     * @param slabBytes The slab size.
+     * @return The sorted block sizes, the last one being the slab size.
+     */
+    private static int[] buildBlockSizes(int slabBytes) {
+        List<Integer> sizes = new ArrayList<>();
+
+        for (int size = MIN_BLOCK_BYTES; size < slabBytes; size = Math.max(size + 8, (int) (size * BLOCK_GROWTH_FACTOR) + 7 & ~7)) {
+            sizes.add(size);
+        }
+        sizes.add(slabBytes);
+
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Converts binary data to a string.
+     * @param value The binary data.
+     * @return The UTF-8 string, or null for null data.
+     */
+    private static String toString(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Defines an entry: the location of its value in a slab and its place in the LRU
+     * list of its size class.
+     */
+    private static final class Slot {
+        private final String key;
+        private final int sizeClass;
+        private final int slab;
+        private final int offset;
+        private final int length;
+        private final long expiresAt;
+        private Slot prev;
+        private Slot next;
+
+        /**
+         * Constructs the Slot.
+         * @param key The key.
+         * @param sizeClass The size class index.
+         * @param slab The slab index.
+         * @param offset The offset of the block in the slab.
+         * @param length The value length.
+         * @param expiresAt The System.nanoTime() at which it expires.
+         */
+        private Slot(String key, int sizeClass, int slab, int offset, int length, long expiresAt) {
+            this.key = key;
+            this.sizeClass = sizeClass;
+            this.slab = slab;
+            this.offset = offset;
+            this.length = length;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Defines a size class: its free blocks and the LRU list of its entries, from the
+     * least recently used at the head to the most recently used at the tail.
+     */
+    private static final class SizeClass {
+        private final int blockBytes;
+        private long[] freeBlocks = new long[16];
+        private int freeCount;
+        private int slabCount;
+        private Slot head;
+        private Slot tail;
+
+        /**
+         * Constructs the SizeClass.
+         * @param blockBytes The block size.
+         */
+        private SizeClass(int blockBytes) {
+            this.blockBytes = blockBytes;
+        }
+
+        /**
+         * See if the class has a free block.
+         * @return True if it has one.
+         */
+        private boolean hasFree() {
+            return freeCount > 0;
+        }
+
+        /**
+         * Takes a free block.
+         * @return The block address.
+         */
+        private long popFree() {
+            return freeBlocks[--freeCount];
+        }
+
+        /**
+         * Gives back a free block.
+         * @param block The block address.
+         */
+        private void pushFree(long block) {
+            if (freeCount == freeBlocks.length) {
+                freeBlocks = Arrays.copyOf(freeBlocks, freeCount * 2);
+            }
+
+            freeBlocks[freeCount++] = block;
+        }
+
+        /**
+         * Drops the free blocks of a slab.
+         * @param slab The slab index.
+         */
+        private void removeFree(int slab) {
+            int kept = 0;
+
+            for (int i = 0; i < freeCount; i++) {
+                if ((int) (freeBlocks[i] >>> 32) != slab) {
+                    freeBlocks[kept++] = freeBlocks[i];
+                }
+            }
+
+            freeCount = kept;
+        }
+
+        /**
+         * Adds an entry as the most recently used.
+         * @param slot The entry.
+         */
+        private void link(Slot slot) {
+            slot.prev = tail;
+            slot.next = null;
+
+            if (tail != null) {
+                tail.next = slot;
+            } else {
+                head = slot;
+            }
+
+            tail = slot;
+        }
+
+        /**
+         * Removes an entry from the LRU list.
+         * @param slot The entry.
+         */
+        private void unlink(Slot slot) {
+            if (slot.prev != null) {
+                slot.prev.next = slot.next;
+            } else {
+                head = slot.next;
+            }
+
+            if (slot.next != null) {
+                slot.next.prev = slot.prev;
+            } else {
+                tail = slot.prev;
+            }
+
+            slot.prev = null;
+            slot.next = null;
+        }
+    }
+}
@@ -1,15 +1,40 @@
 package nitro.cache;
 
-import redis.clients.jedis.Jedis;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.RedisProtocol;
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.csc.CacheConfig;
+import redis.clients.jedis.csc.CacheStats;
+import redis.clients.jedis.csc.Cacheable;
+import redis.clients.jedis.csc.DefaultCacheable;
 import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.SafeEncoder;
 
 /**
  * Defines a Redis service.
+ * Commands run on a pool of connections, so the service can be used from many threads.
+ * Optionally, the values read are cached in process with RESP3 client-side caching:
+ * Redis tracks the keys read by each connection and pushes an invalidation when one
+ * of them is written by anyone, so hot keys are read without a round-trip and never
+ * served after another node overwrote them. It requires Redis 7.4 or later, and
+ * falls back to plain reads with a warning otherwise.
  */
 public class RedisCacheService implements ICacheService, AutoCloseable {
     private static final int DEFAULT_TTL_SECONDS = 3600;
+    private static final int DEFAULT_POOL_MAX_TOTAL = 16;
+    private static final int DEFAULT_TIMEOUT_MILLIS = 2000;
 
-    private final Jedis jedis;
+    private final JedisPooled jedis;
     private final int ttlSeconds;
 
     /**
@@ -19,6 +44,40 @@ public class RedisCacheService implements ICacheService, AutoCloseable {
      * @param ttlSeconds The TTL value.
      */
     public RedisCacheService(String redisHost, int redisPort, String ttlSeconds) {
+        this(redisHost, redisPort, ttlSeconds, DEFAULT_POOL_MAX_TOTAL, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructs the RedisCacheService.
+     * @param redisHost The redis url.
+     * @param redisPort The redis port.
+     * @param ttlSeconds The TTL value.
+     * @param poolMaxTotal The maximum number of pooled connections.
+     * @param timeoutMillis The connection, socket and pool wait timeout.
+     */
+    public RedisCacheService(String redisHost, int redisPort, String ttlSeconds, int poolMaxTotal, int timeoutMillis) {
+        this(redisHost, redisPort, ttlSeconds, poolMaxTotal, timeoutMillis, 0, List.of());
+    }
+
+    /**
+     * Constructs the RedisCacheService.
+     * @param redisHost The redis url.
+     * @param redisPort The redis port.
+     * @param ttlSeconds The TTL value.
+     * @param poolMaxTotal The maximum number of pooled connections.
+     * @param timeoutMillis The connection, socket and pool wait timeout.
+     * @param clientCacheMaxEntries The maximum number of values cached client-side, 0 to disable it.
+     * @param clientCacheKeyPrefixes The prefixes of the keys cached client-side, empty for all the keys.
+     */
+    public RedisCacheService(
+            String redisHost,
+            int redisPort,
+            String ttlSeconds,
+            int poolMaxTotal,
+            int timeoutMillis,
+            int clientCacheMaxEntries,
+            Collection<String> clientCacheKeyPrefixes
+    ) {
         if (redisHost == null || redisHost.trim().isEmpty()) {
             throw new IllegalArgumentException("Redis URL cannot be null or empty");
         }
@@ -33,7 +92,92 @@ public class RedisCacheService implements ICacheService, AutoCloseable {
             this.ttlSeconds = Integer.parseInt(ttlSeconds);
         }
 
-        this.jedis = new Jedis(redisHost, redisPort);
+        if (poolMaxTotal <= 0) {
+            throw new IllegalArgumentException("Redis pool size should be a positive number");
+        }
+
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Redis timeout should be a positive number");
+        }
+
+        if (clientCacheMaxEntries < 0) {
+            throw new IllegalArgumentException("Redis client cache size should not be a negative number");
+        }
+
+        if (clientCacheKeyPrefixes == null) {
+            throw new IllegalArgumentException("Redis client cache key prefixes must not be null");
+        }
+
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+        poolConfig.setMaxTotal(poolMaxTotal);
+        poolConfig.setMaxIdle(poolMaxTotal);
+        poolConfig.setBlockWhenExhausted(true);
+        poolConfig.setMaxWait(Duration.ofMillis(timeoutMillis));
+
+        HostAndPort hostAndPort = new HostAndPort(redisHost, redisPort);
+        JedisPooled pooled = null;
+
+        if (clientCacheMaxEntries > 0) {
+            pooled = createClientCachingPool(hostAndPort, poolConfig, timeoutMillis, clientCacheMaxEntries, clientCacheKeyPrefixes);
+        }
+
+        if (pooled == null) {
+            DefaultJedisClientConfig clientConfig = DefaultJedisClientConfig.builder()
+                    .connectionTimeoutMillis(timeoutMillis)
+                    .socketTimeoutMillis(timeoutMillis)
+                    .build();
+
+            pooled = new JedisPooled(hostAndPort, clientConfig, poolConfig);
+        }
+
+        this.jedis = pooled;
+    }
+
+    /**
+     * Creates a pool of RESP3 connections with client-side caching, checking that the
+     * server supports it.
+     * @param hostAndPort The Redis address.
+     * @param poolConfig The pool configuration.
+     * @param timeoutMillis The connection and socket timeout.
+     * @param maxEntries The maximum number of values cached client-side.
+     * @param keyPrefixes The prefixes of the keys cached client-side, empty for all the keys.
+     * @return The pool or null if client-side caching is not available.
+     */
+    private static JedisPooled createClientCachingPool(
+            HostAndPort hostAndPort,
+            ConnectionPoolConfig poolConfig,
+            int timeoutMillis,
+            int maxEntries,
+            Collection<String> keyPrefixes
+    ) {
+        DefaultJedisClientConfig clientConfig = DefaultJedisClientConfig.builder()
+                .connectionTimeoutMillis(timeoutMillis)
+                .socketTimeoutMillis(timeoutMillis)
+                .protocol(RedisProtocol.RESP3)
+                .build();
+
+        CacheConfig cacheConfig = CacheConfig.builder()
+                .maxSize(maxEntries)
+                .cacheable(new KeyPrefixCacheable(keyPrefixes))
+                .build();
+
+        JedisPooled pooled = null;
+
+        try {
+            pooled = new JedisPooled(hostAndPort, clientConfig, cacheConfig, poolConfig);
+            pooled.ping();
+
+            System.out.println("DEBUG: Redis client-side caching enabled for " + (keyPrefixes.isEmpty() ? "all keys" : "keys " + keyPrefixes));
+            return pooled;
+        } catch (JedisException e) {
+            System.err.println("Warning: Redis client-side caching is not available, reading without it: " + e.getMessage());
+
+            if (pooled != null) {
+                pooled.close();
+            }
+
+            return null;
+        }
     }
 
     /**
@@ -70,7 +214,18 @@ public class RedisCacheService implements ICacheService, AutoCloseable {
      */
     @Override
     public void set(String key, String value) {
-        if (key == null || key.trim().isEmpty() || value == null || value.trim().isEmpty()) {
+        set(key, value, ttlSeconds);
+    }
+
+    /**
+     * Stores a key-value pair in the cache with its own TTL.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @param ttlSeconds The TTL of this entry.
+     */
+    @Override
+    public void set(String key, String value, int ttlSeconds) {
+        if (key == null || key.trim().isEmpty() || value == null || value.trim().isEmpty() || ttlSeconds <= 0) {
             return;
         }
 
@@ -82,11 +237,198 @@ public class RedisCacheService implements ICacheService, AutoCloseable {
     }
 
     /**
-     * Close the redis connection.
+     * Retrieves many values from the cache with a single MGET.
+     * @param keys The keys to retrieve.
+     * @return The data strings found, by key.
+     */
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> found = new LinkedHashMap<>();
+        List<String> validKeys = new ArrayList<>();
+
+        for (String key : keys) {
+            if (key != null && !key.trim().isEmpty()) validKeys.add(key.trim());
+        }
+
+        if (validKeys.isEmpty()) {
+            return found;
+        }
+
+        try {
+            List<String> values = jedis.mget(validKeys.toArray(new String[0]));
+
+            for (int i = 0; i < validKeys.size(); i++) {
+                if (values.get(i) != null) found.put(validKeys.get(i), values.get(i));
+            }
+
+            System.out.println("DEBUG: Cache hits for " + found.size() + "/" + validKeys.size() + " keys");
+        } catch (JedisException e) {
+            System.err.println("Error getting " + validKeys.size() + " keys: " + e.getMessage());
+        }
+
+        return found;
+    }
+
+    /**
+     * Stores many key-value pairs with pipelined SETEX commands, in a single round-trip.
+     * @param entries The string data to cache, by key.
+     */
+    @Override
+    public void setAll(Map<String, String> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        try (AbstractPipeline pipeline = jedis.pipelined()) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                String key = entry.getKey();
+                String value = entry.getValue();
+
+                if (key == null || key.trim().isEmpty() || value == null || value.trim().isEmpty()) continue;
+
+                pipeline.setex(key, ttlSeconds, value);
+            }
+
+            pipeline.sync();
+        } catch (JedisException e) {
+            System.err.println("Error setting " + entries.size() + " keys: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves a binary value from the cache based on its key.
+     * @param key The unique key to identify the cached data.
+     * @return The binary data found.
+     */
+    @Override
+    public byte[] getBytes(String key) {
+        if (key == null || key.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            byte[] data = jedis.get(SafeEncoder.encode(key.trim()));
+
+            if (data != null) {
+                System.out.println("DEBUG: Cache hit for key: " + key);
+            } else {
+                System.out.println("DEBUG: Cache miss for key: " + key);
+            }
+
+            return data;
+        } catch (JedisException e) {
+            System.err.println("Error getting key '" + key.trim() + "': " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves many binary values from the cache with a single MGET.
+     * @param keys The keys to retrieve.
+     * @return The binary data found, by key.
+     */
+    @Override
+    public Map<String, byte[]> getAllBytes(Collection<String> keys) {
+        Map<String, byte[]> found = new LinkedHashMap<>();
+        List<String> validKeys = new ArrayList<>();
+
+        for (String key : keys) {
+            if (key != null && !key.trim().isEmpty()) validKeys.add(key.trim());
+        }
+
+        if (validKeys.isEmpty()) {
+            return found;
+        }
+
+        try {
+            List<byte[]> values = jedis.mget(validKeys.stream().map(SafeEncoder::encode).toArray(byte[][]::new));
+
+            for (int i = 0; i < validKeys.size(); i++) {
+                if (values.get(i) != null) found.put(validKeys.get(i), values.get(i));
+            }
+
+            System.out.println("DEBUG: Cache hits for " + found.size() + "/" + validKeys.size() + " keys");
+        } catch (JedisException e) {
+            System.err.println("Error getting " + validKeys.size() + " keys: " + e.getMessage());
+        }
+
+        return found;
+    }
+
+    /**
+     * Stores a key-value pair of binary data in the cache with the defined TTL.
+     * @param key The unique key for the data.
+     * @param value The binary data to cache.
+     */
+    @Override
+    public void setBytes(String key, byte[] value) {
+        if (key == null || key.trim().isEmpty() || value == null || value.length == 0) {
+            return;
+        }
+
+        try {
+            jedis.setex(SafeEncoder.encode(key), ttlSeconds, value);
+        } catch (JedisException e) {
+            System.err.println("Error setting key '" + key + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stores many key-value pairs of binary data with pipelined SETEX commands, in a single round-trip.
+     * @param entries The binary data to cache, by key.
+     */
+    @Override
+    public void setAllBytes(Map<String, byte[]> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        try (AbstractPipeline pipeline = jedis.pipelined()) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                String key = entry.getKey();
+                byte[] value = entry.getValue();
+
+                if (key == null || key.trim().isEmpty() || value == null || value.length == 0) continue;
+
+                pipeline.setex(SafeEncoder.encode(key), ttlSeconds, value);
+            }
+
+            pipeline.sync();
+        } catch (JedisException e) {
+            System.err.println("Error setting " + entries.size() + " keys: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the pooled client, shared with the other Redis based stores.
+     * @return The pooled client.
+     */
+    JedisPooled getJedis() {
+        return jedis;
+    }
+
+    /**
+     * Gets the TTL of the cache entries.
+     * @return The TTL in seconds.
+     */
+    int getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    /**
+     * Gets the hit, miss and invalidation counters of the client-side cache.
+     * @return The client cache statistics or null if client-side caching is disabled.
+     */
+    public CacheStats getClientCacheStats() {
+        return jedis.getCache() != null ? jedis.getCache().getStats() : null;
+    }
+
+    /**
+     * Close the redis connection pool.
      */
     @Override
     public void close() {
-        if (jedis != null && jedis.isConnected()) {
+        if (jedis != null) {
             try {
                 jedis.close();
             } catch (JedisException e) {
@@ -94,4 +436,47 @@ public class RedisCacheService implements ICacheService, AutoCloseable {
             }
         }
     }
+
+    /**
+     * Defines which reads are cached client-side: the read-only commands Jedis caches
+     * by default, when all their keys start with one of the prefixes.
+     */
+    private static final class KeyPrefixCacheable implements Cacheable {
+        private final List<String> keyPrefixes;
+
+        /**
+         * Constructs the KeyPrefixCacheable.
+         * @param keyPrefixes The prefixes of the keys cached client-side, empty for all the keys.
+         */
+        private KeyPrefixCacheable(Collection<String> keyPrefixes) {
+            this.keyPrefixes = List.copyOf(keyPrefixes);
+        }
+
+        /**
+         * See if the result of a command can be cached client-side.
+         * @param command The command.
+         * @param keys The keys of the command, as strings or binary data.
+         * @return True if it can be cached.
+         */
+        @Override
+        public boolean isCacheable(ProtocolCommand command, List<Object> keys) {
+            if (!DefaultCacheable.isDefaultCacheableCommand(command)) {
+                return false;
+            }
+
+            if (keyPrefixes.isEmpty()) {
+                return true;
+            }
+
+            for (Object key : keys) {
+                String name = key instanceof byte[] bytes ? SafeEncoder.encode(bytes) : String.valueOf(key);
+
+                if (keyPrefixes.stream().noneMatch(name::startsWith)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
 }
@@ -0,0 +1,319 @@
+package nitro.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+import nitro.index.ElixirCatalogIndex;
+import nitro.mapper.IBinaryMapper;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Defines a normalized Elixir store on Redis.
+ * Every Elixir is stored once, binary encoded, in a hash keyed by Elixir ID, and
+ * every Ingredient has a SET with the IDs of the Elixirs that require it, so
+ * Redis memory no longer grows with the recipe sizes. Candidate lookups run
+ * SUNION on the server and only fetch the Elixir bodies they need, with one HMGET.
+ * Every catalog is written under its own versioned key namespace, and is only
+ * published once complete, by swapping the pointer key to its version, so the
+ * readers and concurrent writers never see a mix of two catalogs. The keys of the
+ * replaced catalog expire after a short grace period, for the readers still on it.
+ * All the keys share the TTL of the cache service.
+ * Elixirs without an ID can not be keyed and are not stored.
+ */
+public class RedisElixirStore implements IElixirStore {
+    private static final String KEY_PREFIX = "elixir:store:";
+    private static final String KEY_CURRENT = KEY_PREFIX + "current";
+    private static final String KEY_VERSION = KEY_PREFIX + "version";
+    private static final String KEY_BODIES = ":bodies";
+    private static final String KEY_INGREDIENTS = ":ingredients";
+    private static final String KEY_INGREDIENT_PREFIX = ":ingredient:";
+    private static final int REPLACED_GRACE_SECONDS = 60;
+
+    private final JedisPooled jedis;
+    private final int ttlSeconds;
+    private final IBinaryMapper binaryMapper;
+
+    /**
+     * Constructs the RedisElixirStore, sharing the connection pool and TTL of a cache service.
+     * @param redisCacheService The Redis cache service.
+     * @param binaryMapper The binaryMapper to encode the Elixirs.
+     */
+    public RedisElixirStore(RedisCacheService redisCacheService, IBinaryMapper binaryMapper) {
+        if (redisCacheService == null) {
+            throw new IllegalArgumentException("RedisCacheService must not be null");
+        }
+
+        if (binaryMapper == null) {
+            throw new IllegalArgumentException("IBinaryMapper must not be null");
+        }
+
+        this.jedis = redisCacheService.getJedis();
+        this.ttlSeconds = redisCacheService.getTtlSeconds();
+        this.binaryMapper = binaryMapper;
+    }
+
+    /**
+     * See if the Elixir catalog is stored and not expired.
+     * @return True if the catalog is stored.
+     */
+    @Override
+    public boolean isLoaded() {
+        try {
+            return jedis.exists(KEY_CURRENT);
+        } catch (JedisException e) {
+            System.err.println("Error checking the elixir store: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the Elixir catalog under a new version and publishes it, expiring the previous one.
+     * @param elixirs The full Elixir catalog.
+     */
+    @Override
+    public void store(List<Elixir> elixirs) {
+        if (elixirs == null) {
+            return;
+        }
+
+        Map<byte[], byte[]> bodies = new HashMap<>();
+        Map<String, Set<String>> idsByIngredient = new HashMap<>();
+
+        for (Elixir elixir : elixirs) {
+            if (elixir == null || elixir.getId() == null) continue;
+
+            bodies.put(SafeEncoder.encode(elixir.getId()), binaryMapper.toBinary(elixir));
+
+            if (elixir.getIngredients() == null) continue;
+
+            for (Ingredient ingredient : elixir.getIngredients()) {
+                if (ingredient == null || ingredient.getName() == null) continue;
+
+                idsByIngredient.computeIfAbsent(ElixirCatalogIndex.normalize(ingredient.getName()), name -> new HashSet<>()).add(elixir.getId());
+            }
+        }
+
+        try {
+            String version = String.valueOf(jedis.incr(KEY_VERSION));
+            int keyTtlSeconds = ttlSeconds + REPLACED_GRACE_SECONDS;
+
+            try (AbstractPipeline pipeline = jedis.pipelined()) {
+                if (!bodies.isEmpty()) {
+                    pipeline.hset(SafeEncoder.encode(bodiesKey(version)), bodies);
+                    pipeline.expire(bodiesKey(version), keyTtlSeconds);
+                }
+
+                for (Map.Entry<String, Set<String>> entry : idsByIngredient.entrySet()) {
+                    String key = ingredientKey(version, entry.getKey());
+                    pipeline.sadd(key, entry.getValue().toArray(new String[0]));
+                    pipeline.expire(key, keyTtlSeconds);
+                }
+
+                if (!idsByIngredient.isEmpty()) {
+                    pipeline.sadd(ingredientsKey(version), idsByIngredient.keySet().toArray(new String[0]));
+                    pipeline.expire(ingredientsKey(version), keyTtlSeconds);
+                }
+
+                pipeline.sync();
+            }
+
+            String previousVersion = jedis.setGet(KEY_CURRENT, version, SetParams.setParams().ex(ttlSeconds));
+
+            if (previousVersion != null && !previousVersion.equals(version)) {
+                expireVersion(previousVersion);
+            }
+
+            System.out.println("DEBUG: Stored " + bodies.size() + " elixirs and " + idsByIngredient.size() + " ingredient sets as version " + version);
+        } catch (JedisException e) {
+            System.err.println("Error storing the elixir catalog: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Shortens the TTL of the keys of a replaced catalog to the grace period.
+     * The replaced catalog is no longer written, so its Ingredient sets can be listed safely.
+     * @param version The version of the replaced catalog.
+     */
+    private void expireVersion(String version) {
+        Set<String> names = jedis.smembers(ingredientsKey(version));
+
+        try (AbstractPipeline pipeline = jedis.pipelined()) {
+            pipeline.expire(bodiesKey(version), REPLACED_GRACE_SECONDS);
+            for (String name : names) {
+                pipeline.expire(ingredientKey(version, name), REPLACED_GRACE_SECONDS);
+            }
+            pipeline.expire(ingredientsKey(version), REPLACED_GRACE_SECONDS);
+            pipeline.sync();
+        }
+    }
+
+    /**
+     * Gets all the stored Elixirs.
+     * @return The list of Elixirs, in no particular order.
+     */
+    @Override
+    public List<Elixir> getElixirs() {
+        List<Elixir> elixirs = new ArrayList<>();
+
+        try {
+            String version = jedis.get(KEY_CURRENT);
+            if (version == null) return elixirs;
+
+            for (byte[] body : jedis.hvals(SafeEncoder.encode(bodiesKey(version)))) {
+                Elixir elixir = binaryMapper.mapBinaryObject(body, Elixir.class);
+                if (elixir != null) elixirs.add(elixir);
+            }
+        } catch (JedisException e) {
+            System.err.println("Error reading the elixir store: " + e.getMessage());
+        }
+
+        return elixirs;
+    }
+
+    /**
+     * Gets the Elixirs that require each one of the Ingredients, reading all the
+     * Ingredient sets in one pipeline and the Elixir bodies with one HMGET.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs of each Ingredient name.
+     */
+    @Override
+    public Map<String, List<Elixir>> getElixirsByIngredientNames(Collection<String> ingredientNames) {
+        Map<String, Set<String>> idsByName = new LinkedHashMap<>();
+        String version = null;
+
+        try {
+            version = jedis.get(KEY_CURRENT);
+            Map<String, Response<Set<String>>> responses = new LinkedHashMap<>();
+
+            try (AbstractPipeline pipeline = jedis.pipelined()) {
+                for (String name : ingredientNames) {
+                    if (version == null) break;
+                    responses.put(name, pipeline.smembers(ingredientKey(version, ElixirCatalogIndex.normalize(name))));
+                }
+                pipeline.sync();
+            }
+
+            responses.forEach((name, response) -> idsByName.put(name, response.get()));
+        } catch (JedisException e) {
+            System.err.println("Error reading the elixir store: " + e.getMessage());
+        }
+
+        Set<String> allIds = new LinkedHashSet<>();
+        idsByName.values().forEach(allIds::addAll);
+        Map<String, Elixir> elixirsById = getElixirsById(version, allIds);
+
+        Map<String, List<Elixir>> elixirsByIngredient = new LinkedHashMap<>();
+
+        for (String name : ingredientNames) {
+            List<Elixir> elixirs = new ArrayList<>();
+
+            for (String id : idsByName.getOrDefault(name, Set.of())) {
+                Elixir elixir = elixirsById.get(id);
+                if (elixir != null) elixirs.add(elixir);
+            }
+
+            elixirsByIngredient.put(name, elixirs);
+        }
+
+        return elixirsByIngredient;
+    }
+
+    /**
+     * Gets the distinct Elixirs that require at least one of the Ingredients, with a
+     * SUNION of their sets and one HMGET of the Elixir bodies.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs.
+     */
+    @Override
+    public List<Elixir> getElixirsWithAnyIngredient(Collection<String> ingredientNames) {
+        if (ingredientNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String version;
+        Set<String> ids;
+
+        try {
+            version = jedis.get(KEY_CURRENT);
+            if (version == null) return new ArrayList<>();
+
+            ids = jedis.sunion(ingredientNames.stream().map(name -> ingredientKey(version, ElixirCatalogIndex.normalize(name))).toArray(String[]::new));
+        } catch (JedisException e) {
+            System.err.println("Error reading the elixir store: " + e.getMessage());
+            return new ArrayList<>();
+        }
+
+        return new ArrayList<>(getElixirsById(version, ids).values());
+    }
+
+    /**
+     * Gets Elixir bodies by ID with one HMGET.
+     * @param version The catalog version.
+     * @param ids The Elixir IDs.
+     * @return The Elixirs found, by ID.
+     */
+    private Map<String, Elixir> getElixirsById(String version, Collection<String> ids) {
+        Map<String, Elixir> elixirsById = new LinkedHashMap<>();
+
+        if (version == null || ids.isEmpty()) {
+            return elixirsById;
+        }
+
+        try {
+            List<String> idList = new ArrayList<>(ids);
+            List<byte[]> bodies = jedis.hmget(SafeEncoder.encode(bodiesKey(version)), idList.stream().map(SafeEncoder::encode).toArray(byte[][]::new));
+
+            for (int i = 0; i < idList.size(); i++) {
+                if (bodies.get(i) == null) continue;
+
+                Elixir elixir = binaryMapper.mapBinaryObject(bodies.get(i), Elixir.class);
+                if (elixir != null) elixirsById.put(idList.get(i), elixir);
+            }
+        } catch (JedisException e) {
+            System.err.println("Error reading the elixir store: " + e.getMessage());
+        }
+
+        return elixirsById;
+    }
+
+    /**
+     * Gets the key of the Elixir bodies hash of a catalog version.
+     * @param version The catalog version.
+     * @return The key.
+     */
+    private static String bodiesKey(String version) {
+        return KEY_PREFIX + version + KEY_BODIES;
+    }
+
+    /**
+     * Gets the key of the Ingredient names set of a catalog version.
+     * @param version The catalog version.
+     * @return The key.
+     */
+    private static String ingredientsKey(String version) {
+        return KEY_PREFIX + version + KEY_INGREDIENTS;
+    }
+
+    /**
+     * Gets the key of the Elixir IDs set of an Ingredient in a catalog version.
+     * @param version The catalog version.
+     * @param name The normalized Ingredient name.
+     * @return The key.
+     */
+    private static String ingredientKey(String version, String name) {
+        return KEY_PREFIX + version + KEY_INGREDIENT_PREFIX + name;
+    }
+}
@@ -0,0 +1,404 @@
+package nitro.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Defines a two level cache service: a size-bounded in-process L1 with a TTL
+ * per entry, in front of another cache service (usually Redis).
+ * The L1 also keeps the decoded object of each entry, so repeated reads of a
+ * hot key skip both the network and the deserialization.
+ * Writes go to both levels. Writes made by other nodes are only seen once the
+ * L1 entry expires. String and binary values share the same keys, and an entry
+ * written in one form is converted as UTF-8 when read in the other.
+ */
+public class TieredCacheService implements ICacheService, AutoCloseable {
+    private final ICacheService remoteCache;
+    private final LruCache<String, LocalEntry> localCache;
+
+    /**
+     * Constructs the TieredCacheService.
+     * @param remoteCache The L2 cache service.
+     * @param maxEntries The maximum number of L1 entries.
+     * @param ttlSeconds The TTL of the L1 entries.
+     */
+    public TieredCacheService(ICacheService remoteCache, int maxEntries, int ttlSeconds) {
+        if (remoteCache == null) {
+            throw new IllegalArgumentException("Remote ICacheService must not be null");
+        }
+
+        if (ttlSeconds <= 0) {
+            throw new IllegalArgumentException("L1 TTL should be a positive number");
+        }
+
+        this.remoteCache = remoteCache;
+        this.localCache = new LruCache<>(maxEntries, ttlSeconds * 1000L);
+    }
+
+    /**
+     * Retrieves a value from the L1, or from the L2 as fallback.
+     * @param key The unique key to identify the cached data.
+     * @return The data string found.
+     */
+    @Override
+    public String get(String key) {
+        if (key == null || key.trim().isEmpty()) {
+            return null;
+        }
+
+        LocalEntry entry = localCache.get(key);
+
+        if (entry != null) {
+            return entry.asString();
+        }
+
+        String value = remoteCache.get(key);
+
+        if (value != null) {
+            localCache.put(key, new LocalEntry(value));
+        }
+
+        return value;
+    }
+
+    /**
+     * Retrieves a decoded value from the L1, or from the L2 as fallback.
+     * The decoded object is kept in the L1 entry, so it is only decoded once per entry.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached string data.
+     * @return The decoded value or null if the key is not cached.
+     */
+    @Override
+    public <T> T get(String key, Function<String, T> decoder) {
+        if (key == null || key.trim().isEmpty()) {
+            return null;
+        }
+
+        LocalEntry entry = localCache.get(key);
+
+        if (entry == null) {
+            String value = remoteCache.get(key);
+
+            if (value == null) {
+                return null;
+            }
+
+            entry = new LocalEntry(value);
+            localCache.put(key, entry);
+        }
+
+        return entry.decode(entry::asString, decoder);
+    }
+
+    /**
+     * Retrieves many values from the L1, and the missing ones from the L2 at once.
+     * @param keys The keys to retrieve.
+     * @return The data strings found, by key.
+     */
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> found = new LinkedHashMap<>();
+
+        getAllEntries(keys, false).forEach((key, entry) -> found.put(key, entry.asString()));
+
+        return found;
+    }
+
+    /**
+     * Retrieves many decoded values from the L1, and the missing ones from the L2 at once.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached string data.
+     * @return The decoded values found, by key.
+     */
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, Function<String, T> decoder) {
+        Map<String, T> found = new LinkedHashMap<>();
+
+        getAllEntries(keys, false).forEach((key, entry) -> found.put(key, entry.decode(entry::asString, decoder)));
+
+        return found;
+    }
+
+    /**
+     * Gets the L1 entries of many keys, loading the missing ones from the L2 at once.
+     * @param keys The keys to retrieve.
+     * @param binary Whether the missing entries are loaded as binary data.
+     * @return The entries found, by key.
+     */
+    private Map<String, LocalEntry> getAllEntries(Collection<String> keys, boolean binary) {
+        Map<String, LocalEntry> found = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String key : keys) {
+            if (key == null || key.trim().isEmpty()) continue;
+
+            LocalEntry entry = localCache.get(key);
+
+            if (entry != null) {
+                found.put(key, entry);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, ?> loaded = binary ? remoteCache.getAllBytes(missing) : remoteCache.getAll(missing);
+
+            loaded.forEach((key, value) -> {
+                LocalEntry entry = new LocalEntry(value);
+                localCache.put(key, entry);
+                found.put(key, entry);
+            });
+        }
+
+        return found;
+    }
+
+    /**
+     * Stores a key-value pair in both cache levels.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     */
+    @Override
+    public void set(String key, String value) {
+        if (key == null || key.trim().isEmpty() || value == null || value.trim().isEmpty()) {
+            return;
+        }
+
+        remoteCache.set(key, value);
+        localCache.put(key, new LocalEntry(value));
+    }
+
+    /**
+     * Stores a key-value pair with its own TTL in the L2 only, since the L1 entries all
+     * share the same TTL. Any L1 entry of the key is dropped.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @param ttlSeconds The TTL of this entry.
+     */
+    @Override
+    public void set(String key, String value, int ttlSeconds) {
+        if (key == null || key.trim().isEmpty()) {
+            return;
+        }
+
+        remoteCache.set(key, value, ttlSeconds);
+        localCache.remove(key);
+    }
+
+    /**
+     * Stores many key-value pairs in both cache levels.
+     * @param entries The string data to cache, by key.
+     */
+    @Override
+    public void setAll(Map<String, String> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        remoteCache.setAll(entries);
+
+        entries.forEach((key, value) -> {
+            if (key != null && !key.trim().isEmpty() && value != null && !value.trim().isEmpty()) {
+                localCache.put(key, new LocalEntry(value));
+            }
+        });
+    }
+
+    /**
+     * Retrieves a binary value from the L1, or from the L2 as fallback.
+     * @param key The unique key to identify the cached data.
+     * @return The binary data found.
+     */
+    @Override
+    public byte[] getBytes(String key) {
+        if (key == null || key.trim().isEmpty()) {
+            return null;
+        }
+
+        LocalEntry entry = getBinaryEntry(key);
+
+        return entry != null ? entry.asBytes() : null;
+    }
+
+    /**
+     * Retrieves a decoded binary value from the L1, or from the L2 as fallback.
+     * The decoded object is kept in the L1 entry, so it is only decoded once per entry.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The decoded value or null if the key is not cached.
+     */
+    @Override
+    public <T> T getBytes(String key, Function<byte[], T> decoder) {
+        if (key == null || key.trim().isEmpty()) {
+            return null;
+        }
+
+        LocalEntry entry = getBinaryEntry(key);
+
+        return entry != null ? entry.decode(entry::asBytes, decoder) : null;
+    }
+
+    /**
+     * Gets the L1 entry of a key, loading it from the L2 as binary data on a miss.
+     * @param key The key.
+     * @return The entry or null if the key is not cached.
+     */
+    private LocalEntry getBinaryEntry(String key) {
+        LocalEntry entry = localCache.get(key);
+
+        if (entry == null) {
+            byte[] value = remoteCache.getBytes(key);
+
+            if (value == null) {
+                return null;
+            }
+
+            entry = new LocalEntry(value);
+            localCache.put(key, entry);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Retrieves many binary values from the L1, and the missing ones from the L2 at once.
+     * @param keys The keys to retrieve.
+     * @return The binary data found, by key.
+     */
+    @Override
+    public Map<String, byte[]> getAllBytes(Collection<String> keys) {
+        Map<String, byte[]> found = new LinkedHashMap<>();
+
+        getAllEntries(keys, true).forEach((key, entry) -> found.put(key, entry.asBytes()));
+
+        return found;
+    }
+
+    /**
+     * Retrieves many decoded binary values from the L1, and the missing ones from the L2 at once.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The decoded values found, by key.
+     */
+    @Override
+    public <T> Map<String, T> getAllBytes(Collection<String> keys, Function<byte[], T> decoder) {
+        Map<String, T> found = new LinkedHashMap<>();
+
+        getAllEntries(keys, true).forEach((key, entry) -> found.put(key, entry.decode(entry::asBytes, decoder)));
+
+        return found;
+    }
+
+    /**
+     * Stores a key-value pair of binary data in both cache levels.
+     * @param key The unique key for the data.
+     * @param value The binary data to cache.
+     */
+    @Override
+    public void setBytes(String key, byte[] value) {
+        if (key == null || key.trim().isEmpty() || value == null || value.length == 0) {
+            return;
+        }
+
+        remoteCache.setBytes(key, value);
+        localCache.put(key, new LocalEntry(value));
+    }
+
+    /**
+     * Stores many key-value pairs of binary data in both cache levels.
+     * @param entries The binary data to cache, by key.
+     */
+    @Override
+    public void setAllBytes(Map<String, byte[]> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        remoteCache.setAllBytes(entries);
+
+        entries.forEach((key, value) -> {
+            if (key != null && !key.trim().isEmpty() && value != null && value.length > 0) {
+                localCache.put(key, new LocalEntry(value));
+            }
+        });
+    }
+
+    /**
+     * Gets the L1 cache, to read its hit and miss counters.
+     * @return The L1 cache.
+     */
+    public LruCache<String, ?> getLocalCache() {
+        return localCache;
+    }
+
+    /**
+     * Closes the L2 cache service.
+     */
+    @Override
+    public void close() {
+        if (remoteCache instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("Warning: Failed to close the L2 cache service: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Defines an L1 entry: the cached string or binary data and its lazily decoded object.
+     */
+    private static final class LocalEntry {
+        private final Object value;
+        private volatile Object decoded;
+
+        /**
+         * Constructs the LocalEntry.
+         * @param value The cached string or binary data.
+         */
+        private LocalEntry(Object value) {
+            this.value = value;
+        }
+
+        /**
+         * Gets the cached data as a string.
+         * @return The string data.
+         */
+        private String asString() {
+            return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : (String) value;
+        }
+
+        /**
+         * Gets the cached data as binary data.
+         * @return The binary data.
+         */
+        private byte[] asBytes() {
+            return value instanceof String string ? string.getBytes(StandardCharsets.UTF_8) : (byte[]) value;
+        }
+
+        /**
+         * Gets the decoded object, decoding the cached data on first use.
+         * @param data The supplier of the cached data in the form the decoder expects.
+         * @param decoder The decoder.
+         * @return The decoded object.
+         */
+        @SuppressWarnings("unchecked")
+        private <D, T> T decode(Supplier<D> data, Function<D, T> decoder) {
+            Object result = decoded;
+
+            if (result == null) {
+                result = decoder.apply(data.get());
+                decoded = result;
+            }
+
+            return (T) result;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package nitro.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Defines a cache service that writes to another one behind, so the callers return
+ * without waiting for the cache round-trip.
+ * The writes are queued in a {@link WriteBehindCacheWriter}, which merges the writes of
+ * a queued key and hands them to the wrapped cache service in batches. While the queue
+ * is full, the writes of new keys are dropped and the values are fetched again on the
+ * next miss. Queued values are read before the wrapped cache service, and a value
+ * written in one form is converted as UTF-8 when read in the other.
+ * The writes with their own TTL are written through, so they keep their TTL.
+ */
+public class WriteBehindCacheService implements ICacheService, AutoCloseable {
+    private final ICacheService delegate;
+    private final WriteBehindCacheWriter writeBehind;
+
+    /**
+     * Constructs the WriteBehindCacheService and starts its background writer.
+     * @param delegate The wrapped cache service.
+     * @param maxPending The maximum number of queued keys.
+     * @param batchSize The maximum number of keys written at once.
+     * @param flushIntervalMillis How long a partial batch waits for more writes before it is written.
+     */
+    public WriteBehindCacheService(ICacheService delegate, int maxPending, int batchSize, long flushIntervalMillis) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("ICacheService must not be null");
+        }
+
+        this.delegate = delegate;
+        this.writeBehind = new WriteBehindCacheWriter(this::writeBatch, maxPending, batchSize, flushIntervalMillis);
+    }
+
+    /**
+     * Retrieves a queued value, or from the wrapped cache service as fallback.
+     * @param key The unique key to identify the cached data.
+     * @return The data string found.
+     */
+    @Override
+    public String get(String key) {
+        Object pending = writeBehind.getPending(key);
+
+        return pending != null ? asString(pending) : delegate.get(key);
+    }
+
+    /**
+     * Retrieves and decodes a queued value, or from the wrapped cache service as fallback.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached string data.
+     * @return The decoded value or null if the key is not cached.
+     */
+    @Override
+    public <T> T get(String key, Function<String, T> decoder) {
+        Object pending = writeBehind.getPending(key);
+
+        return pending != null ? decoder.apply(asString(pending)) : delegate.get(key, decoder);
+    }
+
+    /**
+     * Retrieves many queued values, and the other ones from the wrapped cache service at once.
+     * @param keys The keys to retrieve.
+     * @return The data strings found, by key.
+     */
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        return getAll(keys, Function.identity());
+    }
+
+    /**
+     * Retrieves and decodes many queued values, and the other ones from the wrapped cache
+     * service at once.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached string data.
+     * @return The decoded values found, by key.
+     */
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, Function<String, T> decoder) {
+        Map<String, T> found = new LinkedHashMap<>();
+        List<String> unqueued = new ArrayList<>();
+
+        for (String key : keys) {
+            Object pending = writeBehind.getPending(key);
+
+            if (pending != null) {
+                found.put(key, decoder.apply(asString(pending)));
+            } else {
+                unqueued.add(key);
+            }
+        }
+
+        if (!unqueued.isEmpty()) {
+            found.putAll(delegate.getAll(unqueued, decoder));
+        }
+
+        return found;
+    }
+
+    /**
+     * Queues the write of a key-value pair.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     */
+    @Override
+    public void set(String key, String value) {
+        writeBehind.enqueue(key, value);
+    }
+
+    /**
+     * Writes a key-value pair with its own TTL through to the wrapped cache service.
+     * @param key The unique key for the data.
+     * @param value The string data to cache.
+     * @param ttlSeconds The TTL of this entry.
+     */
+    @Override
+    public void set(String key, String value, int ttlSeconds) {
+        delegate.set(key, value, ttlSeconds);
+    }
+
+    /**
+     * Queues the writes of many key-value pairs.
+     * @param entries The string data to cache, by key.
+     */
+    @Override
+    public void setAll(Map<String, String> entries) {
+        writeBehind.enqueueAll(new LinkedHashMap<>(entries));
+    }
+
+    /**
+     * Retrieves a queued binary value, or from the wrapped cache service as fallback.
+     * @param key The unique key to identify the cached data.
+     * @return The binary data found.
+     */
+    @Override
+    public byte[] getBytes(String key) {
+        Object pending = writeBehind.getPending(key);
+
+        return pending != null ? asBytes(pending) : delegate.getBytes(key);
+    }
+
+    /**
+     * Retrieves and decodes a queued binary value, or from the wrapped cache service as fallback.
+     * @param key The unique key to identify the cached data.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The decoded value or null if the key is not cached.
+     */
+    @Override
+    public <T> T getBytes(String key, Function<byte[], T> decoder) {
+        Object pending = writeBehind.getPending(key);
+
+        return pending != null ? decoder.apply(asBytes(pending)) : delegate.getBytes(key, decoder);
+    }
+
+    /**
+     * Retrieves many queued binary values, and the other ones from the wrapped cache service at once.
+     * @param keys The keys to retrieve.
+     * @return The binary data found, by key.
+     */
+    @Override
+    public Map<String, byte[]> getAllBytes(Collection<String> keys) {
+        return getAllBytes(keys, Function.identity());
+    }
+
+    /**
+     * Retrieves and decodes many queued binary values, and the other ones from the wrapped
+     * cache service at once.
+     * @param keys The keys to retrieve.
+     * @param decoder The function that decodes the cached binary data.
+     * @return The decoded values found, by key.
+     */
+    @Override
+    public <T> Map<String, T> getAllBytes(Collection<String> keys, Function<byte[], T> decoder) {
+        Map<String, T> found = new LinkedHashMap<>();
+        List<String> unqueued = new ArrayList<>();
+
+        for (String key : keys) {
+            Object pending = writeBehind.getPending(key);
+
+            if (pending != null) {
+                found.put(key, decoder.apply(asBytes(pending)));
+            } else {
+                unqueued.add(key);
+            }
+        }
+
+        if (!unqueued.isEmpty()) {
+            found.putAll(delegate.getAllBytes(unqueued, decoder));
+        }
+
+        return found;
+    }
+
+    /**
+     * Queues the write of a key-value pair of binary data.
+     * @param key The unique key for the data.
+     * @param value The binary data to cache.
+     */
+    @Override
+    public void setBytes(String key, byte[] value) {
+        writeBehind.enqueue(key, value);
+    }
+
+    /**
+     * Queues the writes of many key-value pairs of binary data.
+     * @param entries The binary data to cache, by key.
+     */
+    @Override
+    public void setAllBytes(Map<String, byte[]> entries) {
+        writeBehind.enqueueAll(new LinkedHashMap<>(entries));
+    }
+
+    /**
+     * Writes the queued values, logs the write-behind counters and closes the wrapped cache service.
+     */
+    @Override
+    public void close() {
+        writeBehind.close();
+        System.out.println("DEBUG: Write-behind cache writes: " + writeBehind.getQueuedCount() + " queued, "
+                + writeBehind.getCoalescedCount() + " coalesced, " + writeBehind.getDroppedCount() + " dropped, "
+                + writeBehind.getWrittenCount() + " written in " + writeBehind.getBatchCount() + " batches, "
+                + writeBehind.getFailedCount() + " failed");
+
+        if (delegate instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("Warning: Failed to close the wrapped cache service: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of queued values to the wrapped cache service, the strings and the
+     * binary data each at once.
+     * @param batch The values to write, by cache key.
+     */
+    private void writeBatch(Map<String, Object> batch) {
+        Map<String, String> strings = new LinkedHashMap<>();
+        Map<String, byte[]> bytes = new LinkedHashMap<>();
+
+        batch.forEach((key, value) -> {
+            if (value instanceof byte[] binary) {
+                bytes.put(key, binary);
+            } else {
+                strings.put(key, (String) value);
+            }
+        });
+
+        if (!strings.isEmpty()) delegate.setAll(strings);
+        if (!bytes.isEmpty()) delegate.setAllBytes(bytes);
+    }
+
+    /**
+     * Reads a queued value as a string.
+     * @param value The queued string or binary data.
+     * @return The string data.
+     */
+    private static String asString(Object value) {
+        return value instanceof byte[] binary ? new String(binary, StandardCharsets.UTF_8) : (String) value;
+    }
+
+    /**
+     * Reads a queued value as binary data.
+     * @param value The queued string or binary data.
+     * @return The binary data.
+     */
+    private static byte[] asBytes(Object value) {
+        return value instanceof byte[] binary ? binary : ((String) value).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,306 @@
+package nitro.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Defines a write-behind queue of cache writes, so the callers return without waiting
+ * for the encoding and the cache round-trip.
+ * The writes are kept by key, so a newer write of a queued key replaces the older one,
+ * and a background virtual thread hands them to the writer in batches, after waiting
+ * a short while for the batch to fill. When the queue is full, the writes of new keys
+ * are dropped and counted; the value is then fetched again on the next miss.
+ * Until it is written, a queued value is still returned by {@link #getPending(String)}.
+ */
+public class WriteBehindCacheWriter implements AutoCloseable {
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final Consumer<Map<String, Object>> writer;
+    private final int maxPending;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+
+    // Not a monitor, so the virtual worker does not pin its carrier while it waits for writes.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition writesQueued = lock.newCondition();
+    private final LinkedHashMap<String, Object> pending = new LinkedHashMap<>();
+    private Map<String, Object> writing = Map.of();
+    private boolean closed;
+    private final Thread worker;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * Constructs the WriteBehindCacheWriter and starts its background worker.
+     * @param writer The function writing a batch of values, by cache key. It runs on the worker.
+     * @param maxPending The maximum number of queued keys.
+     * @param batchSize The maximum number of keys written at once.
+     * @param flushIntervalMillis How long a partial batch waits for more writes before it is written.
+     */
+    public WriteBehindCacheWriter(Consumer<Map<String, Object>> writer, int maxPending, int batchSize, long flushIntervalMillis) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer must not be null");
+        }
+
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("Max pending writes should be at least 1");
+        }
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size should be at least 1");
+        }
+
+        if (flushIntervalMillis < 0) {
+            throw new IllegalArgumentException("Flush interval should not be negative");
+        }
+
+        this.writer = writer;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.worker = Thread.ofVirtual().name("cache-write-behind").start(this::flushLoop);
+    }
+
+    /**
+     * Queues the write of a value, replacing the queued write of the same key if there is one.
+     * @param key The cache key.
+     * @param value The object or list to cache.
+     * @return True if it was queued, false if it was dropped because the queue is full or closed.
+     */
+    public boolean enqueue(String key, Object value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value must not be null");
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                dropped.incrementAndGet();
+                return false;
+            }
+
+            if (pending.containsKey(key)) {
+                pending.put(key, value);
+                coalesced.incrementAndGet();
+                return true;
+            }
+
+            if (pending.size() >= maxPending) {
+                dropped.incrementAndGet();
+                System.err.println("Warning: Write-behind queue is full, dropping the cache write of '" + key + "'");
+                return false;
+            }
+
+            pending.put(key, value);
+            queued.incrementAndGet();
+
+            // Wakes the worker up when the first write arrives and when a batch is full.
+            if (pending.size() == 1 || pending.size() == batchSize) {
+                writesQueued.signalAll();
+            }
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues the writes of many values.
+     * @param values The objects or lists to cache, by cache key.
+     * @return The number of values dropped because the queue is full or closed.
+     */
+    public int enqueueAll(Map<String, Object> values) {
+        int droppedValues = 0;
+
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (!enqueue(entry.getKey(), entry.getValue())) droppedValues++;
+        }
+
+        return droppedValues;
+    }
+
+    /**
+     * Gets the value of a key that is queued or being written.
+     * @param key The cache key.
+     * @return The value or null if the key has no pending write.
+     */
+    public Object getPending(String key) {
+        lock.lock();
+        try {
+            Object value = pending.get(key);
+            return value != null ? value : writing.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of keys queued and not written yet.
+     * @return The pending keys.
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size() + writing.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of writes of new keys accepted in the queue.
+     * @return The queued writes.
+     */
+    public long getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Gets the number of writes merged into the queued write of the same key.
+     * @return The coalesced writes.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Gets the number of writes dropped because the queue was full or closed.
+     * @return The dropped writes.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of keys handed to the writer without failure.
+     * @return The written keys.
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Gets the number of keys of the batches the writer failed to write.
+     * @return The failed keys.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Gets the number of batches handed to the writer.
+     * @return The batches.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Stops accepting writes and waits for the queued ones to be written.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            writesQueued.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            worker.join(CLOSE_TIMEOUT_MILLIS);
+
+            if (worker.isAlive()) {
+                System.err.println("Warning: Write-behind queue not flushed in " + CLOSE_TIMEOUT_MILLIS + " ms, " + getPendingCount() + " cache writes lost");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the queued values in batches until the writer is closed and the queue is empty.
+     */
+    private void flushLoop() {
+        try {
+            while (true) {
+                Map<String, Object> batch = nextBatch();
+                if (batch == null) return;
+
+                writeBatch(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for queued writes and takes the oldest ones, up to the batch size.
+     * A partial batch waits up to the flush interval for more writes, unless the writer is closed.
+     * @return The batch or null if the writer is closed and the queue is empty.
+     * @throws InterruptedException if the worker is interrupted while waiting.
+     */
+    private Map<String, Object> nextBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            writing = Map.of();
+
+            while (pending.isEmpty() && !closed) {
+                writesQueued.await();
+            }
+
+            long remaining = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+
+            while (!closed && pending.size() < batchSize && remaining > 0) {
+                remaining = writesQueued.awaitNanos(remaining);
+            }
+
+            if (pending.isEmpty()) {
+                return null;
+            }
+
+            Map<String, Object> batch = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, Object>> entries = pending.entrySet().iterator();
+
+            while (entries.hasNext() && batch.size() < batchSize) {
+                Map.Entry<String, Object> entry = entries.next();
+                batch.put(entry.getKey(), entry.getValue());
+                entries.remove();
+            }
+
+            writing = batch;
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands a batch to the writer, counting it as written or failed.
+     * @param batch The values to write, by cache key.
+     */
+    private void writeBatch(Map<String, Object> batch) {
+        batches.incrementAndGet();
+
+        try {
+            writer.accept(batch);
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            System.err.println("Warning: Failed to write " + batch.size() + " cache keys behind: " + e.getMessage());
+        }
+    }
+}
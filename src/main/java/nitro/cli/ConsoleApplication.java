@@ -2,22 +2,43 @@ package nitro.cli;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ws.rs.client.ClientBuilder;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import nitro.api.IAsyncWizardWorldApiClient;
 import nitro.api.IWizardWorldApiClient;
+import nitro.cache.CompressingCacheService;
 import nitro.cache.ICacheService;
+import nitro.cache.IElixirStore;
+import nitro.cache.KeyPrefixRoutingCacheService;
+import nitro.cache.OffHeapCacheService;
 import nitro.cache.RedisCacheService;
+import nitro.cache.RedisElixirStore;
+import nitro.cache.TieredCacheService;
+import nitro.cache.WriteBehindCacheService;
 import nitro.config.AppConfig;
 import nitro.data.Elixir;
+import nitro.data.ElixirMatch;
 import nitro.data.Ingredient;
+import nitro.mapper.BinaryMapper;
 import nitro.mapper.JsonMapper;
 import nitro.service.ElixirCraftService;
 import nitro.service.ElixirDataService;
+import nitro.service.ElixirDataServiceOptions;
+import nitro.service.ElixirStoreDataService;
+import nitro.service.IAsyncElixirDataService;
 import nitro.service.IElixirCraftService;
 import nitro.service.IElixirDataService;
+import nitro.service.IndexedElixirCraftService;
+import nitro.service.ParallelLookup;
+import nitro.service.SnapshotElixirDataService;
+import nitro.service.SnapshotElixirDataServiceOptions;
 import org.jboss.resteasy.client.jaxrs.ResteasyClient;
 import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
 
@@ -25,9 +46,16 @@ import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
  * The type Console application.
  */
 public class ConsoleApplication {
+    private static final int NEAR_MISS_MAX_MISSING = 2;
+    private static final int NEAR_MISS_LIMIT = 10;
+    private static final int SUGGESTION_LIMIT = 5;
+
     private final Scanner scanner;
+    private final ICacheService cacheService;
     private final IElixirDataService elixirService;
     private final IElixirCraftService elixirCraftService;
+    private final ParallelLookup parallelLookup;
+    private final AtomicBoolean closed = new AtomicBoolean();
 
     /**
      * Configure all dependencies.
@@ -42,18 +70,83 @@ public class ConsoleApplication {
 
             // Configure caching service.
             ICacheService cacheService;
+            IElixirStore elixirStore = null;
             if (appConfig.getRedisHost() != null || !appConfig.getRedisHost().isEmpty() || appConfig.getRedisPort() > 0) {
                 try {
-                    cacheService = new RedisCacheService(appConfig.getRedisHost(), appConfig.getRedisPort(), appConfig.getCacheTtlSeconds());
+                    RedisCacheService redisCacheService = new RedisCacheService(
+                            appConfig.getRedisHost(),
+                            appConfig.getRedisPort(),
+                            appConfig.getCacheTtlSeconds(),
+                            appConfig.getRedisPoolMaxTotal(),
+                            appConfig.getRedisTimeoutMillis(),
+                            appConfig.getRedisClientCacheMaxEntries(),
+                            appConfig.getRedisClientCacheKeyPrefixes()
+                    );
+                    cacheService = redisCacheService;
                     System.out.println("Redis cache initialized.");
+
+                    if ("normalized".equalsIgnoreCase(appConfig.getElixirStorageLayout())) {
+                        elixirStore = new RedisElixirStore(redisCacheService, new BinaryMapper(jsonMapper));
+                        System.out.println("Normalized elixir store initialized.");
+                    }
+
+                    if (appConfig.getCacheCompressionThresholdBytes() > 0) {
+                        cacheService = new CompressingCacheService(cacheService, appConfig.getCacheCompressionThresholdBytes());
+                        System.out.println("Cache compression initialized.");
+                    }
                 } catch (Exception e) {
                     System.err.println("Redis cache initialization failed. Running without cache.");
                     cacheService = null;
+                    elixirStore = null;
                 }
             } else {
                 cacheService = null;
             }
 
+            ICacheService remoteCacheService = cacheService;
+
+            if (appConfig.getOffHeapCacheMaxMegabytes() > 0) {
+                boolean standalone = cacheService == null;
+                cacheService = new OffHeapCacheService(
+                        cacheService,
+                        appConfig.getOffHeapCacheMaxMegabytes() * 1024L * 1024L,
+                        appConfig.getOffHeapCacheTtlSeconds(),
+                        appConfig.getOffHeapCacheSlabKilobytes() * 1024
+                );
+                System.out.println(standalone ? "Off-heap cache initialized without Redis." : "Off-heap cache initialized.");
+
+                if (appConfig.getL1CacheMaxEntries() > 0) {
+                    System.err.println("Warning: The in-process L1 cache is not used with the off-heap cache, which replaces it.");
+                }
+            } else if (cacheService != null && appConfig.getL1CacheMaxEntries() > 0) {
+                cacheService = new TieredCacheService(cacheService, appConfig.getL1CacheMaxEntries(), appConfig.getL1CacheTtlSeconds());
+                System.out.println("In-process L1 cache initialized.");
+            }
+
+            // The in-process caches are not invalidated by the writes of other nodes, so the
+            // keys cached client-side by Redis skip them and stay fresh.
+            if (remoteCacheService != null && cacheService != remoteCacheService && appConfig.getRedisClientCacheMaxEntries() > 0) {
+                List<String> clientCacheKeyPrefixes = appConfig.getRedisClientCacheKeyPrefixes();
+
+                if (clientCacheKeyPrefixes.isEmpty()) {
+                    cacheService = remoteCacheService;
+                    System.err.println("Warning: All the keys are cached client-side by Redis, the in-process cache is not used.");
+                } else {
+                    cacheService = new KeyPrefixRoutingCacheService(cacheService, remoteCacheService, clientCacheKeyPrefixes);
+                    System.out.println("Client-side cached keys routed around the in-process cache.");
+                }
+            }
+
+            if (cacheService != null && appConfig.getCacheWriteBehindMaxPending() > 0) {
+                cacheService = new WriteBehindCacheService(
+                        cacheService,
+                        appConfig.getCacheWriteBehindMaxPending(),
+                        appConfig.getCacheWriteBehindBatchSize(),
+                        appConfig.getCacheWriteBehindFlushMillis()
+                );
+                System.out.println("Write-behind cache writes initialized.");
+            }
+
             // Create a new RESTEasy JAX-RS client.
             ResteasyClient client = (ResteasyClient) ClientBuilder.newClient();
 
@@ -63,8 +156,53 @@ public class ConsoleApplication {
             // Defines the proxy service which will be translated into the http requests.
             IWizardWorldApiClient apiClient = target.proxy(IWizardWorldApiClient.class);
 
-            this.elixirService = new ElixirDataService(apiClient, cacheService, objectMapper, jsonMapper);
-            this.elixirCraftService = new ElixirCraftService(elixirService);
+            // Defines the non-blocking proxy service, used by the asynchronous lookups.
+            IAsyncWizardWorldApiClient asyncApiClient = target.proxy(IAsyncWizardWorldApiClient.class);
+
+            ElixirDataServiceOptions dataServiceOptions = new ElixirDataServiceOptions()
+                    .setLookupConcurrency(appConfig.getLookupConcurrency())
+                    .setBinaryCacheEncoding("binary".equalsIgnoreCase(appConfig.getCacheEncoding()))
+                    .setRefreshAheadSeconds(appConfig.getCatalogRefreshAheadSeconds())
+                    .setNegativeCacheTtlSeconds(appConfig.getNegativeCacheTtlSeconds())
+                    .setNegativeCacheMaxEntries(appConfig.getNegativeCacheMaxEntries())
+                    .setAsyncApiClient(asyncApiClient);
+
+            ElixirDataService cachedDataService = new ElixirDataService(apiClient, cacheService, objectMapper, jsonMapper, dataServiceOptions);
+
+            // Keeps the Elixirs normalized in the elixir store instead of the cached lists.
+            IAsyncElixirDataService dataService = elixirStore != null
+                    ? new ElixirStoreDataService(cachedDataService, elixirStore, appConfig.getCatalogRefreshAheadSeconds())
+                    : cachedDataService;
+
+            SnapshotElixirDataServiceOptions snapshotOptions = new SnapshotElixirDataServiceOptions()
+                    .setCatalogSnapshot("snapshot".equalsIgnoreCase(appConfig.getDataLookupMode()))
+                    .setCatalogSnapshotTtlSeconds(appConfig.getDataSnapshotTtlSeconds())
+                    .setCatalogSnapshotMaxAgeSeconds(appConfig.getCatalogSnapshotMaxAgeSeconds());
+
+            if (!appConfig.getCatalogSnapshotFile().isEmpty()) {
+                snapshotOptions.setCatalogSnapshotFile(Path.of(appConfig.getCatalogSnapshotFile()));
+            }
+
+            // Answers the lookups from the local snapshots of the catalogs, when enabled.
+            if (snapshotOptions.isCatalogSnapshot() || snapshotOptions.getCatalogSnapshotFile() != null) {
+                dataService = new SnapshotElixirDataService(dataService, new BinaryMapper(jsonMapper), snapshotOptions);
+            }
+
+            this.elixirService = dataService;
+
+            if ("indexed".equalsIgnoreCase(appConfig.getCraftEngine())) {
+                this.elixirCraftService = new IndexedElixirCraftService(elixirService, appConfig.getCraftResultCacheTtlSeconds());
+            } else {
+                this.elixirCraftService = new ElixirCraftService(
+                        elixirService,
+                        appConfig.getLookupConcurrency(),
+                        appConfig.getCraftResultCacheSize(),
+                        appConfig.getCraftResultCacheTtlSeconds()
+                );
+            }
+
+            this.parallelLookup = new ParallelLookup(appConfig.getLookupConcurrency());
+            this.cacheService = cacheService;
 
         } catch (IllegalStateException e) {
             System.err.println("Application configuration error: " + e.getMessage());
@@ -84,6 +222,9 @@ public class ConsoleApplication {
     public void run() {
         System.out.println("Welcome to the Wizard World Potion Crafter!");
 
+        // Writes the queued cache writes and closes the cache stack on Ctrl-C or a crash too.
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "console-application-shutdown"));
+
         boolean running = true;
         while (running) {
             if (elixirService == null || elixirCraftService == null) {
@@ -106,17 +247,49 @@ public class ConsoleApplication {
                         findCreatableElixirs();
                         break;
                     case 4:
+                        findNearlyCreatableElixirs();
+                        break;
+                    case 5:
                         running = false;
                         System.out.println("Exiting Potion Crafter. Goodbye!");
                         break;
                     default:
-                        System.out.println("Invalid choice. Please enter a number between 1 and 4.");
+                        System.out.println("Invalid choice. Please enter a number between 1 and 5.");
                 }
             } catch (Exception e) {
                 System.err.println("An unexpected error occurred during menu action: " + e.getMessage());
                 e.printStackTrace();
             }
         }
+
+        close();
+    }
+
+    /**
+     * Closes the data service, writing the cache writes still queued behind, then the
+     * cache service stack. Only the first call closes them, whether it comes from the
+     * menu exit or from the shutdown hook.
+     */
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (elixirService instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("Warning: Failed to close the data service: " + e.getMessage());
+            }
+        }
+
+        if (cacheService instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("Warning: Failed to close the cache service: " + e.getMessage());
+            }
+        }
     }
 
     /**
@@ -127,7 +300,8 @@ public class ConsoleApplication {
         System.out.println("1. List All Ingredients");
         System.out.println("2. List All Elixirs");
         System.out.println("3. Find Craftable Elixirs by Ingredients");
-        System.out.println("4. Exit");
+        System.out.println("4. Find Elixirs Missing Few Ingredients");
+        System.out.println("5. Exit");
         System.out.print("Enter your choice: ");
     }
 
@@ -169,15 +343,37 @@ public class ConsoleApplication {
             return;
         }
 
-        Set<Elixir> craftableElixirs = elixirCraftService.findCraftableIngredients(ingredientsAvailable);
+        // Prints each Elixir as soon as it is found.
+        Iterator<Elixir> craftableElixirs = elixirCraftService.streamCraftableElixirs(ingredientsAvailable).iterator();
 
-        if (craftableElixirs.isEmpty()) {
+        if (!craftableElixirs.hasNext()) {
             System.out.println("\n--- You  cannot craft any Elixir with those ingredients. ---");
             return;
         }
 
         System.out.println("\n--- Creatable Elixirs ---");
-        craftableElixirs.forEach(System.out::println);
+        craftableElixirs.forEachRemaining(System.out::println);
+    }
+
+    /**
+     * Lists the Elixirs that miss only a few of the available ingredients.
+     */
+    private void findNearlyCreatableElixirs() {
+        Set<String> ingredientsAvailable = enterAvailableIngredients();
+
+        if (ingredientsAvailable.isEmpty()) {
+            return;
+        }
+
+        List<ElixirMatch> matches = elixirCraftService.findNearlyCraftable(ingredientsAvailable, NEAR_MISS_MAX_MISSING, NEAR_MISS_LIMIT);
+
+        if (matches.isEmpty()) {
+            System.out.println("\n--- No Elixir is missing " + NEAR_MISS_MAX_MISSING + " ingredients or less. ---");
+            return;
+        }
+
+        System.out.println("\n--- Elixirs Missing Few Ingredients ---");
+        matches.forEach(System.out::println);
     }
 
     /**
@@ -204,7 +400,7 @@ public class ConsoleApplication {
         System.out.println("Enter the ingredients you have, separated by commas.");
         System.out.print("Your ingredients: ");
 
-        Set<String> userIngredients = new HashSet<>();
+        Set<String> userIngredients = new LinkedHashSet<>();
 
         String inputLine = scanner.nextLine();
 
@@ -213,13 +409,7 @@ public class ConsoleApplication {
             for (String ingredient : ingredients) {
                 String trimmedIngredient = ingredient.trim();
                 if (!trimmedIngredient.isEmpty()) {
-                    if (userIngredients.isEmpty() || !userIngredients.contains(trimmedIngredient)) {
-                        if (!elixirService.validateIngredientName(trimmedIngredient)) {
-                            System.err.println("Invalid ingredient name: " + trimmedIngredient);
-                            return Collections.emptySet();
-                        }
-                        userIngredients.add(trimmedIngredient);
-                    }
+                    userIngredients.add(trimmedIngredient);
                 } else {
                     System.err.println("Empty ingredient name found");
                     return Collections.emptySet();
@@ -230,6 +420,27 @@ public class ConsoleApplication {
             return Collections.emptySet();
         }
 
-        return userIngredients;
+        // Validates all the ingredients at once, concurrently when configured, and keeps
+        // their catalog names, so the craft lookups match the recipes whatever the case typed.
+        List<String> ingredientNames = new ArrayList<>(userIngredients);
+        List<String> catalogNames = parallelLookup.map(ingredientNames, elixirService::findIngredientName);
+        Set<String> availableIngredients = new LinkedHashSet<>();
+
+        for (int i = 0; i < ingredientNames.size(); i++) {
+            if (catalogNames.get(i) == null) {
+                System.err.println("Invalid ingredient name: " + ingredientNames.get(i));
+
+                List<String> suggestions = elixirService.suggestIngredientNames(ingredientNames.get(i), SUGGESTION_LIMIT);
+                if (!suggestions.isEmpty()) {
+                    System.err.println("Did you mean: " + String.join(", ", suggestions) + "?");
+                }
+
+                return Collections.emptySet();
+            }
+
+            availableIngredients.add(catalogNames.get(i));
+        }
+
+        return availableIngredients;
     }
 }
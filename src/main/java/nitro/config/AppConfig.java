@@ -1,5 +1,8 @@
 package nitro.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class AppConfig {
 
     /**
@@ -17,6 +20,27 @@ public class AppConfig {
         return value.trim();
     }
 
+    /**
+     * Gets a numeric environment variable by name.
+     * @param envVarName The environment var name.
+     * @param defaultValue The value used when the variable is empty or invalid.
+     * @return The value of the environment variable.
+     */
+    private int getIntEnvVariable(String envVarName, int defaultValue) {
+        String value = getEnvVariable(envVarName);
+
+        if (value.isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + envVarName + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     /**
      * Gets the WizardWorld api url from the environment variables.
      * @return The api url.
@@ -48,4 +72,238 @@ public class AppConfig {
     public String getCacheTtlSeconds() {
         return getEnvVariable("CACHE_TTL_SECONDS");
     }
+
+    /**
+     * Gets the craft engine from the environment variables.
+     * Either "lookup" (per-ingredient lookups) or "indexed" (in-memory index).
+     * @return The craft engine name.
+     */
+    public String getCraftEngine() {
+        return getEnvVariable("CRAFT_ENGINE");
+    }
+
+    /**
+     * Gets the maximum number of concurrent cache/API lookups from the environment variables.
+     * @return The lookup concurrency, 1 when lookups are sequential.
+     */
+    public int getLookupConcurrency() {
+        return Math.max(1, getIntEnvVariable("LOOKUP_CONCURRENCY", 1));
+    }
+
+    /**
+     * Gets the maximum number of memoized craft results from the environment variables.
+     * @return The craft result cache size, 0 when memoization is disabled.
+     */
+    public int getCraftResultCacheSize() {
+        return Math.max(0, getIntEnvVariable("CRAFT_RESULT_CACHE_SIZE", 0));
+    }
+
+    /**
+     * Gets the TTL of the memoized craft results: the TTL of the cache entries they are computed from.
+     * @return The TTL in seconds.
+     */
+    public int getCraftResultCacheTtlSeconds() {
+        int ttlSeconds = getIntEnvVariable("CACHE_TTL_SECONDS", 3600);
+
+        return ttlSeconds > 0 ? ttlSeconds : 3600;
+    }
+
+    /**
+     * Gets the maximum number of in-process L1 cache entries from the environment variables.
+     * @return The L1 cache size, 0 when the L1 is disabled.
+     */
+    public int getL1CacheMaxEntries() {
+        return Math.max(0, getIntEnvVariable("L1_CACHE_MAX_ENTRIES", 0));
+    }
+
+    /**
+     * Gets the TTL of the in-process L1 cache entries from the environment variables.
+     * @return The L1 TTL in seconds.
+     */
+    public int getL1CacheTtlSeconds() {
+        int ttlSeconds = getIntEnvVariable("L1_CACHE_TTL_SECONDS", 60);
+
+        return ttlSeconds > 0 ? ttlSeconds : 60;
+    }
+
+    /**
+     * Gets the maximum number of pooled Redis connections from the environment variables.
+     * @return The Redis pool size.
+     */
+    public int getRedisPoolMaxTotal() {
+        int poolMaxTotal = getIntEnvVariable("REDIS_POOL_MAX_TOTAL", 16);
+
+        return poolMaxTotal > 0 ? poolMaxTotal : 16;
+    }
+
+    /**
+     * Gets the Redis connection, socket and pool wait timeout from the environment variables.
+     * @return The Redis timeout in milliseconds.
+     */
+    public int getRedisTimeoutMillis() {
+        int timeoutMillis = getIntEnvVariable("REDIS_TIMEOUT_MILLIS", 2000);
+
+        return timeoutMillis > 0 ? timeoutMillis : 2000;
+    }
+
+    /**
+     * Gets the encoding of the cached values from the environment variables.
+     * @return The cache encoding, "json" or "binary".
+     */
+    public String getCacheEncoding() {
+        return getEnvVariable("CACHE_ENCODING");
+    }
+
+    /**
+     * Gets the size from which the cached values are compressed from the environment variables.
+     * @return The compression threshold in bytes, 0 when compression is disabled.
+     */
+    public int getCacheCompressionThresholdBytes() {
+        return Math.max(0, getIntEnvVariable("CACHE_COMPRESSION_THRESHOLD_BYTES", 0));
+    }
+
+    /**
+     * Gets the age from which the catalogs are refreshed in the background from the environment variables.
+     * @return The refresh-ahead age in seconds, 0 when refresh-ahead is disabled.
+     */
+    public int getCatalogRefreshAheadSeconds() {
+        return Math.max(0, getIntEnvVariable("CATALOG_REFRESH_AHEAD_SECONDS", 0));
+    }
+
+    /**
+     * Gets the data lookup mode from the environment variables.
+     * @return The lookup mode, "keys" or "snapshot".
+     */
+    public String getDataLookupMode() {
+        return getEnvVariable("DATA_LOOKUP_MODE");
+    }
+
+    /**
+     * Gets how long the catalog snapshot of the snapshot lookup mode is kept from the environment variables.
+     * @return The TTL in seconds.
+     */
+    public int getDataSnapshotTtlSeconds() {
+        int ttlSeconds = getIntEnvVariable("DATA_SNAPSHOT_TTL_SECONDS", 300);
+
+        return ttlSeconds > 0 ? ttlSeconds : 300;
+    }
+
+    /**
+     * Gets the TTL of the negative cache entries from the environment variables.
+     * @return The negative cache TTL in seconds, 0 when negative caching is disabled.
+     */
+    public int getNegativeCacheTtlSeconds() {
+        return Math.max(0, getIntEnvVariable("NEGATIVE_CACHE_TTL_SECONDS", 0));
+    }
+
+    /**
+     * Gets the maximum number of in-process negative cache entries from the environment variables.
+     * @return The negative cache size.
+     */
+    public int getNegativeCacheMaxEntries() {
+        int maxEntries = getIntEnvVariable("NEGATIVE_CACHE_MAX_ENTRIES", 10000);
+
+        return maxEntries > 0 ? maxEntries : 10000;
+    }
+
+    /**
+     * Gets the Redis storage layout of the Elixirs from the environment variables.
+     * @return The storage layout, "lists" or "normalized".
+     */
+    public String getElixirStorageLayout() {
+        return getEnvVariable("ELIXIR_STORAGE_LAYOUT");
+    }
+
+    /**
+     * Gets the local file the catalogs are saved to and served from at startup.
+     * @return The snapshot file path, empty to disable it.
+     */
+    public String getCatalogSnapshotFile() {
+        return getEnvVariable("CATALOG_SNAPSHOT_FILE");
+    }
+
+    /**
+     * Gets the age until which the catalogs of the snapshot file are served without Redis or the API.
+     * @return The maximum age in seconds.
+     */
+    public int getCatalogSnapshotMaxAgeSeconds() {
+        return Math.max(1, getIntEnvVariable("CATALOG_SNAPSHOT_MAX_AGE_SECONDS", 86400));
+    }
+
+    /**
+     * Gets the maximum off-heap memory of the off-heap cache from the environment variables.
+     * @return The size in megabytes, 0 when the off-heap cache is disabled.
+     */
+    public int getOffHeapCacheMaxMegabytes() {
+        return Math.max(0, getIntEnvVariable("OFF_HEAP_CACHE_MAX_MB", 0));
+    }
+
+    /**
+     * Gets the TTL of the off-heap cache entries from the environment variables.
+     * @return The TTL in seconds.
+     */
+    public int getOffHeapCacheTtlSeconds() {
+        int ttlSeconds = getIntEnvVariable("OFF_HEAP_CACHE_TTL_SECONDS", 300);
+
+        return ttlSeconds > 0 ? ttlSeconds : 300;
+    }
+
+    /**
+     * Gets the size of the off-heap cache slabs from the environment variables.
+     * It is also the size of the largest value kept off-heap.
+     * @return The slab size in kilobytes.
+     */
+    public int getOffHeapCacheSlabKilobytes() {
+        int slabKilobytes = getIntEnvVariable("OFF_HEAP_CACHE_SLAB_KB", 1024);
+
+        return slabKilobytes > 0 ? slabKilobytes : 1024;
+    }
+
+    /**
+     * Gets the maximum number of values cached client-side by Redis from the environment variables.
+     * @return The client cache size, 0 when client-side caching is disabled.
+     */
+    public int getRedisClientCacheMaxEntries() {
+        return Math.max(0, getIntEnvVariable("REDIS_CLIENT_CACHE_MAX_ENTRIES", 0));
+    }
+
+    /**
+     * Gets the prefixes of the keys cached client-side by Redis from the environment variables.
+     * @return The comma separated key prefixes, parsed, empty for all the keys.
+     */
+    public List<String> getRedisClientCacheKeyPrefixes() {
+        List<String> prefixes = new ArrayList<>();
+
+        for (String prefix : getEnvVariable("REDIS_CLIENT_CACHE_KEY_PREFIXES").split(",")) {
+            if (!prefix.trim().isEmpty()) prefixes.add(prefix.trim());
+        }
+
+        return prefixes;
+    }
+
+    /**
+     * Gets the maximum number of cache writes queued behind from the environment variables.
+     * @return The queue size, 0 when write-behind is disabled.
+     */
+    public int getCacheWriteBehindMaxPending() {
+        return Math.max(0, getIntEnvVariable("CACHE_WRITE_BEHIND_MAX_PENDING", 0));
+    }
+
+    /**
+     * Gets the maximum number of cache writes queued behind written at once from the environment variables.
+     * @return The batch size.
+     */
+    public int getCacheWriteBehindBatchSize() {
+        int batchSize = getIntEnvVariable("CACHE_WRITE_BEHIND_BATCH_SIZE", 100);
+
+        return batchSize > 0 ? batchSize : 100;
+    }
+
+    /**
+     * Gets how long a partial batch of cache writes waits for more writes from the environment variables.
+     * @return The flush interval in milliseconds.
+     */
+    public int getCacheWriteBehindFlushMillis() {
+        return Math.max(0, getIntEnvVariable("CACHE_WRITE_BEHIND_FLUSH_MILLIS", 20));
+    }
 }
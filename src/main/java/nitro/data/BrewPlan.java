@@ -0,0 +1,74 @@
+package nitro.data;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Defines a combination of Elixirs to brew with a quantity-aware inventory.
+ */
+public class BrewPlan {
+    /**
+     * The number of times each Elixir is brewed.
+     */
+    private final Map<Elixir, Integer> brews;
+
+    /**
+     * Whether the search finished within its time budget, so the plan is proven optimal.
+     */
+    private final boolean optimal;
+
+    /**
+     * Constructor for creating BrewPlan instances.
+     * @param brews The number of times each Elixir is brewed.
+     * @param optimal Whether the plan is proven optimal.
+     */
+    public BrewPlan(Map<Elixir, Integer> brews, boolean optimal) {
+        this.brews = Collections.unmodifiableMap(new LinkedHashMap<>(brews));
+        this.optimal = optimal;
+    }
+
+    /**
+     * Gets the number of times each Elixir is brewed.
+     * @return The brews by Elixir.
+     */
+    public Map<Elixir, Integer> getBrews() {
+        return brews;
+    }
+
+    /**
+     * Gets the total number of Elixirs brewed.
+     * @return The brew count.
+     */
+    public int getTotalBrews() {
+        int total = 0;
+
+        for (int count : brews.values()) {
+            total += count;
+        }
+
+        return total;
+    }
+
+    /**
+     * Whether the search finished within its time budget.
+     * @return True if the plan is proven optimal, false if it is the best one found in time.
+     */
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * Returns a string representation of the BrewPlan object.
+     * @return A string representation of the BrewPlan.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Total brews: " + getTotalBrews() + (optimal ? "" : " (best found in time)") + "\n");
+
+        brews.forEach((elixir, count) -> builder.append(count).append(" x ")
+                .append(elixir.getName() != null ? elixir.getName() : "-").append("\n"));
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package nitro.data;
+
+import java.util.List;
+
+/**
+ * Defines the change in craftable Elixirs caused by adding or removing an Ingredient.
+ */
+public class CraftDelta {
+    /**
+     * The Elixirs that became craftable.
+     */
+    private final List<Elixir> gained;
+
+    /**
+     * The Elixirs that are no longer craftable.
+     */
+    private final List<Elixir> lost;
+
+    /**
+     * Constructor for creating CraftDelta instances.
+     * @param gained The Elixirs that became craftable.
+     * @param lost The Elixirs that are no longer craftable.
+     */
+    public CraftDelta(List<Elixir> gained, List<Elixir> lost) {
+        this.gained = List.copyOf(gained);
+        this.lost = List.copyOf(lost);
+    }
+
+    /**
+     * Gets the Elixirs that became craftable.
+     * @return The gained Elixirs.
+     */
+    public List<Elixir> getGained() {
+        return gained;
+    }
+
+    /**
+     * Gets the Elixirs that are no longer craftable.
+     * @return The lost Elixirs.
+     */
+    public List<Elixir> getLost() {
+        return lost;
+    }
+
+    /**
+     * Whether the change did not affect any craftable Elixir.
+     * @return True if nothing was gained nor lost.
+     */
+    public boolean isEmpty() {
+        return gained.isEmpty() && lost.isEmpty();
+    }
+}
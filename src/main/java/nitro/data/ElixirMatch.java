@@ -0,0 +1,62 @@
+package nitro.data;
+
+import java.util.List;
+
+/**
+ * Defines an Elixir that can almost be crafted with an inventory.
+ */
+public class ElixirMatch {
+    /**
+     * The matched Elixir.
+     */
+    private final Elixir elixir;
+
+    /**
+     * The names of the Ingredients missing from the inventory.
+     */
+    private final List<String> missingIngredients;
+
+    /**
+     * Constructor for creating ElixirMatch instances.
+     * @param elixir The matched Elixir.
+     * @param missingIngredients The names of the missing Ingredients.
+     */
+    public ElixirMatch(Elixir elixir, List<String> missingIngredients) {
+        this.elixir = elixir;
+        this.missingIngredients = List.copyOf(missingIngredients);
+    }
+
+    /**
+     * Gets the matched Elixir.
+     * @return The Elixir.
+     */
+    public Elixir getElixir() {
+        return elixir;
+    }
+
+    /**
+     * Gets the names of the Ingredients missing from the inventory.
+     * @return The missing Ingredient names.
+     */
+    public List<String> getMissingIngredients() {
+        return missingIngredients;
+    }
+
+    /**
+     * Gets the number of Ingredients missing from the inventory.
+     * @return The missing Ingredient count.
+     */
+    public int getMissingCount() {
+        return missingIngredients.size();
+    }
+
+    /**
+     * Returns a string representation of the ElixirMatch object.
+     * @return A string representation of the ElixirMatch.
+     */
+    @Override
+    public String toString() {
+        return (elixir.getName() != null ? elixir.getName() : "-")
+                + " (missing " + getMissingCount() + ": " + String.join(", ", missingIngredients) + ")";
+    }
+}
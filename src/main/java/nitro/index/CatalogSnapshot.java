@@ -0,0 +1,143 @@
+package nitro.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+
+/**
+ * Defines a read-only snapshot of the full Elixir and Ingredient catalogs, indexed
+ * to answer the per-Ingredient and per-name queries locally.
+ * Names are compared with {@link ElixirCatalogIndex#normalize(String)}: ignoring case,
+ * like {@link Ingredient#equals(Object)}, and also their surrounding spaces.
+ * The snapshot is immutable and can be shared between threads.
+ */
+public final class CatalogSnapshot {
+    private final List<Elixir> elixirs;
+    private final List<Ingredient> ingredients;
+    private final Map<String, List<Elixir>> elixirsByIngredient;
+    private final IngredientNameIndex ingredientNameIndex;
+
+    /**
+     * Constructs the CatalogSnapshot.
+     * @param elixirs The Elixir catalog the snapshot was built from.
+     * @param ingredients The Ingredient catalog the snapshot was built from.
+     * @param elixirsByIngredient The Elixirs of each normalized Ingredient name.
+     * @param ingredientNameIndex The Ingredient name index.
+     */
+    private CatalogSnapshot(
+            List<Elixir> elixirs,
+            List<Ingredient> ingredients,
+            Map<String, List<Elixir>> elixirsByIngredient,
+            IngredientNameIndex ingredientNameIndex
+    ) {
+        this.elixirs = elixirs;
+        this.ingredients = ingredients;
+        this.elixirsByIngredient = elixirsByIngredient;
+        this.ingredientNameIndex = ingredientNameIndex;
+    }
+
+    /**
+     * Builds the snapshot from the full catalogs.
+     * @param elixirs The Elixir catalog.
+     * @param ingredients The Ingredient catalog.
+     * @return The built snapshot.
+     */
+    public static CatalogSnapshot build(List<Elixir> elixirs, List<Ingredient> ingredients) {
+        Map<String, List<Elixir>> elixirsByIngredient = new HashMap<>();
+
+        if (elixirs != null) {
+            for (Elixir elixir : elixirs) {
+                if (elixir == null || elixir.getIngredients() == null) continue;
+
+                Set<String> names = new HashSet<>();
+
+                for (Ingredient ingredient : elixir.getIngredients()) {
+                    if (ingredient == null || ingredient.getName() == null) continue;
+
+                    String name = ElixirCatalogIndex.normalize(ingredient.getName());
+
+                    if (names.add(name)) {
+                        elixirsByIngredient.computeIfAbsent(name, key -> new ArrayList<>()).add(elixir);
+                    }
+                }
+            }
+        }
+
+        elixirsByIngredient.replaceAll((name, list) -> Collections.unmodifiableList(list));
+
+        return new CatalogSnapshot(elixirs, ingredients, elixirsByIngredient, IngredientNameIndex.build(ingredients));
+    }
+
+    /**
+     * Restores a snapshot from catalogs and an Elixir index read back from a snapshot file.
+     * @param elixirs The Elixir catalog.
+     * @param ingredients The Ingredient catalog.
+     * @param elixirsByIngredient The Elixirs of each normalized Ingredient name.
+     * @return The restored snapshot.
+     */
+    static CatalogSnapshot restore(List<Elixir> elixirs, List<Ingredient> ingredients, Map<String, List<Elixir>> elixirsByIngredient) {
+        elixirsByIngredient.replaceAll((name, list) -> Collections.unmodifiableList(list));
+
+        return new CatalogSnapshot(elixirs, ingredients, elixirsByIngredient, IngredientNameIndex.build(ingredients));
+    }
+
+    /**
+     * Gets the Elixir catalog of the snapshot.
+     * @return The list of Elixirs.
+     */
+    public List<Elixir> getElixirs() {
+        return elixirs;
+    }
+
+    /**
+     * Gets the Ingredient catalog of the snapshot.
+     * @return The list of Ingredients.
+     */
+    public List<Ingredient> getIngredients() {
+        return ingredients;
+    }
+
+    /**
+     * Gets the Elixirs of each normalized Ingredient name.
+     * @return The unmodifiable lists of Elixirs, by normalized Ingredient name.
+     */
+    Map<String, List<Elixir>> getElixirsByIngredient() {
+        return elixirsByIngredient;
+    }
+
+    /**
+     * Gets the Elixirs that require an Ingredient.
+     * @param ingredientName The Ingredient name.
+     * @return The unmodifiable list of Elixirs, empty if none requires it.
+     */
+    public List<Elixir> getElixirsByIngredientName(String ingredientName) {
+        if (ingredientName == null) {
+            return Collections.emptyList();
+        }
+
+        return elixirsByIngredient.getOrDefault(ElixirCatalogIndex.normalize(ingredientName), Collections.emptyList());
+    }
+
+    /**
+     * Gets an Ingredient by name.
+     * @param name The Ingredient name.
+     * @return The Ingredient or null if there is none with that name.
+     */
+    public Ingredient getIngredientByName(String name) {
+        return ingredientNameIndex.find(name);
+    }
+
+    /**
+     * Gets the Ingredient name index of the snapshot.
+     * @return The name index.
+     */
+    public IngredientNameIndex getIngredientNameIndex() {
+        return ingredientNameIndex;
+    }
+}
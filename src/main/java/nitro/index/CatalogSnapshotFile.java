@@ -0,0 +1,282 @@
+package nitro.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+import nitro.mapper.IBinaryMapper;
+
+/**
+ * Defines a local file holding a catalog snapshot, so the catalogs can be served at
+ * startup without Redis or the API.
+ * The file starts with a header: a zero byte, the "NC" magic, the format version,
+ * the save time, the length of each section and a CRC32 of the sections. The
+ * sections are the Elixir and Ingredient catalogs, in the binary encoding of the
+ * cache, and the Elixir index, as the positions in the Elixir catalog of the
+ * Elixirs of each Ingredient, so it is not rebuilt on load.
+ * The file is read through a read-only memory mapping and written to a temporary
+ * file first, then moved over the previous one, so readers never see a partial file.
+ */
+public class CatalogSnapshotFile {
+    /**
+     * The current format version.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = {0, 'N', 'C'};
+    private static final int HEADER_LENGTH = MAGIC.length + 1 + Long.BYTES + 4 * Integer.BYTES;
+
+    private final Path path;
+    private final IBinaryMapper binaryMapper;
+
+    /**
+     * Constructs the CatalogSnapshotFile.
+     * @param path The path of the snapshot file.
+     * @param binaryMapper The binaryMapper to encode the catalogs.
+     */
+    public CatalogSnapshotFile(Path path, IBinaryMapper binaryMapper) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path must not be null");
+        }
+
+        if (binaryMapper == null) {
+            throw new IllegalArgumentException("IBinaryMapper must not be null");
+        }
+
+        this.path = path;
+        this.binaryMapper = binaryMapper;
+    }
+
+    /**
+     * Loads the snapshot saved in the file.
+     * @return The loaded snapshot, or null if there is no file or it can not be read.
+     */
+    public Loaded load() {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size < HEADER_LENGTH || size > Integer.MAX_VALUE) {
+                System.err.println("Warning: Ignoring the catalog snapshot file " + path + ": unexpected size");
+                return null;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            Loaded loaded = read(buffer);
+
+            System.out.println("DEBUG: Catalog snapshot loaded from " + path);
+            return loaded;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Warning: Ignoring the catalog snapshot file " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves a snapshot to the file, replacing the previous one.
+     * @param snapshot The snapshot to save.
+     * @param savedAtMillis The time the catalogs of the snapshot were fetched.
+     */
+    public synchronized void save(CatalogSnapshot snapshot, long savedAtMillis) {
+        if (snapshot == null || snapshot.getElixirs() == null || snapshot.getIngredients() == null) {
+            return;
+        }
+
+        try {
+            byte[] elixirs = binaryMapper.toBinary(snapshot.getElixirs());
+            byte[] ingredients = binaryMapper.toBinary(snapshot.getIngredients());
+            byte[] index = writeIndex(snapshot);
+
+            CRC32 crc = new CRC32();
+            crc.update(elixirs);
+            crc.update(ingredients);
+            crc.update(index);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            header.put(MAGIC).put((byte) FORMAT_VERSION).putLong(savedAtMillis)
+                    .putInt(elixirs.length).putInt(ingredients.length).putInt(index.length)
+                    .putInt((int) crc.getValue());
+
+            Path directory = path.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+
+            Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+
+            try {
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer[] buffers = {header.flip(), ByteBuffer.wrap(elixirs), ByteBuffer.wrap(ingredients), ByteBuffer.wrap(index)};
+                    long remaining = HEADER_LENGTH + (long) elixirs.length + ingredients.length + index.length;
+
+                    while (remaining > 0) {
+                        remaining -= channel.write(buffers);
+                    }
+                    channel.force(false);
+                }
+
+                try {
+                    Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+
+            System.out.println("DEBUG: Catalog snapshot saved to " + path);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Warning: Failed to save the catalog snapshot file " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a snapshot from the mapped file.
+     * @param buffer The mapped file.
+     * @return The loaded snapshot.
+     * @throws IllegalArgumentException if the file is malformed or of another version.
+     */
+    private Loaded read(ByteBuffer buffer) {
+        for (byte magic : MAGIC) {
+            if (buffer.get() != magic) {
+                throw new IllegalArgumentException("not a catalog snapshot file");
+            }
+        }
+
+        int version = buffer.get() & 0xFF;
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported format version " + version);
+        }
+
+        long savedAtMillis = buffer.getLong();
+        int elixirsLength = buffer.getInt();
+        int ingredientsLength = buffer.getInt();
+        int indexLength = buffer.getInt();
+        int checksum = buffer.getInt();
+
+        if (elixirsLength < 0 || ingredientsLength < 0 || indexLength < 0
+                || (long) elixirsLength + ingredientsLength + indexLength != buffer.remaining()) {
+            throw new IllegalArgumentException("truncated file");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice());
+        if ((int) crc.getValue() != checksum) {
+            throw new IllegalArgumentException("checksum mismatch");
+        }
+
+        List<Elixir> elixirs = binaryMapper.mapBinaryList(readBytes(buffer, elixirsLength), Elixir.class);
+        List<Ingredient> ingredients = binaryMapper.mapBinaryList(readBytes(buffer, ingredientsLength), Ingredient.class);
+
+        try {
+            Map<String, List<Elixir>> elixirsByIngredient = readIndex(buffer, elixirs);
+
+            return new Loaded(CatalogSnapshot.restore(elixirs, ingredients, elixirsByIngredient), savedAtMillis);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("malformed elixir index");
+        }
+    }
+
+    /**
+     * Writes the Elixir index of a snapshot as the positions of the Elixirs in the catalog.
+     * @param snapshot The snapshot.
+     * @return The binary index.
+     * @throws IOException never, the index is written in memory.
+     */
+    private static byte[] writeIndex(CatalogSnapshot snapshot) throws IOException {
+        Map<Elixir, Integer> positions = new IdentityHashMap<>();
+        List<Elixir> elixirs = snapshot.getElixirs();
+
+        for (int i = 0; i < elixirs.size(); i++) {
+            positions.putIfAbsent(elixirs.get(i), i);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        Map<String, List<Elixir>> elixirsByIngredient = snapshot.getElixirsByIngredient();
+
+        out.writeInt(elixirsByIngredient.size());
+
+        for (Map.Entry<String, List<Elixir>> entry : elixirsByIngredient.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(name.length);
+            out.write(name);
+
+            out.writeInt(entry.getValue().size());
+            for (Elixir elixir : entry.getValue()) {
+                out.writeInt(positions.get(elixir));
+            }
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads the Elixir index, straight from the mapped file.
+     * @param buffer The mapped file, at the index section.
+     * @param elixirs The Elixir catalog the positions refer to.
+     * @return The Elixirs of each normalized Ingredient name.
+     */
+    private static Map<String, List<Elixir>> readIndex(ByteBuffer buffer, List<Elixir> elixirs) {
+        int count = buffer.getInt();
+        Map<String, List<Elixir>> elixirsByIngredient = new HashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            String name = new String(readBytes(buffer, buffer.getInt()), StandardCharsets.UTF_8);
+            int size = buffer.getInt();
+            List<Elixir> ingredientElixirs = new ArrayList<>(Math.min(size, elixirs.size()));
+
+            for (int j = 0; j < size; j++) {
+                ingredientElixirs.add(elixirs.get(buffer.getInt()));
+            }
+
+            elixirsByIngredient.put(name, ingredientElixirs);
+        }
+
+        return elixirsByIngredient;
+    }
+
+    /**
+     * Copies a section of the mapped file.
+     * @param buffer The mapped file, at the section.
+     * @param length The section length.
+     * @return The section bytes.
+     */
+    private static byte[] readBytes(ByteBuffer buffer, int length) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Defines a snapshot loaded from the file, with the time it was saved.
+     * @param snapshot The catalog snapshot.
+     * @param savedAtMillis The time the catalogs of the snapshot were fetched.
+     */
+    public record Loaded(CatalogSnapshot snapshot, long savedAtMillis) {
+    }
+}
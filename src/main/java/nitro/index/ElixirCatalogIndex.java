@@ -0,0 +1,358 @@
+package nitro.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+
+/**
+ * Defines a read-only, integer based index of the Elixir catalog.
+ * Every Ingredient name is mapped to a dense int ID, every recipe is stored as a
+ * sorted int array and every Ingredient keeps the list of Elixirs that need it.
+ * Inventories are represented as bitsets over the Ingredient IDs, so the match
+ * check does not hash strings nor allocate.
+ * The index is immutable and can be shared between threads.
+ */
+public final class ElixirCatalogIndex {
+    private final Map<String, Integer> ingredientIds;
+    private final String[] ingredientNames;
+    private final Elixir[] elixirs;
+    private final int[][] recipes;
+    private final int[][] postings;
+    private final ThreadLocal<int[]> hitCounters;
+
+    /**
+     * Constructs the ElixirCatalogIndex.
+     * @param ingredientIds The normalized Ingredient name to ID dictionary.
+     * @param ingredientNames The Ingredient names indexed by ID.
+     * @param elixirs The indexed Elixirs.
+     * @param recipes The sorted Ingredient IDs of each Elixir.
+     * @param postings The Elixir positions of each Ingredient ID.
+     */
+    private ElixirCatalogIndex(
+            Map<String, Integer> ingredientIds,
+            String[] ingredientNames,
+            Elixir[] elixirs,
+            int[][] recipes,
+            int[][] postings
+    ) {
+        this.ingredientIds = ingredientIds;
+        this.ingredientNames = ingredientNames;
+        this.elixirs = elixirs;
+        this.recipes = recipes;
+        this.postings = postings;
+        this.hitCounters = ThreadLocal.withInitial(() -> new int[elixirs.length]);
+    }
+
+    /**
+     * Builds the index from the Elixir catalog.
+     * Elixirs without Ingredients are skipped since they can never be crafted.
+     * @param catalog The Elixir catalog.
+     * @return The built index.
+     */
+    public static ElixirCatalogIndex build(List<Elixir> catalog) {
+        Map<String, Integer> ingredientIds = new HashMap<>();
+        List<String> ingredientNames = new ArrayList<>();
+        List<Elixir> elixirs = new ArrayList<>();
+        List<int[]> recipes = new ArrayList<>();
+
+        if (catalog != null) {
+            for (Elixir elixir : catalog) {
+                if (elixir == null || elixir.getIngredients() == null || elixir.getIngredients().isEmpty()) continue;
+
+                int[] recipe = new int[elixir.getIngredients().size()];
+                int size = 0;
+
+                for (Ingredient ingredient : elixir.getIngredients()) {
+                    if (ingredient == null || ingredient.getName() == null) continue;
+
+                    String name = normalize(ingredient.getName());
+                    Integer id = ingredientIds.get(name);
+
+                    if (id == null) {
+                        id = ingredientNames.size();
+                        ingredientIds.put(name, id);
+                        ingredientNames.add(ingredient.getName());
+                    }
+
+                    recipe[size++] = id;
+                }
+
+                if (size == 0) continue;
+
+                recipe = Arrays.stream(recipe, 0, size).sorted().distinct().toArray();
+                elixirs.add(elixir);
+                recipes.add(recipe);
+            }
+        }
+
+        int[] postingSizes = new int[ingredientNames.size()];
+        for (int[] recipe : recipes) {
+            for (int id : recipe) {
+                postingSizes[id]++;
+            }
+        }
+
+        int[][] postings = new int[ingredientNames.size()][];
+        for (int id = 0; id < postings.length; id++) {
+            postings[id] = new int[postingSizes[id]];
+            postingSizes[id] = 0;
+        }
+
+        for (int elixir = 0; elixir < recipes.size(); elixir++) {
+            for (int id : recipes.get(elixir)) {
+                postings[id][postingSizes[id]++] = elixir;
+            }
+        }
+
+        return new ElixirCatalogIndex(
+                ingredientIds,
+                ingredientNames.toArray(new String[0]),
+                elixirs.toArray(new Elixir[0]),
+                recipes.toArray(new int[0][]),
+                postings
+        );
+    }
+
+    /**
+     * Gets the ID of an Ingredient.
+     * @param name The Ingredient name, compared ignoring case.
+     * @return The Ingredient ID or -1 if the catalog does not use it.
+     */
+    public int getIngredientId(String name) {
+        if (name == null) {
+            return -1;
+        }
+
+        Integer id = ingredientIds.get(normalize(name));
+
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the name of an Ingredient.
+     * @param id The Ingredient ID.
+     * @return The Ingredient name as found in the catalog.
+     */
+    public String getIngredientName(int id) {
+        return ingredientNames[id];
+    }
+
+    /**
+     * Gets the number of distinct Ingredients in the catalog.
+     * @return The Ingredient count.
+     */
+    public int getIngredientCount() {
+        return ingredientNames.length;
+    }
+
+    /**
+     * Gets the number of indexed Elixirs.
+     * @return The Elixir count.
+     */
+    public int getElixirCount() {
+        return elixirs.length;
+    }
+
+    /**
+     * Gets an indexed Elixir.
+     * @param position The Elixir position in the index.
+     * @return The Elixir.
+     */
+    public Elixir getElixir(int position) {
+        return elixirs[position];
+    }
+
+    /**
+     * Gets the sorted Ingredient IDs of an Elixir.
+     * The returned array is shared and must not be modified.
+     * @param position The Elixir position in the index.
+     * @return The recipe Ingredient IDs.
+     */
+    public int[] getRecipe(int position) {
+        return recipes[position];
+    }
+
+    /**
+     * Gets the positions of the Elixirs that need an Ingredient.
+     * The returned array is shared and must not be modified.
+     * @param ingredientId The Ingredient ID.
+     * @return The ascending Elixir positions.
+     */
+    public int[] getElixirsWithIngredient(int ingredientId) {
+        return postings[ingredientId];
+    }
+
+    /**
+     * Converts a set of Ingredient names into an inventory bitset.
+     * Names unknown to the catalog are ignored since no Elixir needs them.
+     * @param ingredientNames The Ingredient names.
+     * @return The inventory bitset.
+     */
+    public long[] toInventory(Collection<String> ingredientNames) {
+        long[] inventory = new long[(this.ingredientNames.length + 63) >>> 6];
+
+        for (String name : ingredientNames) {
+            int id = getIngredientId(name);
+
+            if (id >= 0) {
+                inventory[id >>> 6] |= 1L << id;
+            }
+        }
+
+        return inventory;
+    }
+
+    /**
+     * See if an inventory contains an Ingredient.
+     * @param inventory The inventory bitset.
+     * @param ingredientId The Ingredient ID.
+     * @return True if the Ingredient is in the inventory.
+     */
+    public static boolean contains(long[] inventory, int ingredientId) {
+        return (inventory[ingredientId >>> 6] & (1L << ingredientId)) != 0;
+    }
+
+    /**
+     * See if an inventory has all the Ingredients required to craft an Elixir.
+     * @param position The Elixir position in the index.
+     * @param inventory The inventory bitset.
+     * @return True if the Elixir can be crafted.
+     */
+    public boolean canCraft(int position, long[] inventory) {
+        for (int id : recipes[position]) {
+            if (!contains(inventory, id)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Visits every Elixir that can be crafted with an inventory, exactly once.
+     * Only the postings of the inventory Ingredients are scanned, and an Elixir is
+     * only checked from the posting of its lowest Ingredient ID, so no
+     * de-duplication set is needed.
+     * @param inventory The inventory bitset.
+     * @param consumer The consumer of the craftable Elixir positions.
+     */
+    public void forEachCraftable(long[] inventory, IntConsumer consumer) {
+        for (int word = 0; word < inventory.length; word++) {
+            long bits = inventory[word];
+
+            while (bits != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+
+                for (int position : postings[id]) {
+                    if (recipes[position][0] == id && canCraft(position, inventory)) {
+                        consumer.accept(position);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Lazily streams every Elixir that can be crafted with an inventory, exactly once.
+     * Same scan as {@link #forEachCraftable(long[], IntConsumer)}, but each Elixir is
+     * emitted as soon as it is confirmed.
+     * @param inventory The inventory bitset.
+     * @return The craftable Elixir positions.
+     */
+    public IntStream streamCraftable(long[] inventory) {
+        return BitSet.valueOf(inventory).stream()
+                .flatMap(id -> Arrays.stream(postings[id])
+                        .filter(position -> recipes[position][0] == id && canCraft(position, inventory)));
+    }
+
+    /**
+     * Finds the Elixirs that miss at most a number of Ingredients from an inventory.
+     * A hit counter per Elixir is incremented while scanning the postings of the
+     * inventory Ingredients, so only Elixirs sharing at least one Ingredient with
+     * the inventory are considered and the rest of the catalog is never visited.
+     * Elixirs that can already be crafted are not included.
+     * @param inventory The inventory bitset.
+     * @param maxMissing The maximum number of missing Ingredients.
+     * @param limit The maximum number of results.
+     * @return The Elixir positions, ordered by missing Ingredients and recipe size.
+     */
+    public int[] findNearMisses(long[] inventory, int maxMissing, int limit) {
+        if (maxMissing <= 0 || limit <= 0) {
+            return new int[0];
+        }
+
+        int[] counters = hitCounters.get();
+        int[] touched = new int[16];
+        int touchedCount = 0;
+
+        try {
+            for (int word = 0; word < inventory.length; word++) {
+                long bits = inventory[word];
+
+                while (bits != 0) {
+                    int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+
+                    for (int position : postings[id]) {
+                        if (counters[position]++ == 0) {
+                            if (touchedCount == touched.length) {
+                                touched = Arrays.copyOf(touched, touchedCount * 2);
+                            }
+                            touched[touchedCount++] = position;
+                        }
+                    }
+                }
+            }
+
+            Comparator<Integer> ranking = Comparator
+                    .<Integer>comparingInt(position -> recipes[position].length - counters[position])
+                    .thenComparingInt(position -> recipes[position].length)
+                    .thenComparingInt(position -> position);
+            PriorityQueue<Integer> worstFirst = new PriorityQueue<>(ranking.reversed());
+
+            for (int i = 0; i < touchedCount; i++) {
+                int position = touched[i];
+                int missing = recipes[position].length - counters[position];
+
+                if (missing < 1 || missing > maxMissing) continue;
+
+                worstFirst.add(position);
+                if (worstFirst.size() > limit) {
+                    worstFirst.poll();
+                }
+            }
+
+            int[] result = new int[worstFirst.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = worstFirst.poll();
+            }
+
+            return result;
+        } finally {
+            for (int i = 0; i < touchedCount; i++) {
+                counters[touched[i]] = 0;
+            }
+        }
+    }
+
+    /**
+     * Normalizes an Ingredient name: leading and trailing spaces are dropped and case is
+     * ignored. {@link Ingredient#equals(Object)} only ignores case, so names differing in
+     * their surrounding spaces are equal here but not there.
+     * @param name The Ingredient name.
+     * @return The normalized name.
+     */
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,123 @@
+package nitro.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import nitro.data.Ingredient;
+
+/**
+ * Defines a read-only, sorted-array index of the Ingredient names.
+ * Answers exact lookups and prefix queries with binary searches, ignoring case,
+ * without any cache or API call.
+ */
+public final class IngredientNameIndex {
+    private final String[] normalizedNames;
+    private final Ingredient[] ingredients;
+
+    /**
+     * Constructs the IngredientNameIndex.
+     * @param normalizedNames The sorted normalized names.
+     * @param ingredients The Ingredients, in the same order as the names.
+     */
+    private IngredientNameIndex(String[] normalizedNames, Ingredient[] ingredients) {
+        this.normalizedNames = normalizedNames;
+        this.ingredients = ingredients;
+    }
+
+    /**
+     * Builds the index from the Ingredient catalog.
+     * Duplicated names keep their first Ingredient.
+     * @param catalog The Ingredient catalog.
+     * @return The built index.
+     */
+    public static IngredientNameIndex build(List<Ingredient> catalog) {
+        List<Ingredient> named = new ArrayList<>();
+
+        if (catalog != null) {
+            for (Ingredient ingredient : catalog) {
+                if (ingredient != null && ingredient.getName() != null && !ingredient.getName().isBlank()) {
+                    named.add(ingredient);
+                }
+            }
+        }
+
+        named.sort(Comparator.comparing(ingredient -> ElixirCatalogIndex.normalize(ingredient.getName())));
+
+        List<String> names = new ArrayList<>(named.size());
+        List<Ingredient> ingredients = new ArrayList<>(named.size());
+
+        for (Ingredient ingredient : named) {
+            String name = ElixirCatalogIndex.normalize(ingredient.getName());
+
+            if (!names.isEmpty() && names.get(names.size() - 1).equals(name)) continue;
+
+            names.add(name);
+            ingredients.add(ingredient);
+        }
+
+        return new IngredientNameIndex(names.toArray(new String[0]), ingredients.toArray(new Ingredient[0]));
+    }
+
+    /**
+     * Finds an Ingredient by its exact name, ignoring case.
+     * @param name The Ingredient name.
+     * @return The Ingredient or null if it does not exist.
+     */
+    public Ingredient find(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        int position = Arrays.binarySearch(normalizedNames, ElixirCatalogIndex.normalize(name));
+
+        return position >= 0 ? ingredients[position] : null;
+    }
+
+    /**
+     * See if an Ingredient exists, ignoring case.
+     * @param name The Ingredient name.
+     * @return True if the Ingredient exists.
+     */
+    public boolean contains(String name) {
+        return find(name) != null;
+    }
+
+    /**
+     * Finds the Ingredient names starting with a prefix, ignoring case.
+     * @param prefix The name prefix.
+     * @param limit The maximum number of names returned.
+     * @return The matching names, in alphabetical order.
+     */
+    public List<String> findByPrefix(String prefix, int limit) {
+        List<String> matches = new ArrayList<>();
+
+        if (prefix == null || limit <= 0) {
+            return matches;
+        }
+
+        String normalizedPrefix = ElixirCatalogIndex.normalize(prefix);
+        int position = Arrays.binarySearch(normalizedNames, normalizedPrefix);
+
+        if (position < 0) {
+            position = -position - 1;
+        }
+
+        while (position < normalizedNames.length
+                && matches.size() < limit
+                && normalizedNames[position].startsWith(normalizedPrefix)) {
+            matches.add(ingredients[position].getName());
+            position++;
+        }
+
+        return matches;
+    }
+
+    /**
+     * Gets the number of indexed Ingredients.
+     * @return The Ingredient count.
+     */
+    public int size() {
+        return normalizedNames.length;
+    }
+}
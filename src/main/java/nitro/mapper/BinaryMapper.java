@@ -0,0 +1,414 @@
+package nitro.mapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+
+/**
+ * Defines the Binary Mapper, a compact encoding of Elixirs and Ingredients.
+ * Every payload starts with a header: a zero byte, the "NX" magic, the format
+ * version and the type of the value. All the distinct strings are written once in
+ * a string table and the records refer to them by index, so the Ingredient names
+ * shared by many Elixirs are stored only once.
+ * Data without the header is read as JSON, so entries cached before the binary
+ * encoding was enabled are still readable.
+ */
+public class BinaryMapper implements IBinaryMapper {
+    /**
+     * The current format version.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = {0, 'N', 'X'};
+    private static final int HEADER_LENGTH = MAGIC.length + 2;
+
+    private static final int TYPE_INGREDIENT = 1;
+    private static final int TYPE_ELIXIR = 2;
+    private static final int TYPE_LIST_FLAG = 0x10;
+
+    private final IJsonMapper jsonMapper;
+
+    /**
+     * Constructs the BinaryMapper.
+     * @param jsonMapper The jsonMapper used to read the data cached as JSON.
+     */
+    public BinaryMapper(IJsonMapper jsonMapper) {
+        if (jsonMapper == null) {
+            throw new IllegalArgumentException("IJsonMapper must not be null");
+        }
+
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Maps an Elixir, an Ingredient or a list of one of them to its binary form.
+     * @param value The object or list of objects.
+     * @return The binary data.
+     */
+    @Override
+    public byte[] toBinary(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must not be null");
+        }
+
+        StringTable strings = new StringTable();
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        int type;
+
+        if (value instanceof List<?> list) {
+            // A list without elements keeps no element type, so it can be read as a list of any type.
+            Object first = list.stream().filter(element -> element != null).findFirst().orElse(null);
+            type = TYPE_LIST_FLAG | (first == null ? 0 : first instanceof Elixir ? TYPE_ELIXIR : TYPE_INGREDIENT);
+            writeVarInt(records, list.size());
+
+            for (Object element : list) {
+                records.write(element != null ? 1 : 0);
+                if (element != null) writeRecord(records, strings, element, type & ~TYPE_LIST_FLAG);
+            }
+        } else {
+            type = value instanceof Elixir ? TYPE_ELIXIR : TYPE_INGREDIENT;
+            writeRecord(records, strings, value, type);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_LENGTH + records.size() + strings.byteSize());
+        out.writeBytes(MAGIC);
+        out.write(FORMAT_VERSION);
+        out.write(type);
+        strings.writeTo(out);
+        out.writeBytes(records.toByteArray());
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Maps binary data, or legacy JSON data, to an object.
+     * @param data The binary data.
+     * @param elementType The element type to be deserialized to.
+     * @return The deserialized element.
+     */
+    @Override
+    public <T> T mapBinaryObject(byte[] data, Class<T> elementType) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+
+        int type = typeOf(elementType);
+
+        if (!hasHeader(data)) {
+            return jsonMapper.mapJsonObject(new String(data, StandardCharsets.UTF_8), elementType);
+        }
+
+        try {
+            ByteBuffer buffer = readHeader(data, type, type);
+            String[] strings = readStringTable(buffer);
+
+            return elementType.cast(readRecord(buffer, strings, type));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed binary " + elementType.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Maps binary data, or legacy JSON data, to a list of objects.
+     * @param data The binary data.
+     * @param elementType The element type to be deserialized to.
+     * @return The list of deserialized elements.
+     */
+    @Override
+    public <T> List<T> mapBinaryList(byte[] data, Class<T> elementType) {
+        if (data == null || data.length == 0) {
+            return Collections.emptyList();
+        }
+
+        int type = typeOf(elementType);
+
+        if (!hasHeader(data)) {
+            return jsonMapper.mapJsonList(new String(data, StandardCharsets.UTF_8), elementType);
+        }
+
+        try {
+            ByteBuffer buffer = readHeader(data, TYPE_LIST_FLAG | type, TYPE_LIST_FLAG);
+            String[] strings = readStringTable(buffer);
+            int size = readVarInt(buffer);
+            List<T> list = new ArrayList<>(Math.min(size, buffer.remaining()));
+
+            for (int i = 0; i < size; i++) {
+                list.add(buffer.get() != 0 ? elementType.cast(readRecord(buffer, strings, type)) : null);
+            }
+
+            return list;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed binary List<" + elementType.getSimpleName() + ">", e);
+        }
+    }
+
+    /**
+     * See if data starts with the binary header magic.
+     * @param data The data.
+     * @return True if the data is in the binary format.
+     */
+    public static boolean hasHeader(byte[] data) {
+        if (data == null || data.length < HEADER_LENGTH) {
+            return false;
+        }
+
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the type code of an element type.
+     * @param elementType The element type.
+     * @return The type code.
+     */
+    private static int typeOf(Class<?> elementType) {
+        if (elementType == null) {
+            throw new IllegalArgumentException("ElementType must not be null");
+        }
+
+        if (elementType == Elixir.class) return TYPE_ELIXIR;
+        if (elementType == Ingredient.class) return TYPE_INGREDIENT;
+
+        throw new IllegalArgumentException("Unsupported binary element type " + elementType.getSimpleName());
+    }
+
+    /**
+     * Checks the header of binary data.
+     * @param data The binary data.
+     * @param expectedType The type code the data must have.
+     * @param alternativeType Another type code accepted for the data.
+     * @return The buffer positioned after the header.
+     */
+    private static ByteBuffer readHeader(byte[] data, int expectedType, int alternativeType) {
+        int version = data[MAGIC.length] & 0xFF;
+        int type = data[MAGIC.length + 1] & 0xFF;
+
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary format version " + version);
+        }
+
+        if (type != expectedType && type != alternativeType) {
+            throw new IllegalArgumentException("Unexpected binary value type " + type);
+        }
+
+        return ByteBuffer.wrap(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+    }
+
+    /**
+     * Writes an Elixir or an Ingredient.
+     * @param out The output.
+     * @param strings The string table.
+     * @param value The Elixir or Ingredient.
+     * @param type The type code of the value.
+     */
+    private static void writeRecord(ByteArrayOutputStream out, StringTable strings, Object value, int type) {
+        if (type == TYPE_INGREDIENT) {
+            if (!(value instanceof Ingredient ingredient)) {
+                throw new IllegalArgumentException("Unsupported binary value type " + value.getClass().getSimpleName());
+            }
+
+            writeVarInt(out, strings.ref(ingredient.getId()));
+            writeVarInt(out, strings.ref(ingredient.getName()));
+            return;
+        }
+
+        if (!(value instanceof Elixir elixir)) {
+            throw new IllegalArgumentException("Unsupported binary value type " + value.getClass().getSimpleName());
+        }
+
+        writeVarInt(out, strings.ref(elixir.getId()));
+        writeVarInt(out, strings.ref(elixir.getName()));
+        writeVarInt(out, strings.ref(elixir.getEffect()));
+        writeVarInt(out, strings.ref(elixir.getSideEffects()));
+        writeVarInt(out, strings.ref(elixir.getCharacteristics()));
+        writeVarInt(out, strings.ref(elixir.getTime()));
+        writeVarInt(out, strings.ref(elixir.getDifficulty()));
+        writeVarInt(out, strings.ref(elixir.getManufacturer()));
+
+        List<Ingredient> ingredients = elixir.getIngredients();
+        // 0 is a null list, otherwise the size plus one.
+        writeVarInt(out, ingredients == null ? 0 : ingredients.size() + 1);
+
+        if (ingredients != null) {
+            for (Ingredient ingredient : ingredients) {
+                out.write(ingredient != null ? 1 : 0);
+                if (ingredient != null) writeRecord(out, strings, ingredient, TYPE_INGREDIENT);
+            }
+        }
+    }
+
+    /**
+     * Reads an Elixir or an Ingredient.
+     * @param buffer The input.
+     * @param strings The string table.
+     * @param type The type code of the value.
+     * @return The Elixir or Ingredient.
+     */
+    private static Object readRecord(ByteBuffer buffer, String[] strings, int type) {
+        if (type == TYPE_INGREDIENT) {
+            return new Ingredient(readString(buffer, strings), readString(buffer, strings));
+        }
+
+        Elixir elixir = new Elixir();
+        elixir.setId(readString(buffer, strings));
+        elixir.setName(readString(buffer, strings));
+        elixir.setEffect(readString(buffer, strings));
+        elixir.setSideEffects(readString(buffer, strings));
+        elixir.setCharacteristics(readString(buffer, strings));
+        elixir.setTime(readString(buffer, strings));
+        elixir.setDifficulty(readString(buffer, strings));
+        elixir.setManufacturer(readString(buffer, strings));
+
+        int ingredientCount = readVarInt(buffer);
+
+        if (ingredientCount > 0) {
+            List<Ingredient> ingredients = new ArrayList<>(Math.min(ingredientCount - 1, buffer.remaining()));
+
+            for (int i = 0; i < ingredientCount - 1; i++) {
+                ingredients.add(buffer.get() != 0 ? (Ingredient) readRecord(buffer, strings, TYPE_INGREDIENT) : null);
+            }
+
+            elixir.setIngredients(ingredients);
+        }
+
+        return elixir;
+    }
+
+    /**
+     * Reads the string table.
+     * @param buffer The input.
+     * @return The strings, by index.
+     */
+    private static String[] readStringTable(ByteBuffer buffer) {
+        int count = readVarInt(buffer);
+
+        if (count > buffer.remaining()) {
+            throw new IllegalArgumentException("Malformed binary string table");
+        }
+
+        String[] strings = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            int length = readVarInt(buffer);
+
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalArgumentException("Malformed binary string table");
+            }
+
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return strings;
+    }
+
+    /**
+     * Reads a string reference.
+     * @param buffer The input.
+     * @param strings The string table.
+     * @return The string, or null for the 0 reference.
+     */
+    private static String readString(ByteBuffer buffer, String[] strings) {
+        int ref = readVarInt(buffer);
+
+        return ref == 0 ? null : strings[ref - 1];
+    }
+
+    /**
+     * Writes an unsigned variable length integer, 7 bits per byte.
+     * @param out The output.
+     * @param value The non-negative value.
+     */
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.write(value);
+    }
+
+    /**
+     * Reads an unsigned variable length integer.
+     * @param buffer The input.
+     * @return The value.
+     */
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                if (value < 0) break;
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Malformed binary integer");
+    }
+
+    /**
+     * Defines the table of distinct strings of one payload.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> refs = new LinkedHashMap<>();
+        private int byteSize;
+
+        /**
+         * Gets the reference of a string, adding it to the table on first use.
+         * @param value The string.
+         * @return 0 for null, otherwise the string index plus one.
+         */
+        private int ref(String value) {
+            if (value == null) {
+                return 0;
+            }
+
+            Integer ref = refs.get(value);
+
+            if (ref == null) {
+                ref = refs.size() + 1;
+                refs.put(value, ref);
+                byteSize += value.length() + 1;
+            }
+
+            return ref;
+        }
+
+        /**
+         * Gets an estimate of the encoded table size.
+         * @return The estimated size in bytes.
+         */
+        private int byteSize() {
+            return byteSize + 5;
+        }
+
+        /**
+         * Writes the table.
+         * @param out The output.
+         */
+        private void writeTo(ByteArrayOutputStream out) {
+            writeVarInt(out, refs.size());
+
+            for (String value : refs.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.writeBytes(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package nitro.mapper;
+
+import java.util.List;
+
+/**
+ * Defines the Binary Mapper interface.
+ */
+public interface IBinaryMapper {
+    /**
+     * Maps an object, or a list of objects, to its binary form.
+     * @param value The object or list of objects.
+     * @return The binary data.
+     * @throws IllegalArgumentException if the type of the value is not supported.
+     */
+    byte[] toBinary(Object value) throws IllegalArgumentException;
+
+    /**
+     * Maps binary data to an object.
+     * @param data The binary data.
+     * @param elementType The element type to be deserialized to.
+     * @return The deserialized element.
+     * @throws IllegalArgumentException if the data is malformed or of another type.
+     */
+    <T> T mapBinaryObject(byte[] data, Class<T> elementType) throws IllegalArgumentException;
+
+    /**
+     * Maps binary data to a list of objects.
+     * @param data The binary data.
+     * @param elementType The element type to be deserialized to.
+     * @return The list of deserialized elements.
+     * @throws IllegalArgumentException if the data is malformed or of another type.
+     */
+    <T> List<T> mapBinaryList(byte[] data, Class<T> elementType) throws IllegalArgumentException;
+}
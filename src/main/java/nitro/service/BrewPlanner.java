@@ -0,0 +1,262 @@
+package nitro.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import nitro.data.BrewPlan;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+import nitro.index.ElixirCatalogIndex;
+
+/**
+ * Defines a planner that, given Ingredient quantities, finds the combination of
+ * Elixirs that maximizes the number of Elixirs brewed.
+ * Brewing an Elixir consumes one unit of each one of its Ingredients.
+ * The candidate Elixirs come from the craft service, and a depth-first
+ * branch and bound search, seeded with a greedy plan, runs until it proves
+ * the optimum or its time budget runs out.
+ */
+public class BrewPlanner {
+    private static final int NODES_BETWEEN_CLOCK_CHECKS = 64;
+
+    private final IElixirCraftService elixirCraftService;
+    private final long timeBudgetNanos;
+
+    /**
+     * Constructs the BrewPlanner.
+     * @param elixirCraftService The ElixirCraftService used to find the candidate Elixirs.
+     * @param timeBudgetMillis The maximum time spent searching a plan.
+     */
+    public BrewPlanner(IElixirCraftService elixirCraftService, long timeBudgetMillis) {
+        if (elixirCraftService == null) {
+            throw new IllegalArgumentException("IElixirCraftService must not be null");
+        }
+
+        if (timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Time budget should be a positive number");
+        }
+
+        this.elixirCraftService = elixirCraftService;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    }
+
+    /**
+     * Plans the Elixirs to brew with an inventory.
+     * @param inventory The quantity available of each Ingredient name.
+     * @return The plan with the most Elixirs brewed found within the time budget.
+     */
+    public BrewPlan plan(Map<String, Integer> inventory) {
+        if (inventory == null) {
+            throw new IllegalArgumentException("Inventory must not be null");
+        }
+
+        // Gives a local dense ID to every available Ingredient.
+        Map<String, Integer> ingredientIds = new HashMap<>();
+        List<Integer> quantities = new ArrayList<>();
+        Set<String> available = new HashSet<>();
+
+        for (Map.Entry<String, Integer> entry : inventory.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null || entry.getValue() <= 0) continue;
+
+            available.add(entry.getKey());
+            Integer id = ingredientIds.putIfAbsent(ElixirCatalogIndex.normalize(entry.getKey()), quantities.size());
+            if (id == null) {
+                quantities.add(entry.getValue());
+            } else {
+                quantities.set(id, quantities.get(id) + entry.getValue());
+            }
+        }
+
+        if (ingredientIds.isEmpty()) {
+            return new BrewPlan(Map.of(), true);
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (Elixir elixir : elixirCraftService.findCraftableIngredients(available)) {
+            int[] recipe = elixir.getIngredients().stream()
+                    .map(Ingredient::getName)
+                    .mapToInt(name -> ingredientIds.getOrDefault(ElixirCatalogIndex.normalize(name), -1))
+                    .distinct()
+                    .toArray();
+
+            if (recipe.length > 0 && Arrays.stream(recipe).allMatch(id -> id >= 0)) {
+                candidates.add(new Candidate(elixir, recipe));
+            }
+        }
+
+        // Small recipes first: they consume fewer units, so the greedy seed is good and bounds prune early.
+        candidates.sort(Comparator.comparingInt((Candidate candidate) -> candidate.recipe.length)
+                .thenComparing(candidate -> candidate.elixir.getName() != null ? candidate.elixir.getName() : ""));
+
+        Search search = new Search(candidates, quantities.stream().mapToInt(Integer::intValue).toArray(), System.nanoTime() + timeBudgetNanos);
+        search.run();
+
+        Map<Elixir, Integer> brews = new LinkedHashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (search.best[i] > 0) brews.put(candidates.get(i).elixir, search.best[i]);
+        }
+
+        return new BrewPlan(brews, !search.timedOut);
+    }
+
+    /**
+     * Defines a candidate Elixir with its recipe as local Ingredient IDs.
+     * @param elixir The Elixir.
+     * @param recipe The local IDs of its Ingredients.
+     */
+    private record Candidate(Elixir elixir, int[] recipe) {
+    }
+
+    /**
+     * Defines the state of one branch and bound search.
+     */
+    private static final class Search {
+        private final Candidate[] candidates;
+        private final int[] remaining;
+        private final int[] minRecipeSizeFrom;
+        private final long deadline;
+        private final int[] current;
+        private final int[] best;
+        private int bestTotal;
+        private long nodes;
+        private boolean timedOut;
+
+        /**
+         * Constructs the Search.
+         * @param candidates The candidate Elixirs, in search order.
+         * @param quantities The quantity of each local Ingredient ID.
+         * @param deadline The System.nanoTime() at which the search stops.
+         */
+        private Search(List<Candidate> candidates, int[] quantities, long deadline) {
+            this.candidates = candidates.toArray(new Candidate[0]);
+            this.remaining = quantities;
+            this.deadline = deadline;
+            this.current = new int[this.candidates.length];
+            this.best = new int[this.candidates.length];
+            this.minRecipeSizeFrom = new int[this.candidates.length + 1];
+
+            minRecipeSizeFrom[this.candidates.length] = Integer.MAX_VALUE;
+            for (int i = this.candidates.length - 1; i >= 0; i--) {
+                minRecipeSizeFrom[i] = Math.min(minRecipeSizeFrom[i + 1], this.candidates[i].recipe.length);
+            }
+        }
+
+        /**
+         * Seeds the search with the greedy plan and explores the rest.
+         */
+        private void run() {
+            greedy();
+            explore(0, 0);
+        }
+
+        /**
+         * Brews each candidate as many times as possible, in search order.
+         */
+        private void greedy() {
+            int[] left = remaining.clone();
+
+            for (int i = 0; i < candidates.length; i++) {
+                int count = maxBrews(candidates[i].recipe, left);
+
+                for (int id : candidates[i].recipe) {
+                    left[id] -= count;
+                }
+
+                best[i] = count;
+                bestTotal += count;
+            }
+        }
+
+        /**
+         * Explores the brew counts of the candidates from a position.
+         * @param position The candidate being decided.
+         * @param total The Elixirs brewed by the decided candidates.
+         */
+        private void explore(int position, int total) {
+            if (timedOut) {
+                return;
+            }
+
+            if (++nodes % NODES_BETWEEN_CLOCK_CHECKS == 0 && System.nanoTime() > deadline) {
+                timedOut = true;
+                return;
+            }
+
+            if (position == candidates.length) {
+                if (total > bestTotal) {
+                    bestTotal = total;
+                    System.arraycopy(current, 0, best, 0, current.length);
+                }
+                return;
+            }
+
+            if (total + upperBound(position) <= bestTotal) {
+                return;
+            }
+
+            int[] recipe = candidates[position].recipe;
+
+            for (int count = maxBrews(recipe, remaining); count >= 0; count--) {
+                for (int id : recipe) {
+                    remaining[id] -= count;
+                }
+                current[position] = count;
+
+                explore(position + 1, total + count);
+
+                for (int id : recipe) {
+                    remaining[id] += count;
+                }
+                current[position] = 0;
+
+                if (timedOut) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Bounds the Elixirs that the undecided candidates can still brew.
+         * Each candidate brews at most its own maximum, and every brew consumes at
+         * least the smallest remaining recipe size from the units left.
+         * @param position The first undecided candidate.
+         * @return The upper bound.
+         */
+        private int upperBound(int position) {
+            long independent = 0;
+
+            for (int i = position; i < candidates.length; i++) {
+                independent += maxBrews(candidates[i].recipe, remaining);
+            }
+
+            long units = 0;
+            for (int quantity : remaining) {
+                units += quantity;
+            }
+
+            return (int) Math.min(independent, units / minRecipeSizeFrom[position]);
+        }
+
+        /**
+         * Gets how many times a recipe can be brewed with the remaining quantities.
+         * @param recipe The recipe local Ingredient IDs.
+         * @param quantities The remaining quantities.
+         * @return The maximum brew count.
+         */
+        private static int maxBrews(int[] recipe, int[] quantities) {
+            int count = Integer.MAX_VALUE;
+
+            for (int id : recipe) {
+                count = Math.min(count, quantities[id]);
+            }
+
+            return count;
+        }
+    }
+}
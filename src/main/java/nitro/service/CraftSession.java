@@ -0,0 +1,123 @@
+package nitro.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import nitro.data.CraftDelta;
+import nitro.data.Elixir;
+import nitro.index.ElixirCatalogIndex;
+
+/**
+ * Defines a stateful crafting session where Ingredients are added and removed one at a time.
+ * Keeps, for every Elixir, how many of its Ingredients are in the inventory, so each
+ * change only visits the Elixirs that need the changed Ingredient.
+ * A session works on the catalog index it was opened with and is not thread-safe.
+ */
+public class CraftSession {
+    private static final CraftDelta NO_CHANGE = new CraftDelta(List.of(), List.of());
+
+    private final ElixirCatalogIndex index;
+    private final int[] satisfiedIngredients;
+    private final Map<String, String> ingredients = new LinkedHashMap<>();
+    private final Set<Elixir> craftableElixirs = new LinkedHashSet<>();
+
+    /**
+     * Constructs the CraftSession.
+     * @param index The catalog index.
+     */
+    public CraftSession(ElixirCatalogIndex index) {
+        if (index == null) {
+            throw new IllegalArgumentException("ElixirCatalogIndex must not be null");
+        }
+
+        this.index = index;
+        this.satisfiedIngredients = new int[index.getElixirCount()];
+    }
+
+    /**
+     * Adds an Ingredient to the inventory.
+     * @param ingredient The Ingredient name.
+     * @return The Elixirs that became craftable.
+     */
+    public CraftDelta add(String ingredient) {
+        if (ingredient == null || ingredient.trim().isEmpty()) {
+            throw new IllegalArgumentException("Ingredient name must not be null or empty");
+        }
+
+        if (ingredients.putIfAbsent(ElixirCatalogIndex.normalize(ingredient), ingredient.trim()) != null) {
+            return NO_CHANGE;
+        }
+
+        int id = index.getIngredientId(ingredient);
+        if (id < 0) {
+            return NO_CHANGE;
+        }
+
+        List<Elixir> gained = new ArrayList<>();
+        for (int position : index.getElixirsWithIngredient(id)) {
+            if (++satisfiedIngredients[position] == index.getRecipe(position).length) {
+                Elixir elixir = index.getElixir(position);
+                craftableElixirs.add(elixir);
+                gained.add(elixir);
+            }
+        }
+
+        return gained.isEmpty() ? NO_CHANGE : new CraftDelta(gained, List.of());
+    }
+
+    /**
+     * Removes an Ingredient from the inventory.
+     * @param ingredient The Ingredient name.
+     * @return The Elixirs that are no longer craftable.
+     */
+    public CraftDelta remove(String ingredient) {
+        if (ingredient == null || ingredients.remove(ElixirCatalogIndex.normalize(ingredient)) == null) {
+            return NO_CHANGE;
+        }
+
+        int id = index.getIngredientId(ingredient);
+        if (id < 0) {
+            return NO_CHANGE;
+        }
+
+        List<Elixir> lost = new ArrayList<>();
+        for (int position : index.getElixirsWithIngredient(id)) {
+            if (satisfiedIngredients[position]-- == index.getRecipe(position).length) {
+                Elixir elixir = index.getElixir(position);
+                craftableElixirs.remove(elixir);
+                lost.add(elixir);
+            }
+        }
+
+        return lost.isEmpty() ? NO_CHANGE : new CraftDelta(List.of(), lost);
+    }
+
+    /**
+     * Gets the Ingredients currently in the inventory.
+     * @return The Ingredient names, as they were added.
+     */
+    public Set<String> getIngredients() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(ingredients.values()));
+    }
+
+    /**
+     * Gets the Elixirs that can currently be crafted.
+     * @return The craftable Elixirs.
+     */
+    public Set<Elixir> getCraftableElixirs() {
+        return Collections.unmodifiableSet(craftableElixirs);
+    }
+
+    /**
+     * See if an Ingredient is in the inventory.
+     * @param ingredient The Ingredient name.
+     * @return True if the Ingredient was added.
+     */
+    public boolean contains(String ingredient) {
+        return ingredient != null && ingredients.containsKey(ElixirCatalogIndex.normalize(ingredient));
+    }
+}
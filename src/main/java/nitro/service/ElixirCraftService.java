@@ -1,66 +1,302 @@
 package nitro.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import nitro.cache.LruCache;
 import nitro.data.Elixir;
+import nitro.data.ElixirMatch;
 import nitro.data.Ingredient;
+import nitro.index.ElixirCatalogIndex;
 
 /**
  * Defines the ElixirCraftService service.
  */
 public class ElixirCraftService implements IElixirCraftService {
     private final IElixirDataService elixirDataService;
+    private final ParallelLookup parallelLookup;
+    private final LruCache<String, Set<Elixir>> resultCache;
 
     /**
      * Constructs the ElixirCraftService.
      * @param service The ElixirDataService.
      */
     public ElixirCraftService(IElixirDataService service) {
+        this(service, 1, 0);
+    }
+
+    /**
+     * Constructs the ElixirCraftService.
+     * @param service The ElixirDataService.
+     * @param lookupConcurrency The maximum number of inventories evaluated concurrently by the batch API.
+     * @param resultCacheSize The maximum number of memoized craft results, 0 to disable it.
+     */
+    public ElixirCraftService(IElixirDataService service, int lookupConcurrency, int resultCacheSize) {
+        this(service, lookupConcurrency, resultCacheSize, 0);
+    }
+
+    /**
+     * Constructs the ElixirCraftService.
+     * @param service The ElixirDataService.
+     * @param lookupConcurrency The maximum number of inventories evaluated concurrently by the batch API.
+     * @param resultCacheSize The maximum number of memoized craft results, 0 to disable it.
+     * @param resultCacheTtlSeconds The TTL of the memoized craft results, 0 to keep them until the
+     *                              Elixir catalog is reloaded. Set it to the TTL of the cached lookups
+     *                              they are computed from, so they do not outlive them.
+     */
+    public ElixirCraftService(IElixirDataService service, int lookupConcurrency, int resultCacheSize, int resultCacheTtlSeconds) {
 
         if (service == null) {
             throw new IllegalArgumentException("IElixirCraftService must not be null");
         }
 
         this.elixirDataService = service;
+        this.parallelLookup = new ParallelLookup(lookupConcurrency);
+
+        if (resultCacheSize > 0) {
+            this.resultCache = new LruCache<>(resultCacheSize, Math.max(0, resultCacheTtlSeconds) * 1000L);
+            service.addCatalogChangeListener(elixirs -> resultCache.clear());
+        } else {
+            this.resultCache = null;
+        }
     }
 
     /**
      * Finds all the Elixirs that are craftable with a set of Ingredients.
-     * Finds all the potential Elixirs that require a specific Ingredient.
-     * Iterates through the potential Elixirs and see if there is a match
-     * with the available Ingredients.
+     * When memoization is enabled the result is cached under the canonical
+     * inventory key, until it expires or the Elixir catalog is reloaded.
      * @param ingredients The set of Ingredients.
      * @return The set of Elixirs that can be crafted.
      */
     @Override
     public Set<Elixir> findCraftableIngredients(Set<String> ingredients) {
-        Set<Elixir> potentialElixirs = new HashSet<>();
-        Set<Elixir> craftableElixirs = new HashSet<>();
+        if (resultCache == null) {
+            return computeCraftableIngredients(ingredients);
+        }
 
-        for (String ingredient : ingredients) {
-            potentialElixirs.addAll(elixirDataService.getElixirsByIngredientName(ingredient));
+        String cacheKey = toCacheKey(ingredients);
+        Set<Elixir> craftableElixirs = resultCache.get(cacheKey);
+
+        if (craftableElixirs != null) {
+            System.out.println("DEBUG: Craft result cache hit (hits: " + resultCache.getHitCount()
+                    + ", misses: " + resultCache.getMissCount() + ")");
+        } else {
+            craftableElixirs = computeCraftableIngredients(ingredients);
+            resultCache.put(cacheKey, Set.copyOf(craftableElixirs));
+        }
+
+        return new HashSet<>(craftableElixirs);
+    }
+
+    /**
+     * Streams the Elixirs that are craftable with a set of Ingredients.
+     * The potential Elixirs are fetched with a single bulk lookup, and each one is
+     * checked lazily while the stream is consumed.
+     * A memoized result of the same inventory is streamed instead when available;
+     * otherwise the result is memoized once the stream has been fully consumed.
+     * @param ingredients The set of Ingredients.
+     * @return The lazy Stream of Elixirs.
+     */
+    @Override
+    public Stream<Elixir> streamCraftableElixirs(Set<String> ingredients) {
+        Set<String> available = Set.copyOf(ingredients);
+        Set<String> normalizedAvailable = normalize(available);
+        String cacheKey = resultCache != null ? toCacheKey(available) : null;
+
+        if (resultCache != null) {
+            Set<Elixir> craftableElixirs = resultCache.get(cacheKey);
+
+            if (craftableElixirs != null) {
+                return craftableElixirs.stream();
+            }
+        }
+
+        // The bulk lookup returns every potential Elixir once, so no distinct() is needed.
+        Stream<Elixir> craftableElixirs = elixirDataService.getElixirsWithAnyIngredient(available).stream()
+                .filter(elixir -> elixir.getIngredients().size() <= normalizedAvailable.size())
+                .filter(elixir -> userHasAllIngredientsForElixir(elixir, normalizedAvailable));
+
+        if (resultCache == null) {
+            return craftableElixirs;
         }
 
-        for (Elixir elixir : potentialElixirs) {
-            if (elixir.getIngredients().size() > ingredients.size()) continue;
+        Iterator<Elixir> elixirs = craftableElixirs.iterator();
+        List<Elixir> emitted = new ArrayList<>();
+
+        Iterator<Elixir> memoizing = new Iterator<>() {
+            private boolean memoized;
+
+            @Override
+            public boolean hasNext() {
+                boolean hasNext = elixirs.hasNext();
+
+                if (!hasNext && !memoized) {
+                    memoized = true;
+                    resultCache.put(cacheKey, Set.copyOf(emitted));
+                }
+
+                return hasNext;
+            }
+
+            @Override
+            public Elixir next() {
+                Elixir elixir = elixirs.next();
+                emitted.add(elixir);
+                return elixir;
+            }
+        };
+
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(memoizing, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL),
+                false
+        );
+    }
+
+    /**
+     * Gets the memoized craft results cache.
+     * @return The results cache or null if memoization is disabled.
+     */
+    public LruCache<String, Set<Elixir>> getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Computes the Elixirs that are craftable with a set of Ingredients.
+     * Finds all the potential Elixirs that require at least one of the Ingredients.
+     * Iterates through the potential Elixirs and see if there is a match
+     * with the available Ingredients.
+     * @param ingredients The set of Ingredients.
+     * @return The set of Elixirs that can be crafted.
+     */
+    private Set<Elixir> computeCraftableIngredients(Set<String> ingredients) {
+        Set<Elixir> craftableElixirs = new HashSet<>();
+        Set<String> normalizedIngredients = normalize(ingredients);
+
+        for (Elixir elixir : elixirDataService.getElixirsWithAnyIngredient(ingredients)) {
+            if (elixir.getIngredients().size() > normalizedIngredients.size()) continue;
 
-            if (userHasAllIngredientsForElixir(elixir, ingredients)) craftableElixirs.add(elixir);
+            if (userHasAllIngredientsForElixir(elixir, normalizedIngredients)) craftableElixirs.add(elixir);
         }
 
         return craftableElixirs;
     }
 
+    /**
+     * Finds the craftable Elixirs of each inventory.
+     * The inventories are evaluated concurrently, within the lookup concurrency.
+     * @param inventories The list of Ingredient sets.
+     * @return The set of craftable Elixirs of each inventory.
+     */
+    @Override
+    public List<Set<Elixir>> findCraftable(List<Set<String>> inventories) {
+        return parallelLookup.map(inventories, this::findCraftableIngredients);
+    }
+
+    /**
+     * Finds the Elixirs that miss at most a number of Ingredients.
+     * The Elixirs returned by the per-Ingredient lookups are compared once against the
+     * normalized inventory: the distinct normalized names of each recipe that are not in
+     * it give both the missing list and the missing count.
+     * @param ingredients The set of Ingredients.
+     * @param maxMissing The maximum number of missing Ingredients.
+     * @param limit The maximum number of Elixirs returned.
+     * @return The matches, ranked by the number of missing Ingredients.
+     */
+    @Override
+    public List<ElixirMatch> findNearlyCraftable(Set<String> ingredients, int maxMissing, int limit) {
+        if (maxMissing <= 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Set<String> normalizedNames = normalize(ingredients);
+        Set<Elixir> candidates = new LinkedHashSet<>();
+        getElixirsByIngredients(ingredients).forEach(candidates::addAll);
+
+        List<ElixirMatch> matches = new ArrayList<>();
+        Map<ElixirMatch, Integer> recipeSizes = new HashMap<>();
+
+        for (Elixir elixir : candidates) {
+            Map<String, String> recipe = new LinkedHashMap<>();
+            for (Ingredient ingredient : elixir.getIngredients()) {
+                recipe.putIfAbsent(ElixirCatalogIndex.normalize(ingredient.getName()), ingredient.getName());
+            }
+
+            List<String> missingIngredients = new ArrayList<>();
+            recipe.forEach((normalizedName, name) -> {
+                if (!normalizedNames.contains(normalizedName)) missingIngredients.add(name);
+            });
+
+            if (missingIngredients.isEmpty() || missingIngredients.size() > maxMissing) continue;
+
+            ElixirMatch match = new ElixirMatch(elixir, missingIngredients);
+            matches.add(match);
+            recipeSizes.put(match, recipe.size());
+        }
+
+        matches.sort(Comparator.comparingInt(ElixirMatch::getMissingCount)
+                .thenComparingInt(recipeSizes::get));
+
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Gets the Elixirs that require each one of the Ingredients, with a single bulk lookup.
+     * @param ingredients The set of Ingredients.
+     * @return The Elixirs of each Ingredient.
+     */
+    private Collection<List<Elixir>> getElixirsByIngredients(Set<String> ingredients) {
+        return elixirDataService.getElixirsByIngredientNames(ingredients).values();
+    }
+
+    /**
+     * Builds the canonical key of an inventory: its sorted normalized Ingredient names,
+     * so inventories differing only in case share their memoized result.
+     * @param ingredients The set of Ingredients.
+     * @return The cache key.
+     */
+    private static String toCacheKey(Set<String> ingredients) {
+        return normalize(ingredients).stream().sorted().collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Normalizes a set of Ingredient names, so they match the recipes ignoring case.
+     * @param ingredients The Ingredient names.
+     * @return The distinct normalized names.
+     */
+    private static Set<String> normalize(Collection<String> ingredients) {
+        Set<String> normalized = new HashSet<>();
+
+        for (String ingredient : ingredients) {
+            normalized.add(ElixirCatalogIndex.normalize(ingredient));
+        }
+
+        return normalized;
+    }
+
     /**
      * See if the user has all the Ingredients required to craft a specific Elixir.
      * @param elixir The Elixir to craft.
-     * @param ingredientNames The set of Ingredient names.
+     * @param normalizedNames The set of normalized Ingredient names.
      * @return True if the user has all the Ingredients to craft the Elixir.
      */
-    private boolean userHasAllIngredientsForElixir(Elixir elixir, Set<String> ingredientNames) {
+    private boolean userHasAllIngredientsForElixir(Elixir elixir, Set<String> normalizedNames) {
         if (elixir.getIngredients().isEmpty()) return false;
 
         for (Ingredient ingredient : elixir.getIngredients()) {
-            if (!ingredientNames.contains(ingredient.getName())) return false;
+            if (!normalizedNames.contains(ElixirCatalogIndex.normalize(ingredient.getName()))) return false;
         }
 
         return true;
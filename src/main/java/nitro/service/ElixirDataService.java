@@ -2,17 +2,52 @@ package nitro.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import nitro.api.IAsyncWizardWorldApiClient;
 import nitro.api.IWizardWorldApiClient;
+import nitro.cache.AsyncCacheService;
+import nitro.cache.IAsyncCacheService;
 import nitro.cache.ICacheService;
 import nitro.data.Elixir;
 import nitro.data.Ingredient;
+import nitro.index.IngredientNameIndex;
+import nitro.mapper.BinaryMapper;
+import nitro.mapper.IBinaryMapper;
 import nitro.mapper.IJsonMapper;
 
 /**
  * Defines the ElixirDataService service.
+ * Concurrent cache misses of the same key share a single API call.
+ * Optionally, the Elixir and Ingredient catalogs are refreshed ahead of their
+ * expiry on a background scheduler, and served stale while a refresh runs.
+ * Ingredient names not found by the API can be remembered for a short TTL by a
+ * {@link NegativeCache}, locally and in the cache, so repeated misspelled names do
+ * not reach the API.
+ * The lookups are implemented once, asynchronously: they compose the cache read and
+ * the API fallback without blocking, and the blocking methods wait for them. Their
+ * invalid arguments fail the future with an IllegalArgumentException.
  */
-public class ElixirDataService implements IElixirDataService {
+public class ElixirDataService implements IAsyncElixirDataService, AutoCloseable {
     private static final String CACHE_KEY_ELIXIRS = "elixirs:all";
     private static final String CACHE_KEY_INGREDIENTS = "ingredients:all";
     private static final String CACHE_KEY_INDIVIDUAL_INGREDIENT_PREFIX = "ingredient:name:";
@@ -20,10 +55,25 @@ public class ElixirDataService implements IElixirDataService {
 
     private final IWizardWorldApiClient apiClient;
     private final ICacheService cacheService;
+    private final IAsyncWizardWorldApiClient asyncApiClient;
+    private final IAsyncCacheService asyncCacheService;
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
     private final ObjectMapper objectMapper;
     private final IJsonMapper jsonMapper;
-
-    private boolean cacheEnabled = false;
+    private final IBinaryMapper binaryMapper;
+    private final boolean binaryCacheEncoding;
+    private final NegativeCache negativeCache;
+    private final ParallelLookup parallelLookup;
+    private final SingleFlight singleFlight = new SingleFlight();
+    // Only ticks; the refreshes themselves run on the asyncExecutor so a slow fetch never delays the next tick.
+    private final ScheduledExecutorService refreshScheduler;
+    private final RefreshAheadValue<List<Elixir>> elixirsRefreshAhead;
+    private final RefreshAheadValue<List<Ingredient>> ingredientsRefreshAhead;
+    private final List<ICatalogChangeListener> catalogChangeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile IngredientNameIndex ingredientNameIndex;
+    // Not a monitor, so the virtual threads waiting for a build do not pin their carriers.
+    private final ReentrantLock ingredientNameIndexLock = new ReentrantLock();
 
     /**
      * Constructs the ElixirDataService.
@@ -37,6 +87,24 @@ public class ElixirDataService implements IElixirDataService {
             ICacheService cacheService,
             ObjectMapper objectMapper,
             IJsonMapper jsonMapper
+    ) {
+        this(apiClient, cacheService, objectMapper, jsonMapper, new ElixirDataServiceOptions());
+    }
+
+    /**
+     * Constructs the ElixirDataService.
+     * @param apiClient The WizardWorldApiClient client.
+     * @param cacheService The CacheService service.
+     * @param objectMapper The objectMapper to serialize objects into JSON.
+     * @param jsonMapper The jsonMapper to deserialize JSON into objects.
+     * @param options The optional behaviours of the service.
+     */
+    public ElixirDataService(
+            IWizardWorldApiClient apiClient,
+            ICacheService cacheService,
+            ObjectMapper objectMapper,
+            IJsonMapper jsonMapper,
+            ElixirDataServiceOptions options
     ) {
         if (apiClient == null) {
             throw new IllegalArgumentException("IWizardWorldApiClient must not be null");
@@ -50,249 +118,770 @@ public class ElixirDataService implements IElixirDataService {
             throw new IllegalArgumentException("ObjectMapper must not be null");
         }
 
-        if (cacheService != null) {
-            cacheEnabled = true;
+        if (options == null) {
+            throw new IllegalArgumentException("ElixirDataServiceOptions must not be null");
         }
 
         this.apiClient = apiClient;
         this.cacheService = cacheService;
+        this.asyncApiClient = options.getAsyncApiClient();
+        this.asyncCacheService = options.getAsyncCacheService() != null || cacheService == null
+                ? options.getAsyncCacheService()
+                : new AsyncCacheService(cacheService, asyncExecutor);
         this.objectMapper = objectMapper;
         this.jsonMapper = jsonMapper;
+        this.binaryMapper = new BinaryMapper(jsonMapper);
+        this.binaryCacheEncoding = options.isBinaryCacheEncoding();
+        this.negativeCache = options.getNegativeCacheTtlSeconds() > 0
+                ? new NegativeCache(asyncCacheService, options.getNegativeCacheTtlSeconds(), options.getNegativeCacheMaxEntries())
+                : null;
+        this.parallelLookup = new ParallelLookup(options.getLookupConcurrency());
+
+        if (options.getRefreshAheadSeconds() > 0) {
+            long refreshAfterMillis = options.getRefreshAheadSeconds() * 1000L;
+            long checkPeriodSeconds = Math.max(1, options.getRefreshAheadSeconds() / 10);
+
+            this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("catalog-refresh").factory());
+            this.elixirsRefreshAhead = new RefreshAheadValue<>(
+                    CACHE_KEY_ELIXIRS,
+                    () -> Futures.join(loadElixirsAsync()),
+                    this::fetchElixirs,
+                    refreshAfterMillis,
+                    asyncExecutor
+            );
+            this.ingredientsRefreshAhead = new RefreshAheadValue<>(
+                    CACHE_KEY_INGREDIENTS,
+                    () -> Futures.join(loadIngredientsAsync()),
+                    this::fetchIngredients,
+                    refreshAfterMillis,
+                    asyncExecutor
+            );
+            this.refreshScheduler.scheduleAtFixedRate(() -> {
+                elixirsRefreshAhead.refreshIfDue();
+                ingredientsRefreshAhead.refreshIfDue();
+            }, checkPeriodSeconds, checkPeriodSeconds, TimeUnit.SECONDS);
+        } else {
+            this.refreshScheduler = null;
+            this.elixirsRefreshAhead = null;
+            this.ingredientsRefreshAhead = null;
+        }
+    }
+
+    /**
+     * Stops the background refreshes and the asynchronous lookups, and waits for the
+     * cache writes in flight.
+     */
+    @Override
+    public void close() {
+        if (refreshScheduler != null) {
+            refreshScheduler.shutdownNow();
+        }
+
+        asyncExecutor.shutdown();
+        awaitTermination(asyncExecutor, "Asynchronous lookups and cache writes");
+    }
+
+    /**
+     * Waits a few seconds for the tasks of an executor being shut down.
+     * @param executor The executor.
+     * @param description The tasks, for logging.
+     */
+    static void awaitTermination(ExecutorService executor, String description) {
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("Warning: " + description + " not completed in 5 s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
      * Gets all the Elixirs from the cache or from the API as fallback.
+     * With refresh-ahead enabled, they are kept in process and refreshed in the background.
      * @return The list of Elixirs.
      */
     @Override
     public List<Elixir> getElixirs() {
-        String cachedData = null;
+        return elixirsRefreshAhead != null ? elixirsRefreshAhead.get() : Futures.join(loadElixirsAsync());
+    }
 
-        if (cacheEnabled) {
-            cachedData = cacheService.get(CACHE_KEY_ELIXIRS);
+    /**
+     * Gets the Elixirs that require the specific Ingredient from cache or from the API
+     * as fallback.
+     * @param ingredientName The Ingredient name.
+     * @return The list of Elixirs that require that Ingredient.
+     */
+    @Override
+    public List<Elixir> getElixirsByIngredientName(String ingredientName) {
+        return Futures.join(getElixirsByIngredientNameAsync(ingredientName));
+    }
+
+    /**
+     * Gets the Elixirs that require each one of the Ingredients, reading all the cached
+     * ones at once and writing all the ones fetched from the API at once.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs of each Ingredient name.
+     */
+    @Override
+    public Map<String, List<Elixir>> getElixirsByIngredientNames(Collection<String> ingredientNames) {
+        return Futures.join(getElixirsByIngredientNamesAsync(ingredientNames));
+    }
+
+    /**
+     * Gets the distinct Elixirs that require at least one of the Ingredients.
+     * With the normalized elixir store, the union is computed by the store.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs.
+     */
+    @Override
+    public List<Elixir> getElixirsWithAnyIngredient(Collection<String> ingredientNames) {
+        return Futures.join(getElixirsWithAnyIngredientAsync(ingredientNames));
+    }
+
+    /**
+     * Gets all the Ingredients from cache or from API as fallback.
+     * With refresh-ahead enabled, they are kept in process and refreshed in the background.
+     * @return The list of the existing Ingredients.
+     */
+    @Override
+    public List<Ingredient> getIngredients() {
+        return ingredientsRefreshAhead != null ? ingredientsRefreshAhead.get() : Futures.join(loadIngredientsAsync());
+    }
+
+    /**
+     * Gets an Ingredient by name.
+     * @param name The name of the Ingredient.
+     * @return The Ingredient found.
+     */
+    @Override
+    public Ingredient getIngredientByName(String name) {
+        return Futures.join(getIngredientByNameAsync(name));
+    }
+
+    /**
+     * Gets many Ingredients by name, reading all the cached ones at once and writing
+     * all the ones fetched from the API at once.
+     * @param names The Ingredient names.
+     * @return The Ingredients found, by name. Names that do not exist are left out.
+     */
+    @Override
+    public Map<String, Ingredient> getIngredientsByNames(Collection<String> names) {
+        return Futures.join(getIngredientsByNamesAsync(names));
+    }
+
+    /**
+     * Gets all the Elixirs from the cache or from the API as fallback, without blocking.
+     * With refresh-ahead enabled, they are kept in process and refreshed in the background.
+     * @return The future of the list of Elixirs.
+     */
+    @Override
+    public CompletableFuture<List<Elixir>> getElixirsAsync() {
+        if (elixirsRefreshAhead != null) {
+            return CompletableFuture.supplyAsync(elixirsRefreshAhead::get, asyncExecutor);
         }
 
-        List<Elixir> elixirs;
+        return loadElixirsAsync();
+    }
 
-        if (cachedData != null) {
-            try {
-                elixirs = jsonMapper.mapJsonList(cachedData, Elixir.class);
+    /**
+     * Loads all the Elixirs from the cache, or from the API as fallback, without blocking.
+     * @return The future of the list of Elixirs.
+     */
+    private CompletableFuture<List<Elixir>> loadElixirsAsync() {
+        return getCachedListAsync(CACHE_KEY_ELIXIRS, Elixir.class).thenCompose(elixirs -> {
+            if (elixirs != null) {
                 System.out.println("DEBUG: Elixirs loaded from cache");
-            } catch (IllegalArgumentException e) {
-                System.err.println("Error parsing elixirs from cache, fetching from API: " + e.getMessage());
-                elixirs = fetchElixirsFromApi();
+                return CompletableFuture.completedFuture(elixirs);
             }
-        } else {
-            elixirs = fetchElixirsFromApi();
-        }
 
-        return elixirs;
+            return singleFlight.executeAsync(CACHE_KEY_ELIXIRS, this::fetchElixirsFromApiAsync);
+        });
     }
 
     /**
-     * Gets the Elixirs from the API.
+     * Gets the Elixirs from the API, joining the fetch already in flight if there is one.
      * @return The list of Elixirs.
      */
-    private List<Elixir> fetchElixirsFromApi() {
-        try {
-            List<Elixir> elixirs = apiClient.getAllElixirs();
-
-            if (cacheEnabled && elixirs != null) {
-                try {
-                    String jsonToCache = objectMapper.writeValueAsString(elixirs);
-                    cacheService.set(CACHE_KEY_ELIXIRS, jsonToCache);
-                } catch (JsonProcessingException e) {
-                    System.err.println("Warning: Failed to set elixirs cache: " + e.getMessage());
-                }
+    private List<Elixir> fetchElixirs() {
+        return Futures.join(singleFlight.executeAsync(CACHE_KEY_ELIXIRS, this::fetchElixirsFromApiAsync));
+    }
+
+    /**
+     * Gets the Elixirs from the API without blocking, and keeps them in the cache.
+     * @return The future of the list of Elixirs.
+     */
+    private CompletableFuture<List<Elixir>> fetchElixirsFromApiAsync() {
+        return requestElixirsAsync().thenComposeAsync(elixirs -> {
+            if (elixirs == null) {
+                return CompletableFuture.completedFuture(null);
             }
 
-            return elixirs;
+            onElixirsFetched(elixirs);
+            return setCachedAsync(CACHE_KEY_ELIXIRS, elixirs).thenApply(ignored -> elixirs);
+        }, asyncExecutor);
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error fetching elixirs from API: " + e.getMessage());
-            throw new RuntimeException("Failed to fetch elixirs from API: " + e.getMessage());
-        }
+    /**
+     * Requests all the Elixirs from the API without blocking, and without caching them.
+     * @return The future of the list of Elixirs.
+     */
+    final CompletableFuture<List<Elixir>> requestElixirsAsync() {
+        return requestAsync("elixirs", IAsyncWizardWorldApiClient::getAllElixirs, apiClient::getAllElixirs);
+    }
+
+    /**
+     * Updates the local state after the Elixir catalog was fetched from the API.
+     * @param elixirs The Elixirs fetched.
+     */
+    private void onElixirsFetched(List<Elixir> elixirs) {
+        notifyCatalogChanged(listener -> listener.onElixirsFetched(elixirs));
     }
 
     /**
      * Gets the Elixirs that require the specific Ingredient from cache or from the API
-     * as fallback.
+     * as fallback, without blocking.
      * @param ingredientName The Ingredient name.
-     * @return The list of Elixirs that require that Ingredient.
+     * @return The future of the list of Elixirs that require that Ingredient, failed
+     * with an IllegalArgumentException if the name is null or empty.
      */
     @Override
-    public List<Elixir> getElixirsByIngredientName(String ingredientName) {
+    public CompletableFuture<List<Elixir>> getElixirsByIngredientNameAsync(String ingredientName) {
         if (ingredientName == null || ingredientName.trim().isEmpty()) {
-            throw new IllegalArgumentException("IngredientName must not be null or empty");
+            return CompletableFuture.failedFuture(new IllegalArgumentException("IngredientName must not be null or empty"));
         }
 
         String cacheKey = CACHE_KEY_ELIXIR_BY_INGREDIENT_PREFIX + ingredientName;
-        String cachedData = null;
-
-        if (cacheEnabled) {
-            cachedData = cacheService.get(cacheKey);
-        }
-
-        List<Elixir> elixirs;
 
-        if (cachedData != null) {
-            try {
-                elixirs = jsonMapper.mapJsonList(cachedData, Elixir.class);
+        return getCachedListAsync(cacheKey, Elixir.class).thenCompose(elixirs -> {
+            if (elixirs != null) {
                 System.out.println("DEBUG: Elixirs with the ingredient '" + ingredientName + "' loaded from cache");
-            } catch (IllegalArgumentException e) {
-                System.err.println("Error parsing elixirs with the ingredient '" + ingredientName + "' from cache, fetching from API: " + e.getMessage());
-                elixirs = fetchElixirsByIngredientNameFromApi(ingredientName);
+                return CompletableFuture.completedFuture(elixirs);
             }
-        } else {
-            elixirs = fetchElixirsByIngredientNameFromApi(ingredientName);
-        }
 
-        return elixirs;
+            return singleFlight.executeAsync(cacheKey, () -> requestElixirsByIngredientNameAsync(ingredientName).thenCompose(fetched -> {
+                if (fetched == null) return CompletableFuture.completedFuture(null);
+                return setCachedAsync(cacheKey, fetched).thenApply(ignored -> fetched);
+            }));
+        });
     }
 
     /**
-     * Gets the Elixirs that require the specific Ingredient  from the API
+     * Requests the Elixirs that require the specific Ingredient from the API without
+     * blocking, and without caching them.
      * @param ingredientName The Ingredient name.
-     * @return The list of Elixirs that require that Ingredient.
+     * @return The future of the list of Elixirs that require that Ingredient.
+     */
+    private CompletableFuture<List<Elixir>> requestElixirsByIngredientNameAsync(String ingredientName) {
+        return requestAsync(
+                "elixirs with the ingredient '" + ingredientName + "'",
+                api -> api.getElixirsByIngredient(ingredientName),
+                () -> apiClient.getElixirsByIngredient(ingredientName)
+        );
+    }
+
+    /**
+     * Gets the Elixirs that require each one of the Ingredients without blocking, reading
+     * all the cached ones at once and writing all the ones fetched from the API at once.
+     * The API calls of the missing ones run up to the lookup concurrency at a time.
+     * @param ingredientNames The Ingredient names.
+     * @return The future of the list of Elixirs of each Ingredient name, failed with an
+     * IllegalArgumentException if a name is null or empty.
      */
-    private List<Elixir> fetchElixirsByIngredientNameFromApi(String ingredientName) {
+    @Override
+    public CompletableFuture<Map<String, List<Elixir>>> getElixirsByIngredientNamesAsync(Collection<String> ingredientNames) {
+        List<String> names;
+
         try {
-            List<Elixir> elixirs = apiClient.getElixirsByIngredient(ingredientName);
-
-            if (cacheEnabled && elixirs != null) {
-                try {
-                    String jsonToCache = objectMapper.writeValueAsString(elixirs);
-                    cacheService.set(CACHE_KEY_ELIXIR_BY_INGREDIENT_PREFIX + ingredientName, jsonToCache);
-                } catch (JsonProcessingException e) {
-                    System.err.println("Warning: Failed to set elixirs with the ingredient '" + ingredientName + "' cache: " + e.getMessage());
-                }
+            names = distinctNames(ingredientNames);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return getAllCachedListsAsync(prefixed(CACHE_KEY_ELIXIR_BY_INGREDIENT_PREFIX, names), Elixir.class).thenCompose(cached -> {
+            Map<String, List<Elixir>> found = new HashMap<>();
+
+            for (String name : names) {
+                List<Elixir> elixirs = cached.get(CACHE_KEY_ELIXIR_BY_INGREDIENT_PREFIX + name);
+                if (elixirs != null) found.put(name, elixirs);
             }
 
-            return elixirs;
-        } catch (Exception e) {
-            System.err.println("Error fetching elixirs with the ingredient '" + ingredientName + "' from API: " + e.getMessage());
-            throw new RuntimeException("Failed to fetch elixirs with the ingredient '" + ingredientName + "' from cache: " + e.getMessage());
-        }
+            System.out.println("DEBUG: Elixirs of " + found.size() + "/" + names.size() + " ingredients loaded from cache");
+
+            List<String> missing = names.stream().filter(name -> !found.containsKey(name)).toList();
+
+            // Shares the in-flight calls of the single key lookups, which return the same value.
+            return parallelLookup.mapAsync(missing, name -> singleFlight.executeAsync(
+                    CACHE_KEY_ELIXIR_BY_INGREDIENT_PREFIX + name,
+                    () -> requestElixirsByIngredientNameAsync(name)
+            )).thenCompose(fetched -> {
+                Map<String, Object> toCache = new LinkedHashMap<>();
+
+                for (int i = 0; i < missing.size(); i++) {
+                    List<Elixir> elixirs = fetched.get(i) != null ? fetched.get(i) : Collections.emptyList();
+                    found.put(missing.get(i), elixirs);
+
+                    if (fetched.get(i) != null) {
+                        toCache.put(CACHE_KEY_ELIXIR_BY_INGREDIENT_PREFIX + missing.get(i), elixirs);
+                    }
+                }
+
+                Map<String, List<Elixir>> elixirsByIngredient = new LinkedHashMap<>();
+                for (String name : names) {
+                    elixirsByIngredient.put(name, found.get(name));
+                }
+
+                return setAllCachedAsync(toCache).thenApply(ignored -> elixirsByIngredient);
+            });
+        });
     }
 
     /**
-     * Gets all the Ingredients from cache or from API as fallback.
-     * @return The list of the existing Ingredients.
+     * Gets the distinct Elixirs that require at least one of the Ingredients, without blocking.
+     * @param ingredientNames The Ingredient names.
+     * @return The future of the list of Elixirs, failed with an IllegalArgumentException
+     * if a name is null or empty.
      */
     @Override
-    public List<Ingredient> getIngredients() {
-        String cachedData = null;
+    public CompletableFuture<List<Elixir>> getElixirsWithAnyIngredientAsync(Collection<String> ingredientNames) {
+        List<String> names;
 
-        if (cacheEnabled) {
-            cachedData = cacheService.get(CACHE_KEY_INGREDIENTS);
+        try {
+            names = distinctNames(ingredientNames);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
 
-        List<Ingredient> ingredients;
+        return getElixirsByIngredientNamesAsync(names).thenApply(elixirsByIngredient -> {
+            Set<Elixir> elixirs = new LinkedHashSet<>();
 
-        if (cachedData != null) {
-            try {
-                ingredients = jsonMapper.mapJsonList(cachedData, Ingredient.class);
-                System.out.println("DEBUG: Ingredients loaded from cache");
-            } catch (IllegalArgumentException e) {
-                System.err.println("Error parsing ingredients from cache, fetching from API: " + e.getMessage());
-                ingredients = fetchIngredientsFromApi();
+            for (List<Elixir> elixirsOfIngredient : elixirsByIngredient.values()) {
+                elixirs.addAll(elixirsOfIngredient);
             }
-        } else {
-            ingredients = fetchIngredientsFromApi();
+
+            return new ArrayList<>(elixirs);
+        });
+    }
+
+    /**
+     * Gets all the Ingredients from cache or from API as fallback, without blocking.
+     * With refresh-ahead enabled, they are kept in process and refreshed in the background.
+     * @return The future of the list of the existing Ingredients.
+     */
+    @Override
+    public CompletableFuture<List<Ingredient>> getIngredientsAsync() {
+        if (ingredientsRefreshAhead != null) {
+            return CompletableFuture.supplyAsync(ingredientsRefreshAhead::get, asyncExecutor);
         }
 
-        return ingredients;
+        return loadIngredientsAsync();
     }
 
     /**
-     * Gets all the Ingredients from the API.
+     * Loads all the Ingredients from the cache, or from the API as fallback, without blocking.
+     * @return The future of the list of the existing Ingredients.
+     */
+    private CompletableFuture<List<Ingredient>> loadIngredientsAsync() {
+        return getCachedListAsync(CACHE_KEY_INGREDIENTS, Ingredient.class).thenCompose(ingredients -> {
+            if (ingredients != null) {
+                System.out.println("DEBUG: Ingredients loaded from cache");
+                return CompletableFuture.completedFuture(ingredients);
+            }
+
+            return singleFlight.executeAsync(CACHE_KEY_INGREDIENTS, this::fetchIngredientsFromApiAsync);
+        });
+    }
+
+    /**
+     * Gets all the Ingredients from the API, joining the fetch already in flight if there is one.
      * @return The list of the existing Ingredients.
      */
-    private List<Ingredient> fetchIngredientsFromApi() {
-        try {
-            List<Ingredient> ingredients = apiClient.getAllIngredients();
-
-            if (cacheEnabled && ingredients != null) {
-                try {
-                    String jsonToCache = objectMapper.writeValueAsString(ingredients);
-                    cacheService.set(CACHE_KEY_INGREDIENTS, jsonToCache);
-                } catch (JsonProcessingException e) {
-                    System.err.println("Warning: Failed to set ingredients cache: " + e.getMessage());
-                }
+    private List<Ingredient> fetchIngredients() {
+        return Futures.join(singleFlight.executeAsync(CACHE_KEY_INGREDIENTS, this::fetchIngredientsFromApiAsync));
+    }
+
+    /**
+     * Gets all the Ingredients from the API without blocking, and caches them.
+     * @return The future of the list of the existing Ingredients.
+     */
+    private CompletableFuture<List<Ingredient>> fetchIngredientsFromApiAsync() {
+        return requestAsync("ingredients", IAsyncWizardWorldApiClient::getAllIngredients, apiClient::getAllIngredients).thenComposeAsync(ingredients -> {
+            if (ingredients == null) {
+                return CompletableFuture.completedFuture(null);
             }
 
-            return ingredients;
+            CompletableFuture<Void> stored = setCachedAsync(CACHE_KEY_INGREDIENTS, ingredients);
+            onIngredientsFetched(ingredients);
+            return stored.thenApply(ignored -> ingredients);
+        }, asyncExecutor);
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error fetching ingredients from API: " + e.getMessage());
-            throw new RuntimeException("Failed to fetch ingredients from API: " + e.getMessage());
+    /**
+     * Updates the local state after the Ingredient catalog was fetched from the API.
+     * @param ingredients The Ingredients fetched.
+     */
+    private void onIngredientsFetched(List<Ingredient> ingredients) {
+        ingredientNameIndex = IngredientNameIndex.build(ingredients);
+
+        if (negativeCache != null) {
+            negativeCache.clear();
         }
+
+        notifyCatalogChanged(listener -> listener.onIngredientsFetched(ingredients));
     }
 
     /**
-     * Gets an Ingredient by name.
+     * Gets an Ingredient by name from cache or from the API as fallback, without blocking.
      * @param name The name of the Ingredient.
-     * @return The Ingredient found.
+     * @return The future of the Ingredient found, completed with null if there is none,
+     * or failed with an IllegalArgumentException if the name is null or empty.
      */
     @Override
-    public Ingredient getIngredientByName(String name) {
+    public CompletableFuture<Ingredient> getIngredientByNameAsync(String name) {
         if (name == null || name.trim().isEmpty()) {
-            throw new IllegalArgumentException("Ingredient name must not be null or empty");
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Ingredient name must not be null or empty"));
         }
 
-        String cacheKey = CACHE_KEY_INDIVIDUAL_INGREDIENT_PREFIX + name;
-        String cachedData = null;
-
-        if (cacheEnabled) {
-            cachedData = cacheService.get(cacheKey);
+        if (negativeCache != null && negativeCache.isKnownMissing(name)) {
+            System.out.println("DEBUG: Ingredient '" + name + "' is known to be missing");
+            return CompletableFuture.completedFuture(null);
         }
 
-        Ingredient ingredient;
+        String cacheKey = CACHE_KEY_INDIVIDUAL_INGREDIENT_PREFIX + name;
 
-        if (cachedData != null) {
-            try {
-                ingredient = jsonMapper.mapJsonObject(cachedData, Ingredient.class);
+        return getCachedObjectAsync(cacheKey, Ingredient.class).thenCompose(ingredient -> {
+            if (ingredient != null) {
                 System.out.println("DEBUG: Ingredient '" + name + "' loaded from cache");
-            } catch (IllegalArgumentException e) {
-                System.err.println("Error parsing ingredient '" + name + "' from cache, fetching from API: " + e.getMessage());
-                ingredient = fetchIngredientFromApi(name);
+                return CompletableFuture.completedFuture(ingredient);
             }
-        } else {
-            ingredient = fetchIngredientFromApi(name);
-        }
 
-        return ingredient;
+            return filterKnownMissingAsync(List.of(name)).thenCompose(unknown -> {
+                if (unknown.isEmpty()) {
+                    System.out.println("DEBUG: Ingredient '" + name + "' is known to be missing");
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                return singleFlight.executeAsync(cacheKey, () -> requestIngredientAsync(name).thenCompose(fetched -> {
+                    if (fetched == null) {
+                        rememberMissing(name);
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    return setCachedAsync(cacheKey, fetched).thenApply(ignored -> fetched);
+                }));
+            });
+        });
     }
 
     /**
-     * Gets an Ingredient by name from the API.
+     * Requests an Ingredient by name from the API without blocking, and without caching it.
      * @param name The Ingredient name.
-     * @return The Ingredient found.
+     * @return The future of the Ingredient found, completed with null if there is none.
      */
-    private Ingredient fetchIngredientFromApi(String name) {
+    private CompletableFuture<Ingredient> requestIngredientAsync(String name) {
+        return requestAsync(
+                "ingredient '" + name + "'",
+                api -> api.getIngredientByName(name),
+                () -> apiClient.getIngredientByName(name)
+        ).thenApply(searchResult -> searchResult == null || searchResult.isEmpty() ? null : searchResult.getFirst());
+    }
+
+    /**
+     * Gets many Ingredients by name without blocking, reading all the cached ones at once
+     * and writing all the ones fetched from the API at once.
+     * The API calls of the missing ones run up to the lookup concurrency at a time.
+     * @param names The Ingredient names.
+     * @return The future of the Ingredients found, by name, failed with an
+     * IllegalArgumentException if a name is null or empty. Names that do not exist are left out.
+     */
+    @Override
+    public CompletableFuture<Map<String, Ingredient>> getIngredientsByNamesAsync(Collection<String> names) {
+        List<String> distinct;
+
         try {
-            List<Ingredient> searchResult = apiClient.getIngredientByName(name);
+            distinct = distinctNames(names);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return getAllCachedObjectsAsync(prefixed(CACHE_KEY_INDIVIDUAL_INGREDIENT_PREFIX, distinct), Ingredient.class).thenCompose(cached -> {
+            Map<String, Ingredient> found = new HashMap<>();
 
-            if (searchResult.isEmpty()) {
-                return null;
+            for (String name : distinct) {
+                Ingredient ingredient = cached.get(CACHE_KEY_INDIVIDUAL_INGREDIENT_PREFIX + name);
+                if (ingredient != null) found.put(name, ingredient);
             }
 
-            Ingredient ingredient = searchResult.getFirst();
+            System.out.println("DEBUG: " + found.size() + "/" + distinct.size() + " ingredients loaded from cache");
+
+            return filterKnownMissingAsync(distinct.stream().filter(name -> !found.containsKey(name)).toList()).thenCompose(missing -> parallelLookup.mapAsync(
+                    missing,
+                    name -> singleFlight.executeAsync(CACHE_KEY_INDIVIDUAL_INGREDIENT_PREFIX + name, () -> requestIngredientAsync(name))
+            ).thenCompose(fetched -> {
+                Map<String, Object> toCache = new LinkedHashMap<>();
+
+                for (int i = 0; i < missing.size(); i++) {
+                    Ingredient ingredient = fetched.get(i);
+
+                    if (ingredient == null) {
+                        rememberMissing(missing.get(i));
+                        continue;
+                    }
+
+                    found.put(missing.get(i), ingredient);
+                    toCache.put(CACHE_KEY_INDIVIDUAL_INGREDIENT_PREFIX + missing.get(i), ingredient);
+                }
 
-            if (cacheEnabled && ingredient != null) {
-                try {
-                    String jsonToCache = objectMapper.writeValueAsString(ingredient);
-                    cacheService.set(CACHE_KEY_INDIVIDUAL_INGREDIENT_PREFIX + name, jsonToCache);
-                } catch (JsonProcessingException e) {
-                    System.err.println("Warning: Failed to set ingredient '" + name + "' cache: " + e.getMessage());
+                Map<String, Ingredient> ingredientsByName = new LinkedHashMap<>();
+                for (String name : distinct) {
+                    if (found.containsKey(name)) ingredientsByName.put(name, found.get(name));
                 }
+
+                return setAllCachedAsync(toCache).thenApply(ignored -> ingredientsByName);
+            }));
+        });
+    }
+
+    /**
+     * Filters out the Ingredient names recently not found without blocking.
+     * @param names The Ingredient names.
+     * @return The future of the names that are not known to be missing.
+     */
+    private CompletableFuture<List<String>> filterKnownMissingAsync(List<String> names) {
+        return negativeCache != null ? negativeCache.filterKnownMissingAsync(names) : CompletableFuture.completedFuture(names);
+    }
+
+    /**
+     * Remembers an Ingredient name not found by the API, if the negative cache is enabled.
+     * @param name The Ingredient name.
+     */
+    private void rememberMissing(String name) {
+        if (negativeCache != null) {
+            negativeCache.remember(name);
+        }
+    }
+
+    /**
+     * Calls the API without blocking, with the asynchronous client if there is one or
+     * with the blocking one on a virtual thread.
+     * @param description The requested data, for logging.
+     * @param asyncRequest The request of the asynchronous client.
+     * @param request The request of the blocking client.
+     * @return The future of the response, failed with a RuntimeException if the request fails.
+     */
+    private <T> CompletableFuture<T> requestAsync(
+            String description,
+            Function<IAsyncWizardWorldApiClient, CompletionStage<T>> asyncRequest,
+            Supplier<T> request
+    ) {
+        CompletableFuture<T> response;
+
+        try {
+            response = asyncApiClient != null
+                    ? asyncRequest.apply(asyncApiClient).toCompletableFuture()
+                    : CompletableFuture.supplyAsync(request, asyncExecutor);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        return response.handle((value, error) -> {
+            if (error == null) {
+                return value;
             }
 
-            return ingredient;
-        } catch (Exception e) {
-            System.err.println("Error fetching ingredient '" + name + "' from cache: " + e.getMessage());
-            throw new RuntimeException("Failed to fetch ingredient '" + name + "' from cache: " + e.getMessage());
+            Throwable cause = Futures.unwrap(error);
+            System.err.println("Error fetching " + description + " from API: " + cause.getMessage());
+            throw new CompletionException(new RuntimeException("Failed to fetch " + description + " from API: " + cause.getMessage(), cause));
+        });
+    }
+
+    /**
+     * Reads a cached list without blocking, in the configured cache encoding.
+     * @param key The cache key.
+     * @param elementType The element type.
+     * @return The future of the unmodifiable list, completed with null if the key is not cached or can not be read.
+     */
+    private <T> CompletableFuture<List<T>> getCachedListAsync(String key, Class<T> elementType) {
+        return getCachedAsync(
+                key,
+                bytes -> Collections.unmodifiableList(binaryMapper.mapBinaryList(bytes, elementType)),
+                json -> Collections.unmodifiableList(jsonMapper.mapJsonList(json, elementType))
+        );
+    }
+
+    /**
+     * Reads many cached lists at once without blocking, in the configured cache encoding.
+     * @param keys The cache keys.
+     * @param elementType The element type.
+     * @return The future of the unmodifiable lists found, by key.
+     */
+    private <T> CompletableFuture<Map<String, List<T>>> getAllCachedListsAsync(List<String> keys, Class<T> elementType) {
+        return getAllCachedAsync(
+                keys,
+                bytes -> Collections.unmodifiableList(binaryMapper.mapBinaryList(bytes, elementType)),
+                json -> Collections.unmodifiableList(jsonMapper.mapJsonList(json, elementType))
+        );
+    }
+
+    /**
+     * Reads a cached object without blocking, in the configured cache encoding.
+     * @param key The cache key.
+     * @param elementType The object type.
+     * @return The future of the object, completed with null if the key is not cached or can not be read.
+     */
+    private <T> CompletableFuture<T> getCachedObjectAsync(String key, Class<T> elementType) {
+        return getCachedAsync(
+                key,
+                bytes -> binaryMapper.mapBinaryObject(bytes, elementType),
+                json -> jsonMapper.mapJsonObject(json, elementType)
+        );
+    }
+
+    /**
+     * Reads many cached objects at once without blocking, in the configured cache encoding.
+     * @param keys The cache keys.
+     * @param elementType The object type.
+     * @return The future of the objects found, by key.
+     */
+    private <T> CompletableFuture<Map<String, T>> getAllCachedObjectsAsync(List<String> keys, Class<T> elementType) {
+        return getAllCachedAsync(
+                keys,
+                bytes -> binaryMapper.mapBinaryObject(bytes, elementType),
+                json -> jsonMapper.mapJsonObject(json, elementType)
+        );
+    }
+
+    /**
+     * Reads and decodes a cached value without blocking. Values that can not be read are
+     * treated as not cached.
+     * @param key The cache key.
+     * @param binaryDecoder The decoder of the binary encoding.
+     * @param jsonDecoder The decoder of the JSON encoding.
+     * @return The future of the decoded value, completed with null if there is none.
+     */
+    private <T> CompletableFuture<T> getCachedAsync(String key, Function<byte[], T> binaryDecoder, Function<String, T> jsonDecoder) {
+        if (asyncCacheService == null) {
+            return CompletableFuture.completedFuture(null);
         }
+
+        CompletableFuture<T> cached = binaryCacheEncoding
+                ? asyncCacheService.getBytes(key, binaryDecoder)
+                : asyncCacheService.get(key, jsonDecoder);
+
+        return cached.exceptionally(error -> {
+            System.err.println("Error parsing '" + key + "' from cache, fetching from API: " + Futures.unwrap(error).getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Reads and decodes many cached values at once without blocking. If they can not be
+     * read, none is treated as cached.
+     * @param keys The cache keys.
+     * @param binaryDecoder The decoder of the binary encoding.
+     * @param jsonDecoder The decoder of the JSON encoding.
+     * @return The future of the decoded values found, by key.
+     */
+    private <T> CompletableFuture<Map<String, T>> getAllCachedAsync(List<String> keys, Function<byte[], T> binaryDecoder, Function<String, T> jsonDecoder) {
+        if (asyncCacheService == null || keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        CompletableFuture<Map<String, T>> cached = binaryCacheEncoding
+                ? asyncCacheService.getAllBytes(keys, binaryDecoder)
+                : asyncCacheService.getAll(keys, jsonDecoder);
+
+        return cached.exceptionally(error -> {
+            System.err.println("Error parsing " + keys.size() + " keys from cache, fetching from API: " + Futures.unwrap(error).getMessage());
+            return Map.of();
+        });
+    }
+
+    /**
+     * Caches an object or a list without blocking, in the configured cache encoding.
+     * @param key The cache key.
+     * @param value The object or list.
+     * @return The future completed once the value is written, even if the write failed.
+     */
+    private CompletableFuture<Void> setCachedAsync(String key, Object value) {
+        return setAllCachedAsync(Map.of(key, value));
+    }
+
+    /**
+     * Caches many objects or lists at once without blocking, in the configured cache
+     * encoding. Values that can not be encoded are left out.
+     * The lookups complete once their values are written, so the next lookup reads them
+     * from the cache.
+     * @param values The objects or lists, by cache key.
+     * @return The future completed once the values are written, even if the write failed.
+     */
+    private CompletableFuture<Void> setAllCachedAsync(Map<String, Object> values) {
+        if (asyncCacheService == null || values.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (binaryCacheEncoding) {
+            Map<String, byte[]> encoded = new LinkedHashMap<>();
+            values.forEach((key, value) -> encoded.put(key, binaryMapper.toBinary(value)));
+            return whenWritten(asyncCacheService.setAllBytes(encoded), values.size() + " keys");
+        }
+
+        Map<String, String> encoded = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            try {
+                encoded.put(entry.getKey(), objectMapper.writeValueAsString(entry.getValue()));
+            } catch (JsonProcessingException e) {
+                System.err.println("Warning: Failed to set '" + entry.getKey() + "' cache: " + e.getMessage());
+            }
+        }
+
+        return whenWritten(asyncCacheService.setAll(encoded), values.size() + " keys");
+    }
+
+    /**
+     * Logs the failure of a cache write, which does not fail the lookup.
+     * @param write The future of the write.
+     * @param description The written keys, for logging.
+     * @return The future of the write, completed normally even if it failed.
+     */
+    private static CompletableFuture<Void> whenWritten(CompletableFuture<Void> write, String description) {
+        return write.handle((ignored, error) -> {
+            if (error != null) {
+                System.err.println("Warning: Failed to set the cache of " + description + ": " + Futures.unwrap(error).getMessage());
+            }
+
+            return null;
+        });
+    }
+
+    /**
+     * Validates and de-duplicates a collection of names.
+     * @param names The names.
+     * @return The distinct names, in their original order.
+     */
+    static List<String> distinctNames(Collection<String> names) {
+        if (names == null) {
+            throw new IllegalArgumentException("Names must not be null");
+        }
+
+        for (String name : names) {
+            if (name == null || name.trim().isEmpty()) {
+                throw new IllegalArgumentException("Names must not be null or empty");
+            }
+        }
+
+        return new ArrayList<>(new LinkedHashSet<>(names));
+    }
+
+    /**
+     * Builds the cache keys of a list of names.
+     * @param prefix The cache key prefix.
+     * @param names The names.
+     * @return The cache keys.
+     */
+    private static List<String> prefixed(String prefix, List<String> names) {
+        return names.stream().map(name -> prefix + name).toList();
     }
 
     /**
@@ -302,12 +891,94 @@ public class ElixirDataService implements IElixirDataService {
      */
     @Override
     public boolean validateIngredientName(String ingredient) {
-        if (ingredient.trim().isEmpty()) {
-            return false;
+        return findIngredientName(ingredient) != null;
+    }
+
+    /**
+     * Finds the catalog name of an Ingredient, ignoring case, with the local name index
+     * or, if it could not be built, by name from the cache or the API.
+     * @param name The Ingredient name, as typed.
+     * @return The Ingredient name as written in the catalog, or null if it does not exist.
+     */
+    @Override
+    public String findIngredientName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return null;
+        }
+
+        IngredientNameIndex index = getIngredientNameIndex();
+        Ingredient ingredientFound = index != null ? index.find(name) : getIngredientByName(name);
+
+        return ingredientFound != null ? ingredientFound.getName() : null;
+    }
+
+    /**
+     * Suggests the Ingredient names starting with a prefix, from the local name index.
+     * @param prefix The name prefix.
+     * @param limit The maximum number of names returned.
+     * @return The matching Ingredient names.
+     */
+    @Override
+    public List<String> suggestIngredientNames(String prefix, int limit) {
+        IngredientNameIndex index = getIngredientNameIndex();
+
+        if (index == null) {
+            return Collections.emptyList();
+        }
+
+        return index.findByPrefix(prefix, limit);
+    }
+
+    /**
+     * Gets the local Ingredient name index, building it from all the Ingredients on first use.
+     * @return The name index or null if the Ingredients could not be loaded.
+     */
+    private IngredientNameIndex getIngredientNameIndex() {
+        IngredientNameIndex index = ingredientNameIndex;
+
+        if (index == null) {
+            ingredientNameIndexLock.lock();
+            try {
+                if (ingredientNameIndex == null) {
+                    try {
+                        ingredientNameIndex = IngredientNameIndex.build(getIngredients());
+                    } catch (RuntimeException e) {
+                        System.err.println("Warning: Failed to build the ingredient name index: " + e.getMessage());
+                    }
+                }
+                index = ingredientNameIndex;
+            } finally {
+                ingredientNameIndexLock.unlock();
+            }
         }
 
-        Ingredient ingredientFound = getIngredientByName(ingredient);
+        return index;
+    }
 
-        return ingredientFound != null;
+    /**
+     * Registers a listener notified every time a catalog is fetched from the API.
+     * @param listener The listener.
+     */
+    @Override
+    public void addCatalogChangeListener(ICatalogChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener must not be null");
+        }
+
+        catalogChangeListeners.add(listener);
+    }
+
+    /**
+     * Notifies the listeners that a catalog was fetched.
+     * @param notification The call of each listener.
+     */
+    private void notifyCatalogChanged(Consumer<ICatalogChangeListener> notification) {
+        for (ICatalogChangeListener listener : catalogChangeListeners) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Catalog change listener failed: " + e.getMessage());
+            }
+        }
     }
 }
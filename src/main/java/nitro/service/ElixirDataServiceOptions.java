@@ -0,0 +1,190 @@
+package nitro.service;
+
+import nitro.api.IAsyncWizardWorldApiClient;
+import nitro.cache.IAsyncCacheService;
+
+/**
+ * Defines the optional behaviours of the ElixirDataService.
+ * The defaults keep the service fully synchronous, reading and writing the cache inline.
+ */
+public class ElixirDataServiceOptions {
+    /**
+     * The maximum number of concurrent API calls made by the bulk lookups.
+     */
+    private int lookupConcurrency = 1;
+
+    /**
+     * Whether the cached values are written in the compact binary encoding instead of JSON.
+     */
+    private boolean binaryCacheEncoding = false;
+
+    /**
+     * The age from which the Elixir and Ingredient catalogs are refreshed in the background, 0 to disable it.
+     */
+    private int refreshAheadSeconds = 0;
+
+    /**
+     * The TTL of the negative cache entries of the Ingredient names not found, 0 to disable it.
+     */
+    private int negativeCacheTtlSeconds = 0;
+
+    /**
+     * The maximum number of Ingredient names not found kept in process.
+     */
+    private int negativeCacheMaxEntries = 10000;
+
+    /**
+     * The non-blocking API client of the asynchronous lookups, null to run the blocking one on virtual threads.
+     */
+    private IAsyncWizardWorldApiClient asyncApiClient;
+
+    /**
+     * The asynchronous cache of the asynchronous lookups, null to run the blocking one on virtual threads.
+     */
+    private IAsyncCacheService asyncCacheService;
+
+    /**
+     * Gets the maximum number of concurrent API calls made by the bulk lookups.
+     * @return The lookup concurrency.
+     */
+    public int getLookupConcurrency() {
+        return lookupConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of concurrent API calls made by the bulk lookups.
+     * @param lookupConcurrency The lookup concurrency, 1 for sequential calls.
+     * @return These options.
+     */
+    public ElixirDataServiceOptions setLookupConcurrency(int lookupConcurrency) {
+        if (lookupConcurrency <= 0) {
+            throw new IllegalArgumentException("Lookup concurrency should be a positive number");
+        }
+
+        this.lookupConcurrency = lookupConcurrency;
+        return this;
+    }
+
+    /**
+     * Gets whether the cached values are written in the compact binary encoding.
+     * @return True for the binary encoding, false for JSON.
+     */
+    public boolean isBinaryCacheEncoding() {
+        return binaryCacheEncoding;
+    }
+
+    /**
+     * Sets whether the cached values are written in the compact binary encoding.
+     * Values cached as JSON are still read while the binary encoding is enabled.
+     * @param binaryCacheEncoding True for the binary encoding, false for JSON.
+     * @return These options.
+     */
+    public ElixirDataServiceOptions setBinaryCacheEncoding(boolean binaryCacheEncoding) {
+        this.binaryCacheEncoding = binaryCacheEncoding;
+        return this;
+    }
+
+    /**
+     * Gets the age from which the Elixir and Ingredient catalogs are refreshed in the background.
+     * @return The refresh age in seconds, 0 when refresh-ahead is disabled.
+     */
+    public int getRefreshAheadSeconds() {
+        return refreshAheadSeconds;
+    }
+
+    /**
+     * Sets the age from which the Elixir and Ingredient catalogs are refreshed in the background.
+     * It should be below the cache TTL, so the catalogs are refreshed before they expire.
+     * @param refreshAheadSeconds The refresh age in seconds, 0 to disable refresh-ahead.
+     * @return These options.
+     */
+    public ElixirDataServiceOptions setRefreshAheadSeconds(int refreshAheadSeconds) {
+        if (refreshAheadSeconds < 0) {
+            throw new IllegalArgumentException("Refresh-ahead age should not be a negative number");
+        }
+
+        this.refreshAheadSeconds = refreshAheadSeconds;
+        return this;
+    }
+
+    /**
+     * Gets the TTL of the negative cache entries of the Ingredient names not found.
+     * @return The TTL in seconds, 0 when negative caching is disabled.
+     */
+    public int getNegativeCacheTtlSeconds() {
+        return negativeCacheTtlSeconds;
+    }
+
+    /**
+     * Sets the TTL of the negative cache entries of the Ingredient names not found.
+     * @param negativeCacheTtlSeconds The TTL in seconds, 0 to disable negative caching.
+     * @return These options.
+     */
+    public ElixirDataServiceOptions setNegativeCacheTtlSeconds(int negativeCacheTtlSeconds) {
+        if (negativeCacheTtlSeconds < 0) {
+            throw new IllegalArgumentException("Negative cache TTL should not be a negative number");
+        }
+
+        this.negativeCacheTtlSeconds = negativeCacheTtlSeconds;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of Ingredient names not found kept in process.
+     * @return The negative cache size.
+     */
+    public int getNegativeCacheMaxEntries() {
+        return negativeCacheMaxEntries;
+    }
+
+    /**
+     * Sets the maximum number of Ingredient names not found kept in process.
+     * @param negativeCacheMaxEntries The negative cache size.
+     * @return These options.
+     */
+    public ElixirDataServiceOptions setNegativeCacheMaxEntries(int negativeCacheMaxEntries) {
+        if (negativeCacheMaxEntries <= 0) {
+            throw new IllegalArgumentException("Negative cache size should be a positive number");
+        }
+
+        this.negativeCacheMaxEntries = negativeCacheMaxEntries;
+        return this;
+    }
+
+    /**
+     * Gets the non-blocking API client of the asynchronous lookups.
+     * @return The asynchronous API client or null if the blocking one is used.
+     */
+    public IAsyncWizardWorldApiClient getAsyncApiClient() {
+        return asyncApiClient;
+    }
+
+    /**
+     * Sets the non-blocking API client of the asynchronous lookups.
+     * @param asyncApiClient The asynchronous API client, null to run the blocking one on virtual threads.
+     * @return These options.
+     */
+    public ElixirDataServiceOptions setAsyncApiClient(IAsyncWizardWorldApiClient asyncApiClient) {
+        this.asyncApiClient = asyncApiClient;
+        return this;
+    }
+
+    /**
+     * Gets the asynchronous cache of the asynchronous lookups.
+     * @return The asynchronous cache or null if the blocking one is used.
+     */
+    public IAsyncCacheService getAsyncCacheService() {
+        return asyncCacheService;
+    }
+
+    /**
+     * Sets the asynchronous cache of the asynchronous lookups. It should read and write
+     * the same cache as the blocking cache service.
+     * @param asyncCacheService The asynchronous cache, null to run the blocking one on virtual threads.
+     * @return These options.
+     */
+    public ElixirDataServiceOptions setAsyncCacheService(IAsyncCacheService asyncCacheService) {
+        this.asyncCacheService = asyncCacheService;
+        return this;
+    }
+}
@@ -0,0 +1,374 @@
+package nitro.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import nitro.cache.IElixirStore;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+
+/**
+ * Defines an ElixirDataService that keeps the Elixirs normalized in an elixir store
+ * instead of the elixirs:all and per-Ingredient cache keys.
+ * The Elixir catalog is fetched from the API through the wrapped ElixirDataService,
+ * without caching it, and stored whole; the per-Ingredient lookups and their union
+ * are then computed by the store. The Ingredient lookups go to the wrapped service.
+ * Optionally, the Elixir catalog is refreshed ahead of its age on a background
+ * scheduler, and served stale while a refresh runs.
+ * The elixir store is blocking, so it runs on virtual threads.
+ */
+public class ElixirStoreDataService implements IAsyncElixirDataService, AutoCloseable {
+    private static final String ELIXIRS_FETCH_KEY = "elixirs:all";
+
+    private final ElixirDataService delegate;
+    private final IElixirStore elixirStore;
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SingleFlight singleFlight = new SingleFlight();
+    // Only ticks; the refreshes themselves run on the asyncExecutor so a slow fetch never delays the next tick.
+    private final ScheduledExecutorService refreshScheduler;
+    private final RefreshAheadValue<List<Elixir>> elixirsRefreshAhead;
+    private final List<ICatalogChangeListener> catalogChangeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs the ElixirStoreDataService.
+     * @param delegate The data service fetching the Elixirs and answering the Ingredient lookups.
+     * @param elixirStore The normalized store of the Elixirs.
+     * @param refreshAheadSeconds The age from which the Elixir catalog is refreshed in the background, 0 to disable it.
+     */
+    public ElixirStoreDataService(ElixirDataService delegate, IElixirStore elixirStore, int refreshAheadSeconds) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("ElixirDataService must not be null");
+        }
+
+        if (elixirStore == null) {
+            throw new IllegalArgumentException("IElixirStore must not be null");
+        }
+
+        this.delegate = delegate;
+        this.elixirStore = elixirStore;
+
+        if (refreshAheadSeconds > 0) {
+            long checkPeriodSeconds = Math.max(1, refreshAheadSeconds / 10);
+
+            this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("elixir-store-refresh").factory());
+            this.elixirsRefreshAhead = new RefreshAheadValue<>(
+                    ELIXIRS_FETCH_KEY,
+                    () -> Futures.join(loadElixirsAsync()),
+                    () -> Futures.join(singleFlight.executeAsync(ELIXIRS_FETCH_KEY, this::fetchElixirsFromApiAsync)),
+                    refreshAheadSeconds * 1000L,
+                    asyncExecutor
+            );
+            this.refreshScheduler.scheduleAtFixedRate(elixirsRefreshAhead::refreshIfDue, checkPeriodSeconds, checkPeriodSeconds, TimeUnit.SECONDS);
+        } else {
+            this.refreshScheduler = null;
+            this.elixirsRefreshAhead = null;
+        }
+    }
+
+    /**
+     * Stops the background refreshes and the elixir store lookups, then closes the wrapped service.
+     */
+    @Override
+    public void close() {
+        if (refreshScheduler != null) {
+            refreshScheduler.shutdownNow();
+        }
+
+        asyncExecutor.shutdown();
+        ElixirDataService.awaitTermination(asyncExecutor, "Elixir store lookups");
+        delegate.close();
+    }
+
+    /**
+     * Gets all the Elixirs from the elixir store or from the API as fallback.
+     * @return The list of Elixirs.
+     */
+    @Override
+    public List<Elixir> getElixirs() {
+        return Futures.join(getElixirsAsync());
+    }
+
+    /**
+     * Gets the Elixirs that require the specific Ingredient from the elixir store.
+     * @param ingredientName The Ingredient name.
+     * @return The list of Elixirs that require that Ingredient.
+     */
+    @Override
+    public List<Elixir> getElixirsByIngredientName(String ingredientName) {
+        return Futures.join(getElixirsByIngredientNameAsync(ingredientName));
+    }
+
+    /**
+     * Gets the Elixirs that require each one of the Ingredients from the elixir store.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs of each Ingredient name.
+     */
+    @Override
+    public Map<String, List<Elixir>> getElixirsByIngredientNames(Collection<String> ingredientNames) {
+        return Futures.join(getElixirsByIngredientNamesAsync(ingredientNames));
+    }
+
+    /**
+     * Gets the distinct Elixirs that require at least one of the Ingredients from the elixir store.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs.
+     */
+    @Override
+    public List<Elixir> getElixirsWithAnyIngredient(Collection<String> ingredientNames) {
+        return Futures.join(getElixirsWithAnyIngredientAsync(ingredientNames));
+    }
+
+    /**
+     * Gets all the Ingredients from the wrapped service.
+     * @return The list of the existing Ingredients.
+     */
+    @Override
+    public List<Ingredient> getIngredients() {
+        return delegate.getIngredients();
+    }
+
+    /**
+     * Gets an Ingredient by name from the wrapped service.
+     * @param name The name of the Ingredient.
+     * @return The Ingredient found.
+     */
+    @Override
+    public Ingredient getIngredientByName(String name) {
+        return delegate.getIngredientByName(name);
+    }
+
+    /**
+     * Gets many Ingredients by name from the wrapped service.
+     * @param names The Ingredient names.
+     * @return The Ingredients found, by name. Names that do not exist are left out.
+     */
+    @Override
+    public Map<String, Ingredient> getIngredientsByNames(Collection<String> names) {
+        return delegate.getIngredientsByNames(names);
+    }
+
+    /**
+     * Gets all the Elixirs from the elixir store or from the API as fallback, without blocking.
+     * With refresh-ahead enabled, they are kept in process and refreshed in the background.
+     * @return The future of the list of Elixirs.
+     */
+    @Override
+    public CompletableFuture<List<Elixir>> getElixirsAsync() {
+        if (elixirsRefreshAhead != null) {
+            return CompletableFuture.supplyAsync(elixirsRefreshAhead::get, asyncExecutor);
+        }
+
+        return loadElixirsAsync();
+    }
+
+    /**
+     * Gets the Elixirs that require the specific Ingredient from the elixir store, without blocking.
+     * @param ingredientName The Ingredient name.
+     * @return The future of the list of Elixirs that require that Ingredient, failed
+     * with an IllegalArgumentException if the name is null or empty.
+     */
+    @Override
+    public CompletableFuture<List<Elixir>> getElixirsByIngredientNameAsync(String ingredientName) {
+        if (ingredientName == null || ingredientName.trim().isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("IngredientName must not be null or empty"));
+        }
+
+        return getElixirsByIngredientNamesAsync(List.of(ingredientName)).thenApply(elixirsByIngredient -> elixirsByIngredient.get(ingredientName));
+    }
+
+    /**
+     * Gets the Elixirs that require each one of the Ingredients from the elixir store, without blocking.
+     * @param ingredientNames The Ingredient names.
+     * @return The future of the list of Elixirs of each Ingredient name, failed with an
+     * IllegalArgumentException if a name is null or empty.
+     */
+    @Override
+    public CompletableFuture<Map<String, List<Elixir>>> getElixirsByIngredientNamesAsync(Collection<String> ingredientNames) {
+        List<String> names;
+
+        try {
+            names = ElixirDataService.distinctNames(ingredientNames);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            loadElixirStore();
+            return elixirStore.getElixirsByIngredientNames(names);
+        }, asyncExecutor);
+    }
+
+    /**
+     * Gets the distinct Elixirs that require at least one of the Ingredients, without
+     * blocking. The union is computed by the elixir store.
+     * @param ingredientNames The Ingredient names.
+     * @return The future of the list of Elixirs, failed with an IllegalArgumentException
+     * if a name is null or empty.
+     */
+    @Override
+    public CompletableFuture<List<Elixir>> getElixirsWithAnyIngredientAsync(Collection<String> ingredientNames) {
+        List<String> names;
+
+        try {
+            names = ElixirDataService.distinctNames(ingredientNames);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            loadElixirStore();
+            return elixirStore.getElixirsWithAnyIngredient(names);
+        }, asyncExecutor);
+    }
+
+    /**
+     * Gets all the Ingredients from the wrapped service, without blocking.
+     * @return The future of the list of the existing Ingredients.
+     */
+    @Override
+    public CompletableFuture<List<Ingredient>> getIngredientsAsync() {
+        return delegate.getIngredientsAsync();
+    }
+
+    /**
+     * Gets an Ingredient by name from the wrapped service, without blocking.
+     * @param name The name of the Ingredient.
+     * @return The future of the Ingredient found, completed with null if there is none,
+     * or failed with an IllegalArgumentException if the name is null or empty.
+     */
+    @Override
+    public CompletableFuture<Ingredient> getIngredientByNameAsync(String name) {
+        return delegate.getIngredientByNameAsync(name);
+    }
+
+    /**
+     * Gets many Ingredients by name from the wrapped service, without blocking.
+     * @param names The Ingredient names.
+     * @return The future of the Ingredients found, by name, failed with an
+     * IllegalArgumentException if a name is null or empty. Names that do not exist are left out.
+     */
+    @Override
+    public CompletableFuture<Map<String, Ingredient>> getIngredientsByNamesAsync(Collection<String> names) {
+        return delegate.getIngredientsByNamesAsync(names);
+    }
+
+    /**
+     * Validates the Ingredient by name with the wrapped service.
+     * @param ingredient The Ingredient name.
+     * @return True if the Ingredient exists.
+     */
+    @Override
+    public boolean validateIngredientName(String ingredient) {
+        return delegate.validateIngredientName(ingredient);
+    }
+
+    /**
+     * Finds the catalog name of an Ingredient, ignoring case, with the wrapped service.
+     * @param name The Ingredient name, as typed.
+     * @return The Ingredient name as written in the catalog, or null if it does not exist.
+     */
+    @Override
+    public String findIngredientName(String name) {
+        return delegate.findIngredientName(name);
+    }
+
+    /**
+     * Suggests the Ingredient names starting with a prefix, with the wrapped service.
+     * @param prefix The name prefix.
+     * @param limit The maximum number of names returned.
+     * @return The matching Ingredient names.
+     */
+    @Override
+    public List<String> suggestIngredientNames(String prefix, int limit) {
+        return delegate.suggestIngredientNames(prefix, limit);
+    }
+
+    /**
+     * Registers a listener notified every time a catalog is fetched from the API: the
+     * Elixirs by this service, the Ingredients by the wrapped one.
+     * @param listener The listener.
+     */
+    @Override
+    public void addCatalogChangeListener(ICatalogChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener must not be null");
+        }
+
+        catalogChangeListeners.add(listener);
+        delegate.addCatalogChangeListener(listener);
+    }
+
+    /**
+     * Loads all the Elixirs from the elixir store, or from the API as fallback, without blocking.
+     * @return The future of the list of Elixirs.
+     */
+    private CompletableFuture<List<Elixir>> loadElixirsAsync() {
+        return CompletableFuture.supplyAsync(this::getStoredElixirs, asyncExecutor).thenCompose(elixirs -> {
+            if (elixirs != null) {
+                return CompletableFuture.completedFuture(elixirs);
+            }
+
+            return singleFlight.executeAsync(ELIXIRS_FETCH_KEY, this::fetchElixirsFromApiAsync);
+        });
+    }
+
+    /**
+     * Gets all the Elixirs of the elixir store.
+     * @return The unmodifiable list of Elixirs or null if the catalog is not stored.
+     */
+    private List<Elixir> getStoredElixirs() {
+        if (!elixirStore.isLoaded()) {
+            return null;
+        }
+
+        System.out.println("DEBUG: Elixirs loaded from the elixir store");
+        return Collections.unmodifiableList(elixirStore.getElixirs());
+    }
+
+    /**
+     * Loads the Elixir catalog from the API into the elixir store, if it is not stored,
+     * joining the fetch already in flight if there is one.
+     */
+    private void loadElixirStore() {
+        if (!elixirStore.isLoaded()) {
+            Futures.join(singleFlight.executeAsync(ELIXIRS_FETCH_KEY, this::fetchElixirsFromApiAsync));
+        }
+    }
+
+    /**
+     * Gets the Elixirs from the API without blocking, and keeps them in the elixir store.
+     * @return The future of the list of Elixirs.
+     */
+    private CompletableFuture<List<Elixir>> fetchElixirsFromApiAsync() {
+        return delegate.requestElixirsAsync().thenApplyAsync(elixirs -> {
+            if (elixirs == null) {
+                return null;
+            }
+
+            elixirStore.store(elixirs);
+            notifyElixirsFetched(elixirs);
+            return elixirs;
+        }, asyncExecutor);
+    }
+
+    /**
+     * Notifies the listeners that the Elixir catalog was fetched.
+     * @param elixirs The Elixirs fetched.
+     */
+    private void notifyElixirsFetched(List<Elixir> elixirs) {
+        for (ICatalogChangeListener listener : catalogChangeListeners) {
+            try {
+                listener.onElixirsFetched(elixirs);
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Catalog change listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
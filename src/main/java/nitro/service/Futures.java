@@ -0,0 +1,58 @@
+package nitro.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Defines the helpers of the asynchronous lookups shared by the data services.
+ */
+final class Futures {
+
+    /**
+     * Not instantiable.
+     */
+    private Futures() {
+    }
+
+    /**
+     * Waits for an asynchronous lookup, for the blocking methods.
+     * @param future The future of the lookup.
+     * @return The result of the lookup.
+     * @throws RuntimeException the failure of the lookup, unwrapped.
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            if (cause instanceof Error error) {
+                throw error;
+            }
+
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Gets the cause of a failure wrapped by a future.
+     * @param error The failure.
+     * @return The cause.
+     */
+    static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Wraps a failure to fail a dependent future with it.
+     * @param error The failure.
+     * @return The failure as a CompletionException.
+     */
+    static CompletionException asCompletionException(Throwable error) {
+        return error instanceof CompletionException completionException ? completionException : new CompletionException(error);
+    }
+}
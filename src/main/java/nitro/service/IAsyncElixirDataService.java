@@ -0,0 +1,64 @@
+package nitro.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+
+/**
+ * Defines the asynchronous ElixirDataService interface.
+ * Every lookup returns at once and completes its future when the cache or the API answers.
+ * Invalid arguments do not throw: they fail the future with an IllegalArgumentException.
+ * The blocking lookups it extends wait for the asynchronous ones.
+ */
+public interface IAsyncElixirDataService extends IElixirDataService {
+
+    /**
+     * Get all the Elixirs.
+     * @return The future of the list of Elixirs.
+     */
+    CompletableFuture<List<Elixir>> getElixirsAsync();
+
+    /**
+     * Get the Elixirs that require the specific Ingredient.
+     * @param ingredientName The Ingredient name.
+     * @return The future of the list of Elixirs that require that Ingredient.
+     */
+    CompletableFuture<List<Elixir>> getElixirsByIngredientNameAsync(String ingredientName);
+
+    /**
+     * Get the Elixirs that require each one of the Ingredients.
+     * @param ingredientNames The Ingredient names.
+     * @return The future of the list of Elixirs of each Ingredient name.
+     */
+    CompletableFuture<Map<String, List<Elixir>>> getElixirsByIngredientNamesAsync(Collection<String> ingredientNames);
+
+    /**
+     * Get the distinct Elixirs that require at least one of the Ingredients.
+     * @param ingredientNames The Ingredient names.
+     * @return The future of the list of Elixirs.
+     */
+    CompletableFuture<List<Elixir>> getElixirsWithAnyIngredientAsync(Collection<String> ingredientNames);
+
+    /**
+     * Get all the Ingredients.
+     * @return The future of the list of the existing Ingredients.
+     */
+    CompletableFuture<List<Ingredient>> getIngredientsAsync();
+
+    /**
+     * Get the Ingredient by name.
+     * @param name The Ingredient name.
+     * @return The future of the Ingredient found, completed with null if there is none.
+     */
+    CompletableFuture<Ingredient> getIngredientByNameAsync(String name);
+
+    /**
+     * Get many Ingredients by name.
+     * @param names The Ingredient names.
+     * @return The future of the Ingredients found, by name. Names that do not exist are left out.
+     */
+    CompletableFuture<Map<String, Ingredient>> getIngredientsByNamesAsync(Collection<String> names);
+}
@@ -0,0 +1,25 @@
+package nitro.service;
+
+import java.util.List;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+
+/**
+ * Defines a listener of the catalogs fetched from the API.
+ */
+@FunctionalInterface
+public interface ICatalogChangeListener {
+
+    /**
+     * Called every time the Elixir catalog is fetched from the API.
+     * @param elixirs The Elixirs fetched.
+     */
+    void onElixirsFetched(List<Elixir> elixirs);
+
+    /**
+     * Called every time the Ingredient catalog is fetched from the API.
+     * @param ingredients The Ingredients fetched.
+     */
+    default void onIngredientsFetched(List<Ingredient> ingredients) {
+    }
+}
@@ -1,7 +1,10 @@
 package nitro.service;
 
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import nitro.data.Elixir;
+import nitro.data.ElixirMatch;
 
 public interface IElixirCraftService {
 
@@ -11,4 +14,31 @@ public interface IElixirCraftService {
      * @return The Set of Elixirs.
      */
     Set<Elixir> findCraftableIngredients(Set<String> ingredients);
+
+    /**
+     * Streams the craftable Elixirs by a set of Ingredients.
+     * Each Elixir is emitted as soon as it is confirmed, without collecting the full result first.
+     * @param ingredients The set of Ingredients.
+     * @return The lazy Stream of Elixirs.
+     */
+    Stream<Elixir> streamCraftableElixirs(Set<String> ingredients);
+
+    /**
+     * Gets all the craftable Elixirs for each one of many inventories.
+     * @param inventories The list of Ingredient sets.
+     * @return The Set of Elixirs of each inventory, in the same order.
+     */
+    List<Set<Elixir>> findCraftable(List<Set<String>> inventories);
+
+    /**
+     * Gets the Elixirs that share Ingredients with a set of Ingredients but still miss a few.
+     * Only Elixirs needing at least one of the Ingredients are considered, so an Elixir whose
+     * whole recipe is missing is never reported, however small the recipe is.
+     * Names are compared ignoring case, and each distinct recipe Ingredient counts once.
+     * @param ingredients The set of Ingredients.
+     * @param maxMissing The maximum number of missing Ingredients.
+     * @param limit The maximum number of Elixirs returned.
+     * @return The matches, ranked by the number of missing Ingredients.
+     */
+    List<ElixirMatch> findNearlyCraftable(Set<String> ingredients, int maxMissing, int limit);
 }
@@ -1,6 +1,8 @@
 package nitro.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import nitro.data.Elixir;
 import nitro.data.Ingredient;
 
@@ -22,6 +24,20 @@ public interface IElixirDataService {
      */
     List<Elixir> getElixirsByIngredientName(String ingredientName);
 
+    /**
+     * Get all the elixirs that require each one of many Ingredients.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs of each Ingredient name.
+     */
+    Map<String, List<Elixir>> getElixirsByIngredientNames(Collection<String> ingredientNames);
+
+    /**
+     * Gets the distinct Elixirs that require at least one of the Ingredients.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs.
+     */
+    List<Elixir> getElixirsWithAnyIngredient(Collection<String> ingredientNames);
+
     /**
      * Get all the Ingredients.
      * @return The list of Ingredients.
@@ -35,10 +51,38 @@ public interface IElixirDataService {
      */
     Ingredient getIngredientByName(String name);
 
+    /**
+     * Search for many Ingredients by name.
+     * @param names The names of the Ingredients.
+     * @return The found Ingredients, by name.
+     */
+    Map<String, Ingredient> getIngredientsByNames(Collection<String> names);
+
     /**
      * Validates if the Ingredient exists.
      * @param ingredient The Ingredient name.
      * @return A boolean identifying id it exists or not.
      */
     boolean validateIngredientName(String ingredient);
+
+    /**
+     * Finds the catalog name of an Ingredient, ignoring case.
+     * @param name The Ingredient name, as typed.
+     * @return The Ingredient name as written in the catalog, or null if it does not exist.
+     */
+    String findIngredientName(String name);
+
+    /**
+     * Suggests the Ingredient names starting with a prefix.
+     * @param prefix The name prefix.
+     * @param limit The maximum number of names returned.
+     * @return The matching Ingredient names.
+     */
+    List<String> suggestIngredientNames(String prefix, int limit);
+
+    /**
+     * Registers a listener notified every time a catalog is fetched from the API.
+     * @param listener The listener.
+     */
+    void addCatalogChangeListener(ICatalogChangeListener listener);
 }
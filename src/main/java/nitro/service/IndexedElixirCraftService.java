@@ -0,0 +1,188 @@
+package nitro.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import nitro.data.Elixir;
+import nitro.data.ElixirMatch;
+import nitro.index.ElixirCatalogIndex;
+
+/**
+ * Defines an ElixirCraftService that answers craft queries from an in-memory
+ * {@link ElixirCatalogIndex}.
+ * The index is built once from the full Elixir catalog, so queries never
+ * touch the cache or the API. It is rebuilt on the next query after the
+ * catalog is reloaded by this node, or once it is older than its TTL so
+ * catalog changes fetched by other nodes are picked up too.
+ */
+public class IndexedElixirCraftService implements IElixirCraftService {
+    private final IElixirDataService elixirDataService;
+    private final long indexTtlNanos;
+    // Not a monitor, so a virtual thread waiting for the catalog fetch does not pin its carrier.
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private volatile IndexEntry catalogIndex;
+
+    /**
+     * Constructs the IndexedElixirCraftService.
+     * @param service The ElixirDataService used to load the Elixir catalog.
+     */
+    public IndexedElixirCraftService(IElixirDataService service) {
+        this(service, 0);
+    }
+
+    /**
+     * Constructs the IndexedElixirCraftService.
+     * @param service The ElixirDataService used to load the Elixir catalog.
+     * @param indexTtlSeconds The TTL of the index, 0 to keep it until the Elixir catalog is
+     *                        reloaded. Set it to the TTL of the cached catalog it is built from.
+     */
+    public IndexedElixirCraftService(IElixirDataService service, int indexTtlSeconds) {
+        if (service == null) {
+            throw new IllegalArgumentException("IElixirDataService must not be null");
+        }
+
+        this.elixirDataService = service;
+        this.indexTtlNanos = Math.max(0, indexTtlSeconds) * 1_000_000_000L;
+        service.addCatalogChangeListener(elixirs -> catalogIndex = null);
+    }
+
+    /**
+     * Finds all the Elixirs that are craftable with a set of Ingredients.
+     * Converts the Ingredients into an inventory bitset and scans only the
+     * Elixirs that need one of them.
+     * @param ingredients The set of Ingredients.
+     * @return The set of Elixirs that can be crafted.
+     */
+    @Override
+    public Set<Elixir> findCraftableIngredients(Set<String> ingredients) {
+        return findCraftableIngredients(getCatalogIndex(), ingredients);
+    }
+
+    /**
+     * Streams the Elixirs that are craftable with a set of Ingredients.
+     * Each Elixir is emitted as soon as its recipe is checked against the inventory.
+     * @param ingredients The set of Ingredients.
+     * @return The lazy Stream of Elixirs.
+     */
+    @Override
+    public Stream<Elixir> streamCraftableElixirs(Set<String> ingredients) {
+        ElixirCatalogIndex index = getCatalogIndex();
+
+        return index.streamCraftable(index.toInventory(ingredients)).mapToObj(index::getElixir);
+    }
+
+    /**
+     * Finds the craftable Elixirs of each inventory.
+     * The inventories are split across the common fork/join pool and all of them
+     * are evaluated against the same read-only index snapshot.
+     * @param inventories The list of Ingredient sets.
+     * @return The set of craftable Elixirs of each inventory, in the same order.
+     */
+    @Override
+    public List<Set<Elixir>> findCraftable(List<Set<String>> inventories) {
+        ElixirCatalogIndex index = getCatalogIndex();
+
+        return inventories.parallelStream()
+                .map(inventory -> findCraftableIngredients(index, inventory))
+                .toList();
+    }
+
+    /**
+     * Finds the Elixirs that miss at most a number of Ingredients.
+     * Ranks the Elixirs with the per-Elixir hit counters of the index.
+     * @param ingredients The set of Ingredients.
+     * @param maxMissing The maximum number of missing Ingredients.
+     * @param limit The maximum number of Elixirs returned.
+     * @return The matches, ranked by the number of missing Ingredients.
+     */
+    @Override
+    public List<ElixirMatch> findNearlyCraftable(Set<String> ingredients, int maxMissing, int limit) {
+        ElixirCatalogIndex index = getCatalogIndex();
+        long[] inventory = index.toInventory(ingredients);
+        List<ElixirMatch> matches = new ArrayList<>();
+
+        for (int position : index.findNearMisses(inventory, maxMissing, limit)) {
+            List<String> missingIngredients = new ArrayList<>();
+
+            for (int id : index.getRecipe(position)) {
+                if (!ElixirCatalogIndex.contains(inventory, id)) missingIngredients.add(index.getIngredientName(id));
+            }
+
+            matches.add(new ElixirMatch(index.getElixir(position), missingIngredients));
+        }
+
+        return matches;
+    }
+
+    /**
+     * Finds all the Elixirs that are craftable with a set of Ingredients in an index.
+     * @param index The catalog index.
+     * @param ingredients The set of Ingredients.
+     * @return The set of Elixirs that can be crafted.
+     */
+    private static Set<Elixir> findCraftableIngredients(ElixirCatalogIndex index, Set<String> ingredients) {
+        Set<Elixir> craftableElixirs = new HashSet<>();
+
+        index.forEachCraftable(index.toInventory(ingredients), position -> craftableElixirs.add(index.getElixir(position)));
+
+        return craftableElixirs;
+    }
+
+    /**
+     * Opens an incremental crafting session over the current catalog index.
+     * @return The new session.
+     */
+    public CraftSession openSession() {
+        return new CraftSession(getCatalogIndex());
+    }
+
+    /**
+     * Rebuilds the index from the current Elixir catalog.
+     */
+    public void refresh() {
+        catalogIndex = new IndexEntry(ElixirCatalogIndex.build(elixirDataService.getElixirs()), System.nanoTime());
+    }
+
+    /**
+     * Gets the catalog index, building it on first use and once it is expired.
+     * @return The catalog index.
+     */
+    public ElixirCatalogIndex getCatalogIndex() {
+        IndexEntry entry = catalogIndex;
+
+        if (entry == null || isExpired(entry)) {
+            buildLock.lock();
+            try {
+                if (catalogIndex == null || isExpired(catalogIndex)) {
+                    refresh();
+                }
+                entry = catalogIndex;
+            } finally {
+                buildLock.unlock();
+            }
+        }
+
+        return entry.index();
+    }
+
+    /**
+     * See if an index is older than its TTL.
+     * @param entry The index and its build time.
+     * @return True if the index must be rebuilt.
+     */
+    private boolean isExpired(IndexEntry entry) {
+        return indexTtlNanos > 0 && System.nanoTime() - entry.builtAtNanos() >= indexTtlNanos;
+    }
+
+    /**
+     * Defines a catalog index and the time it was built at.
+     * @param index The catalog index.
+     * @param builtAtNanos The {@link System#nanoTime()} of the build.
+     */
+    private record IndexEntry(ElixirCatalogIndex index, long builtAtNanos) {
+    }
+}
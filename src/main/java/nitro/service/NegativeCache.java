@@ -0,0 +1,129 @@
+package nitro.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import nitro.cache.IAsyncCacheService;
+import nitro.cache.LruCache;
+import nitro.index.ElixirCatalogIndex;
+
+/**
+ * Defines the negative cache of the Ingredient names the API did not find, so repeated
+ * misspelled names do not reach the API.
+ * The names are remembered, ignoring case, for a short TTL in process and, with a marker
+ * key, in the shared cache, so the other nodes skip them too.
+ */
+public class NegativeCache {
+    private static final String CACHE_KEY_MISSING_INGREDIENT_PREFIX = "ingredient:missing:";
+    private static final String MISSING_MARKER = "1";
+
+    private final IAsyncCacheService sharedCache;
+    private final LruCache<String, Boolean> missingNames;
+    private final int ttlSeconds;
+
+    /**
+     * Constructs the NegativeCache.
+     * @param sharedCache The cache shared with the other nodes, null to remember the names in process only.
+     * @param ttlSeconds The TTL of the remembered names.
+     * @param maxEntries The maximum number of names kept in process.
+     */
+    public NegativeCache(IAsyncCacheService sharedCache, int ttlSeconds, int maxEntries) {
+        if (ttlSeconds <= 0) {
+            throw new IllegalArgumentException("Negative cache TTL should be a positive number");
+        }
+
+        this.sharedCache = sharedCache;
+        this.missingNames = new LruCache<>(maxEntries, ttlSeconds * 1000L);
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    /**
+     * See if an Ingredient name was recently not found, in process only.
+     * @param name The Ingredient name.
+     * @return True if the name is known to be missing.
+     */
+    public boolean isKnownMissing(String name) {
+        return missingNames.get(ElixirCatalogIndex.normalize(name)) != null;
+    }
+
+    /**
+     * Filters out the Ingredient names recently not found without blocking, checking the
+     * in-process names and then the shared markers, with a single bulk read. The names
+     * marked by other nodes are kept in process too.
+     * @param names The Ingredient names.
+     * @return The future of the names that are not known to be missing.
+     */
+    public CompletableFuture<List<String>> filterKnownMissingAsync(List<String> names) {
+        List<String> unknown = names.stream().filter(name -> !isKnownMissing(name)).toList();
+
+        if (sharedCache == null || unknown.isEmpty()) {
+            return CompletableFuture.completedFuture(unknown);
+        }
+
+        return sharedCache.getAll(unknown.stream().map(NegativeCache::markerKey).toList())
+                .thenApply(markers -> removeMarked(unknown, markers))
+                .exceptionally(error -> {
+                    System.err.println("Warning: Failed to read the negative cache: " + Futures.unwrap(error).getMessage());
+                    return unknown;
+                });
+    }
+
+    /**
+     * Remembers an Ingredient name not found by the API, in process and, without waiting
+     * for it, in the shared cache.
+     * @param name The Ingredient name.
+     */
+    public void remember(String name) {
+        String normalized = ElixirCatalogIndex.normalize(name);
+        missingNames.put(normalized, Boolean.TRUE);
+
+        if (sharedCache != null) {
+            sharedCache.set(CACHE_KEY_MISSING_INGREDIENT_PREFIX + normalized, MISSING_MARKER, ttlSeconds).exceptionally(error -> {
+                System.err.println("Warning: Failed to set the cache of " + normalized + ": " + Futures.unwrap(error).getMessage());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Forgets the names remembered in process, once the Ingredient catalog is reloaded.
+     * The shared markers expire on their own.
+     */
+    public void clear() {
+        missingNames.clear();
+    }
+
+    /**
+     * Filters out the Ingredient names with a shared marker, and keeps them in process.
+     * @param unknown The Ingredient names not known to be missing in process.
+     * @param markers The shared markers found, by key.
+     * @return The names that are not known to be missing.
+     */
+    private List<String> removeMarked(List<String> unknown, Map<String, String> markers) {
+        if (markers.isEmpty()) {
+            return unknown;
+        }
+
+        List<String> remaining = new ArrayList<>();
+
+        for (String name : unknown) {
+            if (markers.containsKey(markerKey(name))) {
+                missingNames.put(ElixirCatalogIndex.normalize(name), Boolean.TRUE);
+            } else {
+                remaining.add(name);
+            }
+        }
+
+        return remaining;
+    }
+
+    /**
+     * Gets the shared marker key of an Ingredient name.
+     * @param name The Ingredient name.
+     * @return The marker key.
+     */
+    private static String markerKey(String name) {
+        return CACHE_KEY_MISSING_INGREDIENT_PREFIX + ElixirCatalogIndex.normalize(name);
+    }
+}
@@ -0,0 +1,146 @@
+package nitro.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Defines a helper that runs independent lookups, blocking ones on virtual threads or
+ * asynchronous ones, with a bound on how many of them are in flight at the same time.
+ */
+public class ParallelLookup {
+    private final int maxConcurrency;
+
+    /**
+     * Constructs the ParallelLookup.
+     * @param maxConcurrency The maximum number of concurrent lookups. 1 runs them sequentially.
+     */
+    public ParallelLookup(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency should be a positive number");
+        }
+
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Applies a lookup to every input and waits for all of them.
+     * @param inputs The lookup inputs.
+     * @param lookup The blocking lookup.
+     * @return The lookup results, in the same order as the inputs.
+     * @throws RuntimeException the first lookup failure, in input order.
+     */
+    public <T, R> List<R> map(List<T> inputs, Function<T, R> lookup) {
+        List<R> results = new ArrayList<>(inputs.size());
+
+        if (maxConcurrency == 1 || inputs.size() <= 1) {
+            for (T input : inputs) {
+                results.add(lookup.apply(input));
+            }
+            return results;
+        }
+
+        Semaphore permits = new Semaphore(maxConcurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<R>> futures = new ArrayList<>(inputs.size());
+
+            for (T input : inputs) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return lookup.apply(input);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for lookups", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Lookup failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        return results;
+    }
+
+    /**
+     * Applies an asynchronous lookup to every input without blocking. Each lookup that
+     * completes starts the next one, so no more than the maximum are in flight.
+     * @param inputs The lookup inputs.
+     * @param lookup The asynchronous lookup.
+     * @return The future of the lookup results, in the same order as the inputs, failed
+     * with the first lookup failure, in input order.
+     */
+    public <T, R> CompletableFuture<List<R>> mapAsync(List<T> inputs, Function<T, CompletableFuture<R>> lookup) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(inputs.size());
+
+        for (int i = 0; i < inputs.size(); i++) {
+            futures.add(new CompletableFuture<>());
+        }
+
+        AtomicInteger next = new AtomicInteger();
+
+        for (int i = 0; i < Math.min(maxConcurrency, inputs.size()); i++) {
+            startNext(inputs, lookup, futures, next);
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((ignored, error) -> {
+            List<R> results = new ArrayList<>(inputs.size());
+
+            for (CompletableFuture<R> future : futures) {
+                results.add(future.join());
+            }
+
+            return results;
+        });
+    }
+
+    /**
+     * Starts the lookup of the next input not started yet, and the one after it once it completes.
+     * @param inputs The lookup inputs.
+     * @param lookup The asynchronous lookup.
+     * @param futures The futures of the results, completed in input order.
+     * @param next The index of the next input to look up.
+     */
+    private <T, R> void startNext(List<T> inputs, Function<T, CompletableFuture<R>> lookup, List<CompletableFuture<R>> futures, AtomicInteger next) {
+        int index = next.getAndIncrement();
+
+        if (index >= inputs.size()) {
+            return;
+        }
+
+        CompletableFuture<R> result;
+
+        try {
+            result = lookup.apply(inputs.get(index));
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                futures.get(index).completeExceptionally(error);
+            } else {
+                futures.get(index).complete(value);
+            }
+
+            startNext(inputs, lookup, futures, next);
+        });
+    }
+}
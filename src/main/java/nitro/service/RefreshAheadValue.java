@@ -0,0 +1,148 @@
+package nitro.service;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Defines an in-process value that is refreshed in the background once it gets old,
+ * while readers keep getting the previous value.
+ * Only the first read blocks, to load the value. After that, reads never wait for a
+ * refresh: a due refresh is started on the executor, at most one at a time, and a
+ * failed refresh keeps the stale value until the next attempt.
+ * @param <T> The value type.
+ */
+public class RefreshAheadValue<T> {
+    private final String name;
+    private final Supplier<T> loader;
+    private final Supplier<T> refresher;
+    private final long refreshAfterNanos;
+    private final Executor executor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    // Not a monitor, so a virtual thread waiting for the first load does not pin its carrier.
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile Snapshot<T> snapshot;
+
+    /**
+     * Constructs the RefreshAheadValue.
+     * @param name The name of the value, for logging.
+     * @param loader The blocking call that loads the value on first use, from the cache or the API.
+     * @param refresher The blocking call that reloads the value from the API.
+     * @param refreshAfterMillis The age from which the value is refreshed.
+     * @param executor The executor running the refreshes.
+     */
+    public RefreshAheadValue(String name, Supplier<T> loader, Supplier<T> refresher, long refreshAfterMillis, Executor executor) {
+        if (loader == null || refresher == null) {
+            throw new IllegalArgumentException("Loader and refresher must not be null");
+        }
+
+        if (refreshAfterMillis <= 0) {
+            throw new IllegalArgumentException("Refresh age should be a positive number");
+        }
+
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+
+        this.name = name;
+        this.loader = loader;
+        this.refresher = refresher;
+        this.refreshAfterNanos = refreshAfterMillis * 1_000_000L;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the value, loading it on first use and starting a refresh if it is due.
+     * @return The current value, possibly stale.
+     */
+    public T get() {
+        Snapshot<T> current = snapshot;
+
+        if (current == null) {
+            loadLock.lock();
+            try {
+                if (snapshot == null) {
+                    T value = loader.get();
+                    if (value == null) return null;
+
+                    snapshot = new Snapshot<>(value, System.nanoTime());
+                }
+                current = snapshot;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+
+        if (isDue(current)) {
+            refreshAsync();
+        }
+
+        return current.value;
+    }
+
+    /**
+     * Starts a refresh if the value is loaded and due.
+     * Called by the scheduler, so values are refreshed even if nobody reads them.
+     */
+    public void refreshIfDue() {
+        Snapshot<T> current = snapshot;
+
+        if (current != null && isDue(current)) {
+            refreshAsync();
+        }
+    }
+
+    /**
+     * Replaces the value, resetting its age.
+     * @param value The new value. Null values are ignored.
+     */
+    public void set(T value) {
+        if (value != null) {
+            snapshot = new Snapshot<>(value, System.nanoTime());
+        }
+    }
+
+    /**
+     * See if a snapshot is old enough to be refreshed.
+     * @param current The snapshot.
+     * @return True if a refresh is due.
+     */
+    private boolean isDue(Snapshot<T> current) {
+        return System.nanoTime() - current.loadedAt >= refreshAfterNanos;
+    }
+
+    /**
+     * Starts a background refresh, unless one is already running.
+     */
+    private void refreshAsync() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    set(refresher.get());
+                    System.out.println("DEBUG: Refreshed " + name + " in the background");
+                } catch (RuntimeException e) {
+                    System.err.println("Warning: Failed to refresh " + name + ", serving the stale value: " + e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            System.err.println("Warning: Failed to schedule the refresh of " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Defines a loaded value with its load time.
+     * @param value The value.
+     * @param loadedAt The System.nanoTime() at which it was loaded.
+     */
+    private record Snapshot<T>(T value, long loadedAt) {
+    }
+}
@@ -0,0 +1,58 @@
+package nitro.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Defines a helper that coalesces concurrent calls for the same key, so only the
+ * first caller runs the call and the others wait for it and share its result.
+ * A key is only in flight while its call runs: the next call after it completes
+ * runs again. The calls are asynchronous; a blocking caller joins the returned future.
+ */
+public class SingleFlight {
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Starts an asynchronous call, or joins the call already running for the same key.
+     * Calls sharing a key must return the same type.
+     * @param key The key of the call.
+     * @param call The asynchronous call.
+     * @return The future of the result of the call, failed with the failure of the call.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> call) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+
+        if (running != null) {
+            System.out.println("DEBUG: Joined in-flight call for key: " + key);
+            return running.thenApply(result -> (T) result);
+        }
+
+        CompletableFuture<T> result;
+
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        result.whenComplete((value, error) -> {
+            inFlight.remove(key, flight);
+
+            if (error != null) {
+                flight.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else {
+                flight.complete(value);
+            }
+        });
+
+        return flight.thenApply(value -> (T) value);
+    }
+}
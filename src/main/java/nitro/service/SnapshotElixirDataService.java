@@ -0,0 +1,680 @@
+package nitro.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+import nitro.index.CatalogSnapshot;
+import nitro.index.CatalogSnapshotFile;
+import nitro.index.IngredientNameIndex;
+import nitro.mapper.IBinaryMapper;
+
+/**
+ * Defines an ElixirDataService that answers the lookups of another one from local
+ * snapshots of the two full catalogs.
+ * In catalog snapshot mode, the per-Ingredient and per-name queries are answered
+ * from indexes over the two full catalogs instead of their own keys and API calls.
+ * With a catalog snapshot file, the catalogs fetched from the API are saved locally
+ * in the background and served on the next start, without Redis or the API, until
+ * they get too old; the per-Ingredient and per-name queries are answered from its
+ * indexes meanwhile too. An older file is still served when the API fails.
+ * The wrapped service answers every other lookup. Its catalog fetches invalidate the
+ * catalog snapshot and are saved to the file.
+ */
+public class SnapshotElixirDataService implements IAsyncElixirDataService, AutoCloseable {
+    private final IAsyncElixirDataService delegate;
+    private final boolean catalogSnapshotEnabled;
+    private final long catalogSnapshotTtlMillis;
+    private final CatalogSnapshotFile catalogSnapshotFile;
+    private final long catalogSnapshotMaxAgeMillis;
+    private final ExecutorService snapshotExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService catalogSnapshotFileWriter;
+    private final AtomicBoolean catalogSnapshotFileSavePending = new AtomicBoolean();
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    private volatile CatalogSnapshotEntry catalogSnapshot;
+    private volatile CatalogSnapshotFile.Loaded persistedCatalog;
+    // Locks, not monitors, so the virtual threads waiting for a build do not pin their carriers.
+    private final ReentrantLock catalogSnapshotLock = new ReentrantLock();
+    private final ReentrantLock catalogSnapshotFileLock = new ReentrantLock();
+
+    // Guarded by the catalogSnapshotFileLock.
+    private List<Elixir> latestElixirs;
+    private List<Ingredient> latestIngredients;
+    private long elixirsFetchedAt;
+    private long ingredientsFetchedAt;
+
+    /**
+     * Constructs the SnapshotElixirDataService, loading the catalog snapshot file if there is one.
+     * @param delegate The wrapped data service.
+     * @param binaryMapper The binaryMapper to encode the catalog snapshot file.
+     * @param options The snapshot behaviours of the service.
+     */
+    public SnapshotElixirDataService(IAsyncElixirDataService delegate, IBinaryMapper binaryMapper, SnapshotElixirDataServiceOptions options) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("IAsyncElixirDataService must not be null");
+        }
+
+        if (options == null) {
+            throw new IllegalArgumentException("SnapshotElixirDataServiceOptions must not be null");
+        }
+
+        this.delegate = delegate;
+        this.catalogSnapshotEnabled = options.isCatalogSnapshot();
+        this.catalogSnapshotTtlMillis = options.getCatalogSnapshotTtlSeconds() * 1000L;
+        this.catalogSnapshotMaxAgeMillis = options.getCatalogSnapshotMaxAgeSeconds() * 1000L;
+
+        if (options.getCatalogSnapshotFile() != null) {
+            if (binaryMapper == null) {
+                throw new IllegalArgumentException("IBinaryMapper must not be null");
+            }
+
+            this.catalogSnapshotFile = new CatalogSnapshotFile(options.getCatalogSnapshotFile(), binaryMapper);
+            this.catalogSnapshotFileWriter = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("catalog-snapshot-file").factory());
+            loadCatalogSnapshotFile();
+        } else {
+            this.catalogSnapshotFile = null;
+            this.catalogSnapshotFileWriter = null;
+        }
+
+        delegate.addCatalogChangeListener(new CatalogFetchListener(catalogVersion, this::saveCatalogSnapshotFile));
+    }
+
+    /**
+     * Stops the snapshot builds, waits for the catalog snapshot file and closes the wrapped service.
+     */
+    @Override
+    public void close() {
+        snapshotExecutor.shutdown();
+        ElixirDataService.awaitTermination(snapshotExecutor, "Catalog snapshot builds");
+
+        if (catalogSnapshotFileWriter != null) {
+            catalogSnapshotFileWriter.shutdown();
+            ElixirDataService.awaitTermination(catalogSnapshotFileWriter, "Catalog snapshot file save");
+        }
+
+        if (delegate instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("Warning: Failed to close the wrapped data service: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets all the Elixirs from the catalog snapshot file while it is fresh, or from the
+     * wrapped service.
+     * @return The list of Elixirs.
+     */
+    @Override
+    public List<Elixir> getElixirs() {
+        return Futures.join(getElixirsAsync());
+    }
+
+    /**
+     * Gets the Elixirs that require the specific Ingredient.
+     * @param ingredientName The Ingredient name.
+     * @return The list of Elixirs that require that Ingredient.
+     */
+    @Override
+    public List<Elixir> getElixirsByIngredientName(String ingredientName) {
+        return Futures.join(getElixirsByIngredientNameAsync(ingredientName));
+    }
+
+    /**
+     * Gets the Elixirs that require each one of the Ingredients.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs of each Ingredient name.
+     */
+    @Override
+    public Map<String, List<Elixir>> getElixirsByIngredientNames(Collection<String> ingredientNames) {
+        return Futures.join(getElixirsByIngredientNamesAsync(ingredientNames));
+    }
+
+    /**
+     * Gets the distinct Elixirs that require at least one of the Ingredients.
+     * @param ingredientNames The Ingredient names.
+     * @return The list of Elixirs.
+     */
+    @Override
+    public List<Elixir> getElixirsWithAnyIngredient(Collection<String> ingredientNames) {
+        return Futures.join(getElixirsWithAnyIngredientAsync(ingredientNames));
+    }
+
+    /**
+     * Gets all the Ingredients from the catalog snapshot file while it is fresh, or from
+     * the wrapped service.
+     * @return The list of the existing Ingredients.
+     */
+    @Override
+    public List<Ingredient> getIngredients() {
+        return Futures.join(getIngredientsAsync());
+    }
+
+    /**
+     * Gets an Ingredient by name.
+     * @param name The name of the Ingredient.
+     * @return The Ingredient found.
+     */
+    @Override
+    public Ingredient getIngredientByName(String name) {
+        return Futures.join(getIngredientByNameAsync(name));
+    }
+
+    /**
+     * Gets many Ingredients by name.
+     * @param names The Ingredient names.
+     * @return The Ingredients found, by name. Names that do not exist are left out.
+     */
+    @Override
+    public Map<String, Ingredient> getIngredientsByNames(Collection<String> names) {
+        return Futures.join(getIngredientsByNamesAsync(names));
+    }
+
+    /**
+     * Gets all the Elixirs from the catalog snapshot file while it is fresh, or from the
+     * wrapped service, falling back to an older file if it fails.
+     * @return The future of the list of Elixirs.
+     */
+    @Override
+    public CompletableFuture<List<Elixir>> getElixirsAsync() {
+        return loadAsync(delegate::getElixirsAsync, CatalogSnapshot::getElixirs, "elixirs");
+    }
+
+    /**
+     * Gets the Elixirs that require the specific Ingredient, from the local catalogs if
+     * there are some.
+     * @param ingredientName The Ingredient name.
+     * @return The future of the list of Elixirs that require that Ingredient, failed
+     * with an IllegalArgumentException if the name is null or empty.
+     */
+    @Override
+    public CompletableFuture<List<Elixir>> getElixirsByIngredientNameAsync(String ingredientName) {
+        if (ingredientName == null || ingredientName.trim().isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("IngredientName must not be null or empty"));
+        }
+
+        CompletableFuture<CatalogSnapshot> local = getLocalCatalogAsync();
+
+        return local != null
+                ? local.thenApply(snapshot -> snapshot.getElixirsByIngredientName(ingredientName))
+                : delegate.getElixirsByIngredientNameAsync(ingredientName);
+    }
+
+    /**
+     * Gets the Elixirs that require each one of the Ingredients, from the local catalogs
+     * if there are some.
+     * @param ingredientNames The Ingredient names.
+     * @return The future of the list of Elixirs of each Ingredient name, failed with an
+     * IllegalArgumentException if a name is null or empty.
+     */
+    @Override
+    public CompletableFuture<Map<String, List<Elixir>>> getElixirsByIngredientNamesAsync(Collection<String> ingredientNames) {
+        List<String> names;
+
+        try {
+            names = ElixirDataService.distinctNames(ingredientNames);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<CatalogSnapshot> local = getLocalCatalogAsync();
+
+        if (local == null) {
+            return delegate.getElixirsByIngredientNamesAsync(names);
+        }
+
+        return local.thenApply(snapshot -> {
+            Map<String, List<Elixir>> elixirsByIngredient = new LinkedHashMap<>();
+
+            for (String name : names) {
+                elixirsByIngredient.put(name, snapshot.getElixirsByIngredientName(name));
+            }
+
+            return elixirsByIngredient;
+        });
+    }
+
+    /**
+     * Gets the distinct Elixirs that require at least one of the Ingredients, from the
+     * local catalogs if there are some.
+     * @param ingredientNames The Ingredient names.
+     * @return The future of the list of Elixirs, failed with an IllegalArgumentException
+     * if a name is null or empty.
+     */
+    @Override
+    public CompletableFuture<List<Elixir>> getElixirsWithAnyIngredientAsync(Collection<String> ingredientNames) {
+        List<String> names;
+
+        try {
+            names = ElixirDataService.distinctNames(ingredientNames);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<CatalogSnapshot> local = getLocalCatalogAsync();
+
+        if (local == null) {
+            return delegate.getElixirsWithAnyIngredientAsync(names);
+        }
+
+        return local.thenApply(snapshot -> {
+            Set<Elixir> elixirs = new LinkedHashSet<>();
+
+            for (String name : names) {
+                elixirs.addAll(snapshot.getElixirsByIngredientName(name));
+            }
+
+            return new ArrayList<>(elixirs);
+        });
+    }
+
+    /**
+     * Gets all the Ingredients from the catalog snapshot file while it is fresh, or from
+     * the wrapped service, falling back to an older file if it fails.
+     * @return The future of the list of the existing Ingredients.
+     */
+    @Override
+    public CompletableFuture<List<Ingredient>> getIngredientsAsync() {
+        return loadAsync(delegate::getIngredientsAsync, CatalogSnapshot::getIngredients, "ingredients");
+    }
+
+    /**
+     * Gets an Ingredient by name, from the local catalogs if there are some.
+     * @param name The name of the Ingredient.
+     * @return The future of the Ingredient found, completed with null if there is none,
+     * or failed with an IllegalArgumentException if the name is null or empty.
+     */
+    @Override
+    public CompletableFuture<Ingredient> getIngredientByNameAsync(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Ingredient name must not be null or empty"));
+        }
+
+        CompletableFuture<CatalogSnapshot> local = getLocalCatalogAsync();
+
+        return local != null
+                ? local.thenApply(snapshot -> snapshot.getIngredientByName(name))
+                : delegate.getIngredientByNameAsync(name);
+    }
+
+    /**
+     * Gets many Ingredients by name, from the local catalogs if there are some.
+     * @param names The Ingredient names.
+     * @return The future of the Ingredients found, by name, failed with an
+     * IllegalArgumentException if a name is null or empty. Names that do not exist are left out.
+     */
+    @Override
+    public CompletableFuture<Map<String, Ingredient>> getIngredientsByNamesAsync(Collection<String> names) {
+        List<String> distinct;
+
+        try {
+            distinct = ElixirDataService.distinctNames(names);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<CatalogSnapshot> local = getLocalCatalogAsync();
+
+        if (local == null) {
+            return delegate.getIngredientsByNamesAsync(distinct);
+        }
+
+        return local.thenApply(snapshot -> {
+            Map<String, Ingredient> ingredientsByName = new LinkedHashMap<>();
+
+            for (String name : distinct) {
+                Ingredient ingredient = snapshot.getIngredientByName(name);
+                if (ingredient != null) ingredientsByName.put(name, ingredient);
+            }
+
+            return ingredientsByName;
+        });
+    }
+
+    /**
+     * Validates the Ingredient by name.
+     * @param ingredient The Ingredient name.
+     * @return True if the Ingredient exists.
+     */
+    @Override
+    public boolean validateIngredientName(String ingredient) {
+        return findIngredientName(ingredient) != null;
+    }
+
+    /**
+     * Finds the catalog name of an Ingredient, ignoring case, with the name index of the
+     * catalog snapshot file while it is fresh, or with the wrapped service.
+     * @param name The Ingredient name, as typed.
+     * @return The Ingredient name as written in the catalog, or null if it does not exist.
+     */
+    @Override
+    public String findIngredientName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return null;
+        }
+
+        IngredientNameIndex index = getPersistedNameIndex();
+
+        if (index == null) {
+            return delegate.findIngredientName(name);
+        }
+
+        Ingredient ingredientFound = index.find(name);
+        return ingredientFound != null ? ingredientFound.getName() : null;
+    }
+
+    /**
+     * Suggests the Ingredient names starting with a prefix, with the name index of the
+     * catalog snapshot file while it is fresh, or with the wrapped service.
+     * @param prefix The name prefix.
+     * @param limit The maximum number of names returned.
+     * @return The matching Ingredient names.
+     */
+    @Override
+    public List<String> suggestIngredientNames(String prefix, int limit) {
+        IngredientNameIndex index = getPersistedNameIndex();
+
+        return index != null ? index.findByPrefix(prefix, limit) : delegate.suggestIngredientNames(prefix, limit);
+    }
+
+    /**
+     * Registers a listener notified every time the wrapped service fetches a catalog from the API.
+     * @param listener The listener.
+     */
+    @Override
+    public void addCatalogChangeListener(ICatalogChangeListener listener) {
+        delegate.addCatalogChangeListener(listener);
+    }
+
+    /**
+     * Loads a catalog from the snapshot file while it is fresh, or from the wrapped
+     * service, falling back to an older file if it fails.
+     * @param load The load of the wrapped service.
+     * @param fromSnapshot The catalog of a snapshot.
+     * @param description The catalog, for logging.
+     * @return The future of the catalog.
+     */
+    private <T> CompletableFuture<List<T>> loadAsync(
+            Supplier<CompletableFuture<List<T>>> load,
+            Function<CatalogSnapshot, List<T>> fromSnapshot,
+            String description
+    ) {
+        CatalogSnapshot persisted = getPersistedCatalog(false);
+
+        if (persisted != null) {
+            return CompletableFuture.completedFuture(fromSnapshot.apply(persisted));
+        }
+
+        return load.get().exceptionally(error -> {
+            CatalogSnapshot stale = getPersistedCatalog(true);
+            if (stale == null) throw Futures.asCompletionException(error);
+
+            System.err.println("Warning: " + Futures.unwrap(error).getMessage() + ", serving the " + description + " of the catalog snapshot file");
+            return fromSnapshot.apply(stale);
+        });
+    }
+
+    /**
+     * Gets the snapshot of the full catalogs. It is built once from both catalogs and kept
+     * until either catalog is fetched from the API or its TTL expires; concurrent callers
+     * wait for a single build.
+     * @return The catalog snapshot.
+     */
+    private CatalogSnapshot getCatalogSnapshot() {
+        CatalogSnapshotEntry entry = catalogSnapshot;
+
+        if (isCurrent(entry)) {
+            return entry.snapshot();
+        }
+
+        catalogSnapshotLock.lock();
+        try {
+            entry = catalogSnapshot;
+
+            if (isCurrent(entry)) {
+                return entry.snapshot();
+            }
+
+            // Read before the catalogs, so a fetch completing meanwhile invalidates this build.
+            long version = catalogVersion.get();
+            CatalogSnapshot snapshot = getPersistedCatalog(false);
+
+            if (snapshot == null) {
+                snapshot = CatalogSnapshot.build(getElixirs(), getIngredients());
+                System.out.println("DEBUG: Catalog snapshot built");
+            }
+
+            catalogSnapshot = new CatalogSnapshotEntry(snapshot, version, System.currentTimeMillis());
+            return snapshot;
+        } finally {
+            catalogSnapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the catalogs answering the lookups in process, without blocking: the catalog
+     * snapshot in snapshot mode, built on a virtual thread when it is not current, or
+     * else the catalog snapshot file while it is fresh.
+     * @return The future of the catalog snapshot, or null if the lookups go to the wrapped service.
+     */
+    private CompletableFuture<CatalogSnapshot> getLocalCatalogAsync() {
+        if (catalogSnapshotEnabled) {
+            CatalogSnapshotEntry entry = catalogSnapshot;
+
+            return isCurrent(entry)
+                    ? CompletableFuture.completedFuture(entry.snapshot())
+                    : CompletableFuture.supplyAsync(this::getCatalogSnapshot, snapshotExecutor);
+        }
+
+        CatalogSnapshot persisted = getPersistedCatalog(false);
+
+        return persisted != null ? CompletableFuture.completedFuture(persisted) : null;
+    }
+
+    /**
+     * See if a catalog snapshot is still in use: no catalog was fetched since it was built
+     * and its TTL has not expired.
+     * @param entry The catalog snapshot entry.
+     * @return True if the snapshot can be used.
+     */
+    private boolean isCurrent(CatalogSnapshotEntry entry) {
+        return entry != null
+                && entry.catalogVersion() == catalogVersion.get()
+                && System.currentTimeMillis() - entry.builtAtMillis() < catalogSnapshotTtlMillis;
+    }
+
+    /**
+     * Loads the catalog snapshot file, if there is one, and uses its prebuilt indexes.
+     */
+    private void loadCatalogSnapshotFile() {
+        CatalogSnapshotFile.Loaded loaded = catalogSnapshotFile.load();
+
+        if (loaded == null) {
+            return;
+        }
+
+        catalogSnapshotFileLock.lock();
+        try {
+            persistedCatalog = loaded;
+            catalogSnapshot = new CatalogSnapshotEntry(loaded.snapshot(), catalogVersion.get(), System.currentTimeMillis());
+            latestElixirs = loaded.snapshot().getElixirs();
+            latestIngredients = loaded.snapshot().getIngredients();
+            elixirsFetchedAt = loaded.savedAtMillis();
+            ingredientsFetchedAt = loaded.savedAtMillis();
+        } finally {
+            catalogSnapshotFileLock.unlock();
+        }
+    }
+
+    /**
+     * Records the catalogs just fetched and, once both were fetched, schedules the
+     * catalog snapshot file to be saved on its background thread, so the fetches do
+     * not wait for the snapshot build and the disk write. The saves requested while
+     * one is pending are merged into it.
+     * @param elixirs The Elixirs just fetched from the API, or null.
+     * @param ingredients The Ingredients just fetched from the API, or null.
+     */
+    private void saveCatalogSnapshotFile(List<Elixir> elixirs, List<Ingredient> ingredients) {
+        if (catalogSnapshotFile == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        catalogSnapshotFileLock.lock();
+        try {
+            if (elixirs != null) {
+                latestElixirs = elixirs;
+                elixirsFetchedAt = now;
+            }
+
+            if (ingredients != null) {
+                latestIngredients = ingredients;
+                ingredientsFetchedAt = now;
+            }
+
+            if (latestElixirs == null || latestIngredients == null) {
+                return;
+            }
+        } finally {
+            catalogSnapshotFileLock.unlock();
+        }
+
+        if (catalogSnapshotFileSavePending.compareAndSet(false, true)) {
+            try {
+                catalogSnapshotFileWriter.execute(this::writeCatalogSnapshotFile);
+            } catch (RejectedExecutionException e) {
+                catalogSnapshotFileSavePending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Builds the snapshot of the latest catalogs and saves it to the catalog snapshot file.
+     * The file is dated with the oldest fetch of the two catalogs.
+     */
+    private void writeCatalogSnapshotFile() {
+        catalogSnapshotFileSavePending.set(false);
+
+        List<Elixir> elixirs;
+        List<Ingredient> ingredients;
+        long savedAtMillis;
+        long version;
+
+        catalogSnapshotFileLock.lock();
+        try {
+            elixirs = latestElixirs;
+            ingredients = latestIngredients;
+            savedAtMillis = Math.min(elixirsFetchedAt, ingredientsFetchedAt);
+            version = catalogVersion.get();
+        } finally {
+            catalogSnapshotFileLock.unlock();
+        }
+
+        try {
+            CatalogSnapshot snapshot = CatalogSnapshot.build(elixirs, ingredients);
+
+            catalogSnapshotFile.save(snapshot, savedAtMillis);
+            persistedCatalog = new CatalogSnapshotFile.Loaded(snapshot, savedAtMillis);
+
+            catalogSnapshotLock.lock();
+            try {
+                // A catalog fetched meanwhile is not in this snapshot, so it is not kept as current.
+                if (version == catalogVersion.get()) {
+                    catalogSnapshot = new CatalogSnapshotEntry(snapshot, version, System.currentTimeMillis());
+                }
+            } finally {
+                catalogSnapshotLock.unlock();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Warning: Failed to save the catalog snapshot file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the catalogs of the snapshot file.
+     * @param allowStale True to also get them when they are older than the maximum age.
+     * @return The persisted catalog snapshot, or null if there is none or it is too old.
+     */
+    private CatalogSnapshot getPersistedCatalog(boolean allowStale) {
+        CatalogSnapshotFile.Loaded persisted = persistedCatalog;
+
+        if (persisted == null) {
+            return null;
+        }
+
+        if (!allowStale && System.currentTimeMillis() - persisted.savedAtMillis() >= catalogSnapshotMaxAgeMillis) {
+            return null;
+        }
+
+        return persisted.snapshot();
+    }
+
+    /**
+     * Gets the Ingredient name index of the catalog snapshot file while it is fresh.
+     * @return The name index or null if there is no fresh file.
+     */
+    private IngredientNameIndex getPersistedNameIndex() {
+        CatalogSnapshot persisted = getPersistedCatalog(false);
+
+        return persisted != null ? persisted.getIngredientNameIndex() : null;
+    }
+
+    /**
+     * Defines the listener of the catalog fetches of the wrapped service: every fetch
+     * invalidates the catalog snapshot and is saved to the catalog snapshot file.
+     * @param catalogVersion The number of catalog fetches.
+     * @param save The save of the catalogs fetched to the snapshot file.
+     */
+    private record CatalogFetchListener(AtomicLong catalogVersion, CatalogSaver save) implements ICatalogChangeListener {
+        @Override
+        public void onElixirsFetched(List<Elixir> elixirs) {
+            catalogVersion.incrementAndGet();
+            save.save(elixirs, null);
+        }
+
+        @Override
+        public void onIngredientsFetched(List<Ingredient> ingredients) {
+            catalogVersion.incrementAndGet();
+            save.save(null, ingredients);
+        }
+    }
+
+    /**
+     * Defines the save of the catalogs just fetched.
+     */
+    @FunctionalInterface
+    private interface CatalogSaver {
+        /**
+         * Saves the catalogs just fetched.
+         * @param elixirs The Elixirs just fetched, or null.
+         * @param ingredients The Ingredients just fetched, or null.
+         */
+        void save(List<Elixir> elixirs, List<Ingredient> ingredients);
+    }
+
+    /**
+     * Defines a catalog snapshot in use, with the catalog version it was built at and when.
+     * @param snapshot The catalog snapshot.
+     * @param catalogVersion The number of catalog fetches before it was built.
+     * @param builtAtMillis When it was built.
+     */
+    private record CatalogSnapshotEntry(CatalogSnapshot snapshot, long catalogVersion, long builtAtMillis) {
+    }
+}
@@ -0,0 +1,113 @@
+package nitro.service;
+
+import java.nio.file.Path;
+
+/**
+ * Defines the optional behaviours of the SnapshotElixirDataService.
+ * The defaults answer every lookup from the wrapped data service.
+ */
+public class SnapshotElixirDataServiceOptions {
+    /**
+     * Whether the per-Ingredient and per-name queries are answered from the full catalogs.
+     */
+    private boolean catalogSnapshot = false;
+
+    /**
+     * How long the catalog snapshot is kept before the full catalogs are read again.
+     */
+    private int catalogSnapshotTtlSeconds = 300;
+
+    /**
+     * The local file the catalogs are saved to and served from at startup, null to disable it.
+     */
+    private Path catalogSnapshotFile;
+
+    /**
+     * The age until which the catalogs of the snapshot file are served without Redis or the API.
+     */
+    private int catalogSnapshotMaxAgeSeconds = 86400;
+
+    /**
+     * Gets whether the per-Ingredient and per-name queries are answered from the full catalogs.
+     * @return True for the catalog snapshot mode.
+     */
+    public boolean isCatalogSnapshot() {
+        return catalogSnapshot;
+    }
+
+    /**
+     * Sets whether the per-Ingredient and per-name queries are answered from the full catalogs.
+     * The snapshot is built once from both catalogs and kept until the wrapped service fetches
+     * a catalog from the API or the snapshot TTL expires.
+     * @param catalogSnapshot True for the catalog snapshot mode.
+     * @return These options.
+     */
+    public SnapshotElixirDataServiceOptions setCatalogSnapshot(boolean catalogSnapshot) {
+        this.catalogSnapshot = catalogSnapshot;
+        return this;
+    }
+
+    /**
+     * Gets how long the catalog snapshot is kept before the full catalogs are read again.
+     * @return The TTL in seconds.
+     */
+    public int getCatalogSnapshotTtlSeconds() {
+        return catalogSnapshotTtlSeconds;
+    }
+
+    /**
+     * Sets how long the catalog snapshot is kept before the full catalogs are read again,
+     * so the catalogs fetched by other nodes are picked up from the cache.
+     * @param catalogSnapshotTtlSeconds The TTL in seconds.
+     * @return These options.
+     */
+    public SnapshotElixirDataServiceOptions setCatalogSnapshotTtlSeconds(int catalogSnapshotTtlSeconds) {
+        if (catalogSnapshotTtlSeconds <= 0) {
+            throw new IllegalArgumentException("Catalog snapshot TTL should be a positive number");
+        }
+
+        this.catalogSnapshotTtlSeconds = catalogSnapshotTtlSeconds;
+        return this;
+    }
+
+    /**
+     * Gets the local file the catalogs are saved to and served from at startup.
+     * @return The snapshot file path or null if it is disabled.
+     */
+    public Path getCatalogSnapshotFile() {
+        return catalogSnapshotFile;
+    }
+
+    /**
+     * Sets the local file the catalogs are saved to and served from at startup.
+     * @param catalogSnapshotFile The snapshot file path, null to disable it.
+     * @return These options.
+     */
+    public SnapshotElixirDataServiceOptions setCatalogSnapshotFile(Path catalogSnapshotFile) {
+        this.catalogSnapshotFile = catalogSnapshotFile;
+        return this;
+    }
+
+    /**
+     * Gets the age until which the catalogs of the snapshot file are served without Redis or the API.
+     * @return The maximum age in seconds.
+     */
+    public int getCatalogSnapshotMaxAgeSeconds() {
+        return catalogSnapshotMaxAgeSeconds;
+    }
+
+    /**
+     * Sets the age until which the catalogs of the snapshot file are served without Redis or the API.
+     * Older catalogs are only served when the API fails.
+     * @param catalogSnapshotMaxAgeSeconds The maximum age in seconds.
+     * @return These options.
+     */
+    public SnapshotElixirDataServiceOptions setCatalogSnapshotMaxAgeSeconds(int catalogSnapshotMaxAgeSeconds) {
+        if (catalogSnapshotMaxAgeSeconds <= 0) {
+            throw new IllegalArgumentException("Catalog snapshot maximum age should be a positive number");
+        }
+
+        this.catalogSnapshotMaxAgeSeconds = catalogSnapshotMaxAgeSeconds;
+        return this;
+    }
+}
@@ -0,0 +1,117 @@
+package nitro.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the CompressingCacheService header and size bounds.
+ */
+class CompressingCacheServiceTest {
+    private static final int THRESHOLD_BYTES = 100;
+    private static final int MAX_UNCOMPRESSED_BYTES = 4096;
+    private static final String LARGE_VALUE = "Toad and Newt, ".repeat(100);
+
+    private final OffHeapCacheService store = new OffHeapCacheService(null, 16 << 20, 60);
+    private final CompressingCacheService cache = new CompressingCacheService(store, THRESHOLD_BYTES, MAX_UNCOMPRESSED_BYTES);
+
+    /**
+     * A value reaching the threshold is stored smaller, after the header holding its
+     * format version and its uncompressed length, and read back as written.
+     */
+    @Test
+    void compressesTheLargeValues() {
+        cache.set("elixirs", LARGE_VALUE);
+
+        byte[] stored = store.getBytes("elixirs");
+        ByteBuffer header = ByteBuffer.wrap(stored);
+
+        assertTrue(stored.length < LARGE_VALUE.length());
+        assertEquals(0, header.get());
+        assertEquals('Z', header.get());
+        assertEquals('D', header.get());
+        assertEquals(1, header.get());
+        assertEquals(LARGE_VALUE.length(), header.getInt());
+        assertEquals(LARGE_VALUE, cache.get("elixirs"));
+    }
+
+    /**
+     * The values below the threshold or above the maximum uncompressed size are stored
+     * untouched, and the values stored before compression was enabled are still read.
+     */
+    @Test
+    void storesTheOtherValuesUntouched() {
+        byte[] huge = new byte[MAX_UNCOMPRESSED_BYTES + 1];
+
+        cache.set("small", "Toad");
+        cache.setBytes("huge", huge);
+        store.set("legacy", "Newt");
+
+        assertEquals("Toad", store.get("small"));
+        assertArrayEquals(huge, store.getBytes("huge"));
+        assertEquals("Toad", cache.get("small"));
+        assertEquals("Newt", cache.get("legacy"));
+    }
+
+    /**
+     * The bulk operations compress and decompress each value like the single key ones.
+     */
+    @Test
+    void compressesTheBulkValues() {
+        cache.setAll(Map.of("large", LARGE_VALUE, "small", "Toad", "blank", " "));
+
+        assertTrue(store.getBytes("large").length < LARGE_VALUE.length());
+        assertEquals(Map.of("large", LARGE_VALUE, "small", "Toad"), cache.getAll(List.of("large", "small", "blank")));
+    }
+
+    /**
+     * A compressed value of another version, claiming a length above the maximum or above
+     * what its data can hold, or truncated is treated as missing.
+     */
+    @Test
+    void rejectsTheCorruptedValues() {
+        cache.set("elixirs", LARGE_VALUE);
+        byte[] stored = store.getBytes("elixirs");
+
+        store.setBytes("version", withHeader(stored, 2, LARGE_VALUE.length()));
+        store.setBytes("tooLarge", withHeader(stored, 1, MAX_UNCOMPRESSED_BYTES + 1));
+        store.setBytes("implausible", withHeader(Arrays.copyOf(stored, 9), 1, MAX_UNCOMPRESSED_BYTES));
+        store.setBytes("truncated", Arrays.copyOf(stored, stored.length / 2));
+
+        assertNull(cache.get("version"));
+        assertNull(cache.get("tooLarge"));
+        assertNull(cache.getBytes("implausible"));
+        assertNull(cache.get("truncated"));
+        assertEquals(Map.of("elixirs", LARGE_VALUE), cache.getAll(List.of("elixirs", "version", "truncated")));
+    }
+
+    /**
+     * The threshold must be positive and the maximum uncompressed size can not be below it.
+     */
+    @Test
+    void rejectsAMaximumBelowTheThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new CompressingCacheService(store, THRESHOLD_BYTES, THRESHOLD_BYTES - 1));
+        assertThrows(IllegalArgumentException.class, () -> new CompressingCacheService(store, 0));
+    }
+
+    /**
+     * Copies compressed data with another header.
+     * @param compressed The compressed data.
+     * @param version The format version.
+     * @param length The uncompressed length.
+     * @return The data with the new header.
+     */
+    private static byte[] withHeader(byte[] compressed, int version, int length) {
+        byte[] copy = compressed.clone();
+        ByteBuffer.wrap(copy, 3, 5).put((byte) version).putInt(length);
+        return copy;
+    }
+}
@@ -0,0 +1,196 @@
+package nitro.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the OffHeapCacheService slab allocator.
+ */
+class OffHeapCacheServiceTest {
+    private static final int SLAB_BYTES = 1024;
+
+    /**
+     * Values are read back as written, and missing keys are counted as misses.
+     */
+    @Test
+    void getsTheValuesSet() {
+        OffHeapCacheService cache = new OffHeapCacheService(null, 4 * SLAB_BYTES, 60, SLAB_BYTES);
+
+        cache.set("text", "potion");
+        cache.setBytes("binary", new byte[] {1, 2, 3});
+        cache.setAll(Map.of("a", "1", "b", "2"));
+
+        assertEquals("potion", cache.get("text"));
+        assertArrayEquals(new byte[] {1, 2, 3}, cache.getBytes("binary"));
+        assertEquals(Map.of("a", "1", "b", "2"), cache.getAll(List.of("a", "b", "missing")));
+        assertNull(cache.get("missing"));
+        assertEquals(4, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(4, cache.size());
+    }
+
+    /**
+     * A new value of a key replaces the previous one and frees its block.
+     */
+    @Test
+    void replacesTheValueOfAKey() {
+        OffHeapCacheService cache = new OffHeapCacheService(null, SLAB_BYTES, 60, SLAB_BYTES);
+
+        cache.setBytes("key", new byte[100]);
+        cache.setBytes("key", new byte[10]);
+
+        assertEquals(10, cache.getBytes("key").length);
+        assertEquals(1, cache.size());
+        assertEquals(10, cache.getStoredBytes());
+    }
+
+    /**
+     * An entry is dropped once its own TTL has expired.
+     * @throws InterruptedException if the test is interrupted while waiting.
+     */
+    @Test
+    void expiresTheEntries() throws InterruptedException {
+        OffHeapCacheService cache = new OffHeapCacheService(null, SLAB_BYTES, 60, SLAB_BYTES);
+
+        cache.set("short", "value", 1);
+        cache.set("long", "value");
+        Thread.sleep(1100);
+
+        assertNull(cache.get("short"));
+        assertEquals("value", cache.get("long"));
+    }
+
+    /**
+     * Values larger than a slab are not kept locally, but still reach the delegate.
+     */
+    @Test
+    void skipsTheValuesLargerThanASlab() {
+        OffHeapCacheService remote = new OffHeapCacheService(null, 4 * SLAB_BYTES, 60, 2 * SLAB_BYTES);
+        OffHeapCacheService cache = new OffHeapCacheService(remote, SLAB_BYTES, 60, SLAB_BYTES);
+
+        cache.setBytes("large", new byte[SLAB_BYTES + 1]);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getAllocatedBytes());
+        assertEquals(SLAB_BYTES + 1, cache.getBytes("large").length);
+    }
+
+    /**
+     * The values found in the delegate are kept locally for the next reads.
+     */
+    @Test
+    void keepsTheValuesReadFromTheDelegate() {
+        OffHeapCacheService remote = new OffHeapCacheService(null, SLAB_BYTES, 60, SLAB_BYTES);
+        OffHeapCacheService cache = new OffHeapCacheService(remote, SLAB_BYTES, 60, SLAB_BYTES);
+        remote.set("key", "value");
+
+        assertEquals("value", cache.get("key"));
+        assertEquals(1, remote.getHitCount());
+
+        assertEquals("value", cache.get("key"));
+        assertEquals(1, remote.getHitCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    /**
+     * With every slab allocated, a size class evicts its least recently used entry.
+     */
+    @Test
+    void evictsTheLeastRecentlyUsedEntryOfASizeClass() {
+        // One slab holds four blocks of the 224 bytes size class.
+        OffHeapCacheService cache = new OffHeapCacheService(null, SLAB_BYTES, 60, SLAB_BYTES);
+
+        for (int i = 0; i < 4; i++) {
+            cache.setBytes("key" + i, filled(200, i));
+        }
+        cache.getBytes("key0");
+        cache.setBytes("key4", filled(200, 4));
+
+        assertNull(cache.getBytes("key1"));
+        assertArrayEquals(filled(200, 0), cache.getBytes("key0"));
+        assertArrayEquals(filled(200, 4), cache.getBytes("key4"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(SLAB_BYTES, cache.getAllocatedBytes());
+    }
+
+    /**
+     * With every slab allocated, a size class without a slab takes the least recently
+     * used slab of the size class holding the most, evicting its entries.
+     */
+    @Test
+    void reassignsASlabToAnEmptySizeClass() {
+        // Two slabs of sixteen 64 bytes blocks, both taken by the smallest size class.
+        OffHeapCacheService cache = new OffHeapCacheService(null, 2 * SLAB_BYTES, 60, SLAB_BYTES);
+
+        for (int i = 0; i < 32; i++) {
+            cache.setBytes("small" + i, filled(64, i));
+        }
+        assertEquals(2 * SLAB_BYTES, cache.getAllocatedBytes());
+
+        cache.setBytes("large", filled(1000, 99));
+
+        assertArrayEquals(filled(1000, 99), cache.getBytes("large"));
+        assertEquals(16, cache.getEvictionCount());
+        assertEquals(17, cache.size());
+        assertEquals(2 * SLAB_BYTES, cache.getAllocatedBytes());
+
+        for (int i = 0; i < 16; i++) {
+            assertNull(cache.getBytes("small" + i));
+        }
+        for (int i = 16; i < 32; i++) {
+            assertArrayEquals(filled(64, i), cache.getBytes("small" + i));
+        }
+
+        // The smallest size class now evicts within the slab it kept.
+        cache.setBytes("small32", filled(64, 32));
+        assertNotNull(cache.getBytes("small32"));
+        assertArrayEquals(filled(1000, 99), cache.getBytes("large"));
+        assertEquals(17, cache.getEvictionCount());
+    }
+
+    /**
+     * Closing the cache releases the slabs and closes the delegate.
+     */
+    @Test
+    void releasesTheSlabsOnClose() {
+        OffHeapCacheService remote = new OffHeapCacheService(null, SLAB_BYTES, 60, SLAB_BYTES);
+        OffHeapCacheService cache = new OffHeapCacheService(remote, SLAB_BYTES, 60, SLAB_BYTES);
+        cache.set("key", "value");
+
+        cache.close();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getAllocatedBytes());
+        assertEquals(0, remote.getAllocatedBytes());
+    }
+
+    /**
+     * The slab size must hold a block, and the memory limit at least one slab.
+     */
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapCacheService(null, SLAB_BYTES, 60, 32));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapCacheService(null, SLAB_BYTES - 1, 60, SLAB_BYTES));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapCacheService(null, SLAB_BYTES, 0, SLAB_BYTES));
+    }
+
+    /**
+     * Builds a value of the given length filled with one byte.
+     * @param length The value length.
+     * @param fill The byte value.
+     * @return The value.
+     */
+    private static byte[] filled(int length, int fill) {
+        byte[] value = new byte[length];
+        Arrays.fill(value, (byte) fill);
+        return value;
+    }
+}
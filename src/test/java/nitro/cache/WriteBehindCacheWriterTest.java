@@ -0,0 +1,160 @@
+package nitro.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the WriteBehindCacheWriter queue.
+ */
+class WriteBehindCacheWriterTest {
+    // Long enough that a partial batch is only written on close.
+    private static final long NEVER_MILLIS = 60_000;
+
+    /**
+     * A newer write of a queued key replaces the older one, and only the latest value is written.
+     */
+    @Test
+    void coalescesTheWritesOfAQueuedKey() {
+        List<Map<String, Object>> batches = new CopyOnWriteArrayList<>();
+        WriteBehindCacheWriter writer = new WriteBehindCacheWriter(batches::add, 10, 10, NEVER_MILLIS);
+
+        writer.enqueue("a", "1");
+        writer.enqueue("b", "2");
+        writer.enqueue("a", "3");
+        writer.close();
+
+        assertEquals(List.of(Map.of("a", "3", "b", "2")), batches);
+        assertEquals(2, writer.getQueuedCount());
+        assertEquals(1, writer.getCoalescedCount());
+        assertEquals(2, writer.getWrittenCount());
+    }
+
+    /**
+     * Once the queue is full, the writes of new keys are dropped and counted, while the
+     * queued keys can still be replaced; after close, every write is dropped.
+     */
+    @Test
+    void dropsTheWritesOfNewKeysWhenFull() {
+        List<Map<String, Object>> batches = new CopyOnWriteArrayList<>();
+        WriteBehindCacheWriter writer = new WriteBehindCacheWriter(batches::add, 2, 10, NEVER_MILLIS);
+
+        assertTrue(writer.enqueue("a", "1"));
+        assertTrue(writer.enqueue("b", "2"));
+        assertFalse(writer.enqueue("c", "3"));
+        assertTrue(writer.enqueue("a", "4"));
+        assertEquals(1, writer.enqueueAll(Map.of("d", "5")));
+        writer.close();
+
+        assertFalse(writer.enqueue("e", "6"));
+        assertEquals(List.of(Map.of("a", "4", "b", "2")), batches);
+        assertEquals(3, writer.getDroppedCount());
+    }
+
+    /**
+     * The queued writes are handed to the writer oldest first, in batches of at most the batch size.
+     */
+    @Test
+    void writesInBatches() {
+        List<Map<String, Object>> batches = new CopyOnWriteArrayList<>();
+        WriteBehindCacheWriter writer = new WriteBehindCacheWriter(batches::add, 10, 2, NEVER_MILLIS);
+
+        for (int i = 1; i <= 5; i++) {
+            writer.enqueue("key" + i, String.valueOf(i));
+        }
+        writer.close();
+
+        assertEquals(List.of(List.of("key1", "key2"), List.of("key3", "key4"), List.of("key5")),
+                batches.stream().map(batch -> List.copyOf(batch.keySet())).toList());
+        assertEquals(3, writer.getBatchCount());
+        assertEquals(5, writer.getWrittenCount());
+    }
+
+    /**
+     * Closing the writer writes the partial batch still waiting for the flush interval.
+     */
+    @Test
+    void writesThePendingValuesOnClose() {
+        List<Map<String, Object>> batches = new CopyOnWriteArrayList<>();
+        WriteBehindCacheWriter writer = new WriteBehindCacheWriter(batches::add, 10, 10, NEVER_MILLIS);
+
+        writer.enqueue("a", "1");
+
+        assertTrue(batches.isEmpty());
+        assertEquals(1, writer.getPendingCount());
+
+        writer.close();
+
+        assertEquals(List.of(Map.of("a", "1")), batches);
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    /**
+     * A value is returned by getPending while it is queued and while it is being written,
+     * and no longer once it is written.
+     * @throws InterruptedException if the test is interrupted while waiting.
+     */
+    @Test
+    void readsTheValuesNotWrittenYet() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindCacheWriter writer = new WriteBehindCacheWriter(batch -> {
+            writing.countDown();
+            await(release);
+        }, 10, 1, 0);
+
+        writer.enqueue("a", "1");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        writer.enqueue("b", new byte[] {2});
+
+        assertEquals("1", writer.getPending("a"));
+        assertEquals(2, ((byte[]) writer.getPending("b"))[0]);
+
+        release.countDown();
+        writer.close();
+
+        assertNull(writer.getPending("a"));
+        assertNull(writer.getPending("b"));
+        assertEquals(2, writer.getWrittenCount());
+    }
+
+    /**
+     * A failing batch is counted as failed, and the next batches are still written.
+     */
+    @Test
+    void countsTheFailedBatches() {
+        List<Map<String, Object>> batches = new CopyOnWriteArrayList<>();
+        WriteBehindCacheWriter writer = new WriteBehindCacheWriter(batch -> {
+            if (batch.containsKey("bad")) throw new IllegalStateException("down");
+            batches.add(batch);
+        }, 10, 1, 0);
+
+        writer.enqueue("bad", "1");
+        writer.enqueue("good", "2");
+        writer.close();
+
+        assertEquals(List.of(Map.of("good", "2")), batches);
+        assertEquals(1, writer.getFailedCount());
+        assertEquals(1, writer.getWrittenCount());
+    }
+
+    /**
+     * Waits for a latch, failing the batch if it takes too long.
+     * @param latch The latch.
+     */
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("Latch not released");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package nitro.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+import nitro.mapper.BinaryMapper;
+import nitro.mapper.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the CatalogSnapshotFile format and its rejection of damaged files.
+ */
+class CatalogSnapshotFileTest {
+    private static final Ingredient TOAD = new Ingredient("1", "Toad");
+    private static final Ingredient NEWT = new Ingredient("2", "Newt");
+    private static final Elixir DRAUGHT = new Elixir("e1", "Draught", null, null, null, null, null, List.of(TOAD, NEWT), null);
+    private static final Elixir TONIC = new Elixir("e2", "Tonic", null, null, null, null, null, List.of(TOAD), null);
+    private static final long SAVED_AT_MILLIS = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * A saved snapshot is loaded with its save time, its catalogs and its Elixir index,
+     * and a new save replaces it.
+     */
+    @Test
+    void loadsTheSavedSnapshot() {
+        CatalogSnapshotFile file = snapshotFile();
+
+        file.save(CatalogSnapshot.build(List.of(TONIC), List.of(TOAD)), 1);
+        file.save(CatalogSnapshot.build(List.of(DRAUGHT, TONIC), List.of(TOAD, NEWT)), SAVED_AT_MILLIS);
+
+        CatalogSnapshotFile.Loaded loaded = file.load();
+
+        assertNotNull(loaded);
+        assertEquals(SAVED_AT_MILLIS, loaded.savedAtMillis());
+        assertEquals(List.of("Draught", "Tonic"), loaded.snapshot().getElixirs().stream().map(Elixir::getName).toList());
+        assertEquals(List.of("Toad", "Newt"), loaded.snapshot().getIngredients().stream().map(Ingredient::getName).toList());
+        assertEquals(List.of("Draught", "Tonic"), loaded.snapshot().getElixirsByIngredientName("toad").stream().map(Elixir::getName).toList());
+        assertEquals(List.of("Draught"), loaded.snapshot().getElixirsByIngredientName("NEWT").stream().map(Elixir::getName).toList());
+        assertEquals("Newt", loaded.snapshot().getIngredientByName("newt").getName());
+    }
+
+    /**
+     * A missing file loads nothing.
+     */
+    @Test
+    void loadsNothingWithoutAFile() {
+        assertNull(snapshotFile().load());
+    }
+
+    /**
+     * A file with a changed byte fails its CRC and is ignored.
+     * @throws IOException if the file can not be rewritten.
+     */
+    @Test
+    void rejectsAChecksumMismatch() throws IOException {
+        byte[] data = savedFile();
+        data[data.length - 3] ^= 1;
+
+        assertNull(load(data));
+    }
+
+    /**
+     * A file of another format version, or that is not a snapshot file, is ignored.
+     * @throws IOException if the file can not be rewritten.
+     */
+    @Test
+    void rejectsAnotherVersion() throws IOException {
+        byte[] otherVersion = savedFile();
+        otherVersion[3] = (byte) (CatalogSnapshotFile.FORMAT_VERSION + 1);
+        byte[] otherMagic = savedFile();
+        otherMagic[1] = 'X';
+
+        assertNull(load(otherVersion));
+        assertNull(load(otherMagic));
+    }
+
+    /**
+     * A file shorter than its sections, or than its header, is ignored.
+     * @throws IOException if the file can not be rewritten.
+     */
+    @Test
+    void rejectsATruncatedFile() throws IOException {
+        byte[] data = savedFile();
+
+        assertNull(load(Arrays.copyOf(data, data.length - 1)));
+        assertNull(load(Arrays.copyOf(data, 10)));
+    }
+
+    /**
+     * Creates the snapshot file of the test directory.
+     * @return The snapshot file.
+     */
+    private CatalogSnapshotFile snapshotFile() {
+        return new CatalogSnapshotFile(directory.resolve("catalog.snapshot"), new BinaryMapper(new JsonMapper(new ObjectMapper())));
+    }
+
+    /**
+     * Saves a snapshot and reads the file back.
+     * @return The file bytes.
+     * @throws IOException if the file can not be read.
+     */
+    private byte[] savedFile() throws IOException {
+        snapshotFile().save(CatalogSnapshot.build(List.of(DRAUGHT, TONIC), List.of(TOAD, NEWT)), SAVED_AT_MILLIS);
+        return Files.readAllBytes(directory.resolve("catalog.snapshot"));
+    }
+
+    /**
+     * Writes the file bytes and loads them.
+     * @param data The file bytes.
+     * @return The loaded snapshot, or null if the file is ignored.
+     * @throws IOException if the file can not be written.
+     */
+    private CatalogSnapshotFile.Loaded load(byte[] data) throws IOException {
+        Files.write(directory.resolve("catalog.snapshot"), data);
+        return snapshotFile().load();
+    }
+}
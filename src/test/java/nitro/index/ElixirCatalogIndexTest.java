@@ -0,0 +1,109 @@
+package nitro.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ElixirCatalogIndex bitset matching.
+ */
+class ElixirCatalogIndexTest {
+    private static final Elixir DRAUGHT = elixir("Draught", "Toad", "Newt");
+    private static final Elixir TONIC = elixir("Tonic", "toad");
+    private static final Elixir POTION = elixir("Potion", "Newt", "Mole", "Bat");
+    private static final Elixir BREW = elixir("Brew", "Mole", "mole");
+
+    /**
+     * The Ingredient names get one ID whatever their case, the recipes are sorted and
+     * without duplicates, and the Elixirs without Ingredients are skipped.
+     */
+    @Test
+    void buildsTheDictionary() {
+        ElixirCatalogIndex index = ElixirCatalogIndex.build(List.of(DRAUGHT, TONIC, POTION, BREW, elixir("Water")));
+
+        assertEquals(4, index.getIngredientCount());
+        assertEquals(4, index.getElixirCount());
+        assertEquals(index.getIngredientId("Toad"), index.getIngredientId(" TOAD "));
+        assertEquals(-1, index.getIngredientId("Unicorn"));
+        assertArrayEquals(new int[] {index.getIngredientId("Mole")}, index.getRecipe(3));
+        assertArrayEquals(new int[] {0, 1}, index.getElixirsWithIngredient(index.getIngredientId("Toad")));
+    }
+
+    /**
+     * An inventory crafts the Elixirs whose Ingredients it all holds, each one once, with
+     * the visitor and the stream alike; unknown names are ignored.
+     */
+    @Test
+    void matchesTheCraftableElixirs() {
+        ElixirCatalogIndex index = ElixirCatalogIndex.build(List.of(DRAUGHT, TONIC, POTION, BREW));
+        long[] inventory = index.toInventory(Set.of("TOAD", "newt", "Mole", "Unicorn"));
+        List<Integer> visited = new ArrayList<>();
+
+        index.forEachCraftable(inventory, visited::add);
+
+        assertEquals(List.of(0, 1, 3), visited.stream().sorted().toList());
+        assertEquals(List.of(0, 1, 3), index.streamCraftable(inventory).sorted().boxed().toList());
+        assertTrue(index.canCraft(0, inventory));
+        assertFalse(index.canCraft(2, inventory));
+        assertFalse(ElixirCatalogIndex.contains(inventory, index.getIngredientId("Bat")));
+    }
+
+    /**
+     * The inventory bitset spans several words once the catalog has more than 64 Ingredients.
+     */
+    @Test
+    void matchesBeyondTheFirstWord() {
+        List<Elixir> catalog = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            catalog.add(elixir("Elixir" + i, "Ingredient" + i, "Ingredient" + (i + 1)));
+        }
+
+        ElixirCatalogIndex index = ElixirCatalogIndex.build(catalog);
+        long[] inventory = index.toInventory(Set.of("Ingredient70", "Ingredient71", "Ingredient72", "Ingredient5"));
+
+        assertEquals(2, inventory.length);
+        assertEquals(List.of(70, 71), index.streamCraftable(inventory).boxed().toList());
+    }
+
+    /**
+     * The near misses are the Elixirs sharing an Ingredient with the inventory and missing
+     * at most the given number, fewest missing then smallest recipe first, without the
+     * craftable ones.
+     */
+    @Test
+    void findsTheNearMisses() {
+        ElixirCatalogIndex index = ElixirCatalogIndex.build(List.of(DRAUGHT, TONIC, POTION, BREW, elixir("Salve", "Bat", "Newt")));
+        long[] inventory = index.toInventory(Set.of("Toad"));
+
+        assertArrayEquals(new int[] {0}, index.findNearMisses(inventory, 1, 10));
+        assertArrayEquals(new int[] {0}, index.findNearMisses(inventory, 3, 10));
+
+        long[] newt = index.toInventory(Set.of("Newt"));
+
+        assertArrayEquals(new int[] {0, 4, 2}, index.findNearMisses(newt, 2, 10));
+        assertArrayEquals(new int[] {0, 4}, index.findNearMisses(newt, 2, 2));
+        assertEquals(0, index.findNearMisses(newt, 0, 10).length);
+    }
+
+    /**
+     * Builds an Elixir of the given Ingredient names.
+     * @param name The Elixir name.
+     * @param ingredients The Ingredient names.
+     * @return The Elixir.
+     */
+    private static Elixir elixir(String name, String... ingredients) {
+        List<Ingredient> recipe = Arrays.stream(ingredients).map(ingredient -> new Ingredient(ingredient, ingredient)).toList();
+
+        return new Elixir(name, name, null, null, null, null, null, recipe, null);
+    }
+}
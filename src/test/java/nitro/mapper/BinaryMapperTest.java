@@ -0,0 +1,146 @@
+package nitro.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the BinaryMapper encoding.
+ */
+class BinaryMapperTest {
+    private static final Ingredient TOAD = new Ingredient("1", "Toad");
+    private static final Ingredient NEWT = new Ingredient("2", "Newt");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BinaryMapper mapper = new BinaryMapper(new JsonMapper(objectMapper));
+
+    /**
+     * An Elixir is read back with all its fields, its null fields and its null Ingredients.
+     */
+    @Test
+    void roundTripsAnElixir() {
+        Elixir elixir = new Elixir("e1", "Draught", "Sleep", null, "Blue", "1 hour", "Advanced", Arrays.asList(TOAD, null, NEWT), "Ollivander");
+
+        byte[] data = mapper.toBinary(elixir);
+        Elixir read = mapper.mapBinaryObject(data, Elixir.class);
+
+        assertTrue(BinaryMapper.hasHeader(data));
+        assertFields(elixir, read);
+    }
+
+    /**
+     * A list of Elixirs is read back in order, with its null elements, and an Elixir
+     * without an Ingredient list keeps it null.
+     */
+    @Test
+    void roundTripsAListOfElixirs() {
+        Elixir draught = new Elixir("e1", "Draught", null, null, null, null, null, List.of(TOAD, NEWT), null);
+        Elixir tonic = new Elixir("e2", "Tonic", null, null, null, null, null, null, null);
+
+        List<Elixir> read = mapper.mapBinaryList(mapper.toBinary(Arrays.asList(draught, null, tonic)), Elixir.class);
+
+        assertEquals(3, read.size());
+        assertFields(draught, read.get(0));
+        assertNull(read.get(1));
+        assertFields(tonic, read.get(2));
+        assertNull(read.get(2).getIngredients());
+    }
+
+    /**
+     * A list of Ingredients is read back, and an empty list can be read as a list of any type.
+     */
+    @Test
+    void roundTripsTheIngredients() {
+        List<Ingredient> read = mapper.mapBinaryList(mapper.toBinary(List.of(TOAD, NEWT)), Ingredient.class);
+
+        assertEquals(List.of("1", "2"), read.stream().map(Ingredient::getId).toList());
+        assertEquals(List.of("Toad", "Newt"), read.stream().map(Ingredient::getName).toList());
+        assertEquals("Toad", mapper.mapBinaryObject(mapper.toBinary(TOAD), Ingredient.class).getName());
+        assertEquals(List.of(), mapper.mapBinaryList(mapper.toBinary(List.of()), Elixir.class));
+    }
+
+    /**
+     * The Ingredient names shared by many Elixirs are written once.
+     */
+    @Test
+    void writesTheSharedStringsOnce() {
+        Elixir draught = new Elixir("e1", "Draught", null, null, null, null, null, List.of(TOAD, NEWT), null);
+        Elixir tonic = new Elixir("e2", "Tonic", null, null, null, null, null, List.of(TOAD, NEWT), null);
+
+        String data = new String(mapper.toBinary(List.of(draught, tonic)), StandardCharsets.ISO_8859_1);
+
+        assertEquals(data.indexOf("Toad"), data.lastIndexOf("Toad"));
+    }
+
+    /**
+     * Data without the binary header is read as the JSON cached before the binary encoding.
+     * @throws Exception if the JSON can not be written.
+     */
+    @Test
+    void readsTheJsonData() throws Exception {
+        Elixir elixir = new Elixir("e1", "Draught", "Sleep", null, null, null, null, List.of(TOAD), null);
+        byte[] json = objectMapper.writeValueAsBytes(List.of(elixir));
+
+        assertFalse(BinaryMapper.hasHeader(json));
+
+        List<Elixir> read = mapper.mapBinaryList(json, Elixir.class);
+
+        assertEquals(1, read.size());
+        assertFields(elixir, read.get(0));
+        assertEquals("Newt", mapper.mapBinaryObject(objectMapper.writeValueAsBytes(NEWT), Ingredient.class).getName());
+    }
+
+    /**
+     * Empty data reads as nothing, and data of another type, another version or truncated is rejected.
+     */
+    @Test
+    void rejectsTheInvalidData() {
+        byte[] elixirs = mapper.toBinary(List.of(new Elixir("e1", "Draught", null, null, null, null, null, List.of(TOAD), null)));
+        byte[] otherVersion = elixirs.clone();
+        otherVersion[3] = (byte) (BinaryMapper.FORMAT_VERSION + 1);
+
+        assertNull(mapper.mapBinaryObject(new byte[0], Elixir.class));
+        assertEquals(List.of(), mapper.mapBinaryList(null, Elixir.class));
+        assertThrows(IllegalArgumentException.class, () -> mapper.mapBinaryList(elixirs, Ingredient.class));
+        assertThrows(IllegalArgumentException.class, () -> mapper.mapBinaryList(otherVersion, Elixir.class));
+        assertThrows(IllegalArgumentException.class, () -> mapper.mapBinaryList(Arrays.copyOf(elixirs, elixirs.length - 2), Elixir.class));
+        assertThrows(IllegalArgumentException.class, () -> mapper.toBinary("potion"));
+    }
+
+    /**
+     * Checks that an Elixir was read back with the fields it was written with.
+     * @param expected The Elixir written.
+     * @param actual The Elixir read.
+     */
+    private static void assertFields(Elixir expected, Elixir actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getEffect(), actual.getEffect());
+        assertEquals(expected.getSideEffects(), actual.getSideEffects());
+        assertEquals(expected.getCharacteristics(), actual.getCharacteristics());
+        assertEquals(expected.getTime(), actual.getTime());
+        assertEquals(expected.getDifficulty(), actual.getDifficulty());
+        assertEquals(expected.getManufacturer(), actual.getManufacturer());
+
+        if (expected.getIngredients() == null) {
+            assertNull(actual.getIngredients());
+            return;
+        }
+
+        assertArrayEquals(
+                expected.getIngredients().stream().map(ingredient -> ingredient == null ? null : ingredient.getId() + ":" + ingredient.getName()).toArray(),
+                actual.getIngredients().stream().map(ingredient -> ingredient == null ? null : ingredient.getId() + ":" + ingredient.getName()).toArray()
+        );
+    }
+}
@@ -0,0 +1,119 @@
+package nitro.service;
+
+import static nitro.service.ElixirCraftServiceTest.elixir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import nitro.data.BrewPlan;
+import nitro.data.Elixir;
+import nitro.service.ElixirCraftServiceTest.CatalogDataService;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the BrewPlanner search.
+ */
+class BrewPlannerTest {
+    /**
+     * The plan brews the most Elixirs even when brewing the first candidate as much as
+     * possible does not, and it is reported as optimal.
+     */
+    @Test
+    void findsTheOptimalPlan() {
+        List<Elixir> catalog = new ArrayList<>();
+        Map<String, Integer> inventory = new HashMap<>();
+        addGadget(catalog, inventory, "");
+
+        BrewPlan plan = planner(catalog, 1000).plan(inventory);
+
+        assertEquals(Map.of("Brew", 1, "Cure", 1), brewsByName(plan));
+        assertEquals(2, plan.getTotalBrews());
+        assertTrue(plan.isOptimal());
+    }
+
+    /**
+     * An Ingredient consumed by many recipes is shared between them, whatever the case of
+     * its names, and the Elixirs missing an Ingredient are not brewed.
+     */
+    @Test
+    void sharesTheQuantities() {
+        List<Elixir> catalog = List.of(elixir("Draught", "Toad", "Newt"), elixir("Tonic", "toad"), elixir("Potion", "Bat"));
+
+        BrewPlan plan = planner(catalog, 1000).plan(Map.of("Toad", 2, "NEWT", 1, "Newt", 1));
+
+        assertEquals(2, plan.getTotalBrews());
+        assertFalse(brewsByName(plan).containsKey("Potion"));
+        assertTrue(plan.isOptimal());
+    }
+
+    /**
+     * A search running out of its time budget returns the best plan found so far and is
+     * not reported as optimal.
+     */
+    @Test
+    void flagsTheTimeout() {
+        List<Elixir> catalog = new ArrayList<>();
+        Map<String, Integer> inventory = new HashMap<>();
+
+        for (int i = 0; i < 700; i++) {
+            addGadget(catalog, inventory, String.format("%04d", i));
+        }
+
+        BrewPlan plan = planner(catalog, 1).plan(inventory);
+
+        assertFalse(plan.isOptimal());
+        assertTrue(plan.getTotalBrews() >= 700);
+    }
+
+    /**
+     * An empty inventory brews nothing, optimally.
+     */
+    @Test
+    void plansNothingWithoutIngredients() {
+        BrewPlan plan = planner(List.of(elixir("Tonic", "Toad")), 1000).plan(Map.of("Toad", 0));
+
+        assertEquals(0, plan.getTotalBrews());
+        assertTrue(plan.isOptimal());
+    }
+
+    /**
+     * Adds three Elixirs over four Ingredients of one unit each, where brewing the first
+     * Elixir by name leaves nothing for the two others.
+     * @param catalog The Elixir catalog.
+     * @param inventory The inventory.
+     * @param suffix The suffix of the names.
+     */
+    private static void addGadget(List<Elixir> catalog, Map<String, Integer> inventory, String suffix) {
+        catalog.add(elixir("Ale" + suffix, "B" + suffix, "C" + suffix));
+        catalog.add(elixir("Brew" + suffix, "A" + suffix, "B" + suffix));
+        catalog.add(elixir("Cure" + suffix, "C" + suffix, "D" + suffix));
+
+        for (String ingredient : List.of("A", "B", "C", "D")) {
+            inventory.put(ingredient + suffix, 1);
+        }
+    }
+
+    /**
+     * Creates a planner over a catalog.
+     * @param catalog The Elixir catalog.
+     * @param timeBudgetMillis The time budget of the search.
+     * @return The planner.
+     */
+    private static BrewPlanner planner(List<Elixir> catalog, long timeBudgetMillis) {
+        return new BrewPlanner(new ElixirCraftService(new CatalogDataService(catalog), 1, 10), timeBudgetMillis);
+    }
+
+    /**
+     * Gets the brew counts of a plan by Elixir name.
+     * @param plan The plan.
+     * @return The brew counts.
+     */
+    private static Map<String, Integer> brewsByName(BrewPlan plan) {
+        return plan.getBrews().entrySet().stream().collect(Collectors.toMap(entry -> entry.getKey().getName(), Map.Entry::getValue));
+    }
+}
@@ -0,0 +1,92 @@
+package nitro.service;
+
+import static nitro.service.ElixirCraftServiceTest.elixir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import nitro.data.CraftDelta;
+import nitro.data.Elixir;
+import nitro.index.ElixirCatalogIndex;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the CraftSession deltas.
+ */
+class CraftSessionTest {
+    private static final Elixir DRAUGHT = elixir("Draught", "Toad", "Newt");
+    private static final Elixir TONIC = elixir("Tonic", "Toad");
+    private static final Elixir BREW = elixir("Brew", "Newt", "Mole", "mole");
+
+    /**
+     * Adding an Ingredient reports the Elixirs it completes, and only those.
+     */
+    @Test
+    void reportsTheGainedElixirs() {
+        CraftSession session = session();
+
+        assertEquals(Set.of("Tonic"), names(session.add("Toad").getGained()));
+        assertEquals(Set.of("Draught"), names(session.add("Newt").getGained()));
+        assertEquals(Set.of("Brew"), names(session.add("Mole").getGained()));
+        assertEquals(Set.of("Tonic", "Draught", "Brew"), names(session.getCraftableElixirs()));
+    }
+
+    /**
+     * Removing an Ingredient reports the Elixirs that were craftable and need it.
+     */
+    @Test
+    void reportsTheLostElixirs() {
+        CraftSession session = session();
+        session.add("Toad");
+        session.add("Newt");
+        session.add("Mole");
+
+        CraftDelta delta = session.remove("Newt");
+
+        assertEquals(Set.of("Draught", "Brew"), names(delta.getLost()));
+        assertTrue(delta.getGained().isEmpty());
+        assertEquals(Set.of("Tonic"), names(session.getCraftableElixirs()));
+        assertEquals(Set.of("Draught", "Brew"), names(session.add("NEWT").getGained()));
+    }
+
+    /**
+     * Adding an Ingredient twice, whatever its case, or one no recipe needs, and removing
+     * one that is not in the inventory change nothing.
+     */
+    @Test
+    void ignoresTheRepeatedAndUnknownIngredients() {
+        CraftSession session = session();
+        session.add("Toad");
+
+        assertTrue(session.add(" toad ").isEmpty());
+        assertTrue(session.add("Bat").isEmpty());
+        assertTrue(session.remove("Newt").isEmpty());
+        assertEquals(Set.of("Toad", "Bat"), session.getIngredients());
+        assertTrue(session.contains("TOAD"));
+
+        assertEquals(Set.of("Tonic"), names(session.remove("toad").getLost()));
+        assertTrue(session.remove("Toad").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> session.add(" "));
+    }
+
+    /**
+     * Opens a session over the test catalog.
+     * @return The session.
+     */
+    private static CraftSession session() {
+        return new CraftSession(ElixirCatalogIndex.build(List.of(DRAUGHT, TONIC, BREW)));
+    }
+
+    /**
+     * Gets the names of Elixirs.
+     * @param elixirs The Elixirs.
+     * @return Their names.
+     */
+    private static Set<String> names(Collection<Elixir> elixirs) {
+        return elixirs.stream().map(Elixir::getName).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,167 @@
+package nitro.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import nitro.data.Elixir;
+import nitro.data.ElixirMatch;
+import nitro.data.Ingredient;
+import nitro.index.CatalogSnapshot;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ElixirCraftService matching of the inventories against the recipes.
+ */
+class ElixirCraftServiceTest {
+    private static final Elixir DRAUGHT = elixir("Draught", "Toad", "Newt");
+    private static final Elixir TONIC = elixir("Tonic", "Toad");
+    private static final Elixir POTION = elixir("Potion", "Newt", "Mole");
+
+    /**
+     * The inventory matches the recipes whatever the case of its names, and inventories
+     * differing only in case share their memoized result.
+     */
+    @Test
+    void matchesTheRecipesIgnoringCase() {
+        CatalogDataService data = new CatalogDataService(List.of(DRAUGHT, TONIC, POTION));
+        ElixirCraftService service = new ElixirCraftService(data, 1, 10);
+
+        assertEquals(Set.of(DRAUGHT, TONIC), service.findCraftableIngredients(Set.of("toad", "NEWT")));
+        assertEquals(Set.of("Draught", "Tonic"), names(service.streamCraftableElixirs(Set.of("Toad", "Newt")).toList()));
+        assertEquals(1, data.lookups.get());
+    }
+
+    /**
+     * The missing Ingredients of a near miss are compared ignoring case and counted once,
+     * and Elixirs sharing no Ingredient with the inventory are not reported.
+     */
+    @Test
+    void countsTheDistinctMissingIngredients() {
+        Elixir brew = elixir("Brew", "Toad", "Mole", "mole");
+        CatalogDataService data = new CatalogDataService(List.of(DRAUGHT, TONIC, POTION, brew, elixir("Salve", "Bat")));
+        ElixirCraftService service = new ElixirCraftService(data, 1, 10);
+
+        List<ElixirMatch> matches = service.findNearlyCraftable(Set.of("TOAD"), 1, 10);
+
+        assertEquals(List.of("Draught", "Brew"), matches.stream().map(match -> match.getElixir().getName()).toList());
+        assertEquals(List.of("Newt"), matches.get(0).getMissingIngredients());
+        assertEquals(List.of("Mole"), matches.get(1).getMissingIngredients());
+        assertEquals(1, matches.get(1).getMissingCount());
+    }
+
+    /**
+     * Builds an Elixir of the given Ingredient names.
+     * @param name The Elixir name.
+     * @param ingredients The Ingredient names.
+     * @return The Elixir.
+     */
+    static Elixir elixir(String name, String... ingredients) {
+        List<Ingredient> recipe = new ArrayList<>();
+
+        for (String ingredient : ingredients) {
+            recipe.add(new Ingredient(ingredient, ingredient));
+        }
+
+        return new Elixir(name, name, null, null, null, null, null, recipe, null);
+    }
+
+    /**
+     * Gets the names of Elixirs.
+     * @param elixirs The Elixirs.
+     * @return Their names.
+     */
+    private static Set<String> names(Collection<Elixir> elixirs) {
+        return elixirs.stream().map(Elixir::getName).collect(Collectors.toSet());
+    }
+
+    /**
+     * Defines a data service answering from a catalog snapshot, ignoring case like the
+     * snapshot mode, and counting its bulk lookups.
+     */
+    static final class CatalogDataService implements IElixirDataService {
+        private final CatalogSnapshot snapshot;
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        /**
+         * Constructs the CatalogDataService.
+         * @param elixirs The Elixir catalog.
+         */
+        CatalogDataService(List<Elixir> elixirs) {
+            Set<Ingredient> ingredients = new LinkedHashSet<>();
+            elixirs.forEach(elixir -> ingredients.addAll(elixir.getIngredients()));
+
+            this.snapshot = CatalogSnapshot.build(elixirs, new ArrayList<>(ingredients));
+        }
+
+        @Override
+        public List<Elixir> getElixirs() {
+            return snapshot.getElixirs();
+        }
+
+        @Override
+        public List<Elixir> getElixirsByIngredientName(String ingredientName) {
+            return snapshot.getElixirsByIngredientName(ingredientName);
+        }
+
+        @Override
+        public Map<String, List<Elixir>> getElixirsByIngredientNames(Collection<String> ingredientNames) {
+            lookups.incrementAndGet();
+
+            Map<String, List<Elixir>> elixirsByIngredient = new LinkedHashMap<>();
+            ingredientNames.forEach(name -> elixirsByIngredient.put(name, snapshot.getElixirsByIngredientName(name)));
+            return elixirsByIngredient;
+        }
+
+        @Override
+        public List<Elixir> getElixirsWithAnyIngredient(Collection<String> ingredientNames) {
+            Set<Elixir> elixirs = new LinkedHashSet<>();
+            getElixirsByIngredientNames(ingredientNames).values().forEach(elixirs::addAll);
+            return new ArrayList<>(elixirs);
+        }
+
+        @Override
+        public List<Ingredient> getIngredients() {
+            return snapshot.getIngredients();
+        }
+
+        @Override
+        public Ingredient getIngredientByName(String name) {
+            return snapshot.getIngredientByName(name);
+        }
+
+        @Override
+        public Map<String, Ingredient> getIngredientsByNames(Collection<String> names) {
+            Map<String, Ingredient> ingredients = new LinkedHashMap<>();
+            names.forEach(name -> ingredients.put(name, snapshot.getIngredientByName(name)));
+            return ingredients;
+        }
+
+        @Override
+        public boolean validateIngredientName(String ingredient) {
+            return findIngredientName(ingredient) != null;
+        }
+
+        @Override
+        public String findIngredientName(String name) {
+            Ingredient ingredient = snapshot.getIngredientByName(name);
+            return ingredient != null ? ingredient.getName() : null;
+        }
+
+        @Override
+        public List<String> suggestIngredientNames(String prefix, int limit) {
+            return snapshot.getIngredientNameIndex().findByPrefix(prefix, limit);
+        }
+
+        @Override
+        public void addCatalogChangeListener(ICatalogChangeListener listener) {
+        }
+    }
+}
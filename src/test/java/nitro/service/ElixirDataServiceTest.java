@@ -0,0 +1,252 @@
+package nitro.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import nitro.api.IAsyncWizardWorldApiClient;
+import nitro.api.IWizardWorldApiClient;
+import nitro.cache.OffHeapCacheService;
+import nitro.data.Elixir;
+import nitro.data.Ingredient;
+import nitro.mapper.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ElixirDataService lookups, asynchronous and blocking.
+ */
+class ElixirDataServiceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * An asynchronous lookup returns before the API answers, and the next one is read from the cache.
+     */
+    @Test
+    void composesTheApiFallbackWithoutBlocking() {
+        PendingApiClient asyncApi = new PendingApiClient();
+
+        try (ElixirDataService service = newService(new FakeApiClient(), new ElixirDataServiceOptions().setAsyncApiClient(asyncApi))) {
+            CompletableFuture<Ingredient> ingredient = service.getIngredientByNameAsync("Toad");
+
+            assertFalse(ingredient.isDone());
+
+            asyncApi.answer("Toad", List.of(new Ingredient("1", "Toad")));
+
+            assertEquals("Toad", ingredient.join().getName());
+            assertEquals("Toad", service.getIngredientByNameAsync("Toad").join().getName());
+            assertEquals(1, asyncApi.calls.get());
+        }
+    }
+
+    /**
+     * The blocking lookups give the results of the asynchronous ones, and share their cache.
+     */
+    @Test
+    void blockingLookupsWaitForTheAsynchronousOnes() {
+        FakeApiClient api = new FakeApiClient();
+
+        try (ElixirDataService service = newService(api, new ElixirDataServiceOptions())) {
+            Map<String, Ingredient> ingredients = service.getIngredientsByNames(List.of("Toad", "Newt", "Toad"));
+
+            assertEquals(List.of("Toad", "Newt"), new ArrayList<>(ingredients.keySet()));
+            assertEquals(2, api.calls.get());
+
+            assertEquals("Newt", service.getIngredientByNameAsync("Newt").join().getName());
+            assertEquals(1, service.getElixirsByIngredientName("Toad").size());
+            assertEquals(1, service.getElixirsByIngredientNamesAsync(List.of("Toad")).join().get("Toad").size());
+            assertEquals(3, api.calls.get());
+        }
+    }
+
+    /**
+     * Invalid arguments fail the future instead of throwing, and the blocking lookups throw them.
+     */
+    @Test
+    void failsTheFutureOfInvalidArguments() {
+        try (ElixirDataService service = newService(new FakeApiClient(), new ElixirDataServiceOptions())) {
+            assertFailedWith(IllegalArgumentException.class, service.getIngredientByNameAsync(" "));
+            assertFailedWith(IllegalArgumentException.class, service.getElixirsByIngredientNameAsync(null));
+            assertFailedWith(IllegalArgumentException.class, service.getIngredientsByNamesAsync(null));
+            assertFailedWith(IllegalArgumentException.class, service.getElixirsWithAnyIngredientAsync(Arrays.asList("Toad", null)));
+
+            assertThrows(IllegalArgumentException.class, () -> service.getIngredientByName(""));
+        }
+    }
+
+    /**
+     * A failed API call fails the future, and the blocking lookup throws its RuntimeException.
+     */
+    @Test
+    void reportsTheApiFailures() {
+        FakeApiClient api = new FakeApiClient();
+        api.failing = true;
+
+        try (ElixirDataService service = newService(api, new ElixirDataServiceOptions())) {
+            assertFailedWith(RuntimeException.class, service.getIngredientByNameAsync("Toad"));
+
+            RuntimeException error = assertThrows(RuntimeException.class, () -> service.getIngredientsByNames(List.of("Toad")));
+            assertTrue(error.getMessage().startsWith("Failed to fetch ingredient 'Toad'"));
+        }
+    }
+
+    /**
+     * Names the API does not know are remembered and not requested again.
+     */
+    @Test
+    void remembersTheMissingNames() {
+        FakeApiClient api = new FakeApiClient();
+
+        try (ElixirDataService service = newService(api, new ElixirDataServiceOptions().setNegativeCacheTtlSeconds(60))) {
+            assertNull(service.getIngredientByName("Ghost"));
+            assertTrue(service.getIngredientsByNamesAsync(List.of("Ghost")).join().isEmpty());
+            assertNull(service.getIngredientByNameAsync("ghost").join());
+
+            assertEquals(1, api.calls.get());
+        }
+    }
+
+    /**
+     * The API calls of a bulk lookup run no more than the lookup concurrency at a time.
+     */
+    @Test
+    void boundsTheConcurrentApiCalls() {
+        FakeApiClient api = new FakeApiClient();
+        api.delayMillis = 20;
+        List<String> names = new ArrayList<>();
+
+        for (int i = 0; i < 12; i++) {
+            names.add("Ingredient " + i);
+        }
+
+        try (ElixirDataService service = newService(api, new ElixirDataServiceOptions().setLookupConcurrency(3))) {
+            assertEquals(12, service.getIngredientsByNamesAsync(names).join().size());
+            assertEquals(12, api.calls.get());
+            assertEquals(3, api.peakConcurrency.get());
+        }
+    }
+
+    /**
+     * Builds a service over an off-heap cache of its own.
+     * @param api The blocking API client.
+     * @param options The options of the service.
+     * @return The service.
+     */
+    private ElixirDataService newService(IWizardWorldApiClient api, ElixirDataServiceOptions options) {
+        return new ElixirDataService(api, new OffHeapCacheService(null, 1 << 20, 60), objectMapper, new JsonMapper(objectMapper), options);
+    }
+
+    /**
+     * Asserts that a future failed, with an exception of the given type.
+     * @param type The expected exception type.
+     * @param future The future.
+     */
+    private static void assertFailedWith(Class<? extends Throwable> type, CompletableFuture<?> future) {
+        ExecutionException error = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(type, error.getCause());
+    }
+
+    /**
+     * Defines a blocking API client knowing every Ingredient name but "Ghost", and
+     * one Elixir for each Ingredient.
+     */
+    private static final class FakeApiClient implements IWizardWorldApiClient {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger peakConcurrency = new AtomicInteger();
+        private volatile boolean failing;
+        private volatile long delayMillis;
+
+        @Override
+        public List<Ingredient> getAllIngredients() {
+            return request(() -> List.of(new Ingredient("1", "Toad"), new Ingredient("2", "Newt")));
+        }
+
+        @Override
+        public List<Ingredient> getIngredientByName(String name) {
+            return request(() -> "ghost".equalsIgnoreCase(name) ? List.of() : List.of(new Ingredient(name, name)));
+        }
+
+        @Override
+        public List<Elixir> getAllElixirs() {
+            return request(List::of);
+        }
+
+        @Override
+        public List<Elixir> getElixirsByIngredient(String ingredient) {
+            return request(() -> List.of(new Elixir("e-" + ingredient, "Elixir of " + ingredient, null, null, null, null, null, List.of(new Ingredient(ingredient, ingredient)), null)));
+        }
+
+        /**
+         * Counts a call and its concurrency, waits for the delay and answers or fails.
+         * @param response The response.
+         * @return The response.
+         */
+        private <T> T request(java.util.function.Supplier<T> response) {
+            calls.incrementAndGet();
+            peakConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+
+            try {
+                if (delayMillis > 0) Thread.sleep(delayMillis);
+                if (failing) throw new IllegalStateException("API down");
+
+                return response.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                concurrency.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Defines an asynchronous API client whose Ingredient lookups only complete when answered.
+     */
+    private static final class PendingApiClient implements IAsyncWizardWorldApiClient {
+        private final Map<String, CompletableFuture<List<Ingredient>>> pending = new ConcurrentHashMap<>();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public CompletionStage<List<Ingredient>> getAllIngredients() {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        @Override
+        public CompletionStage<List<Ingredient>> getIngredientByName(String name) {
+            calls.incrementAndGet();
+            return pending.computeIfAbsent(name, key -> new CompletableFuture<>());
+        }
+
+        @Override
+        public CompletionStage<List<Elixir>> getAllElixirs() {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        @Override
+        public CompletionStage<List<Elixir>> getElixirsByIngredient(String ingredient) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        /**
+         * Completes the pending lookup of an Ingredient name.
+         * @param name The Ingredient name.
+         * @param ingredients The response.
+         */
+        private void answer(String name, List<Ingredient> ingredients) {
+            pending.computeIfAbsent(name, key -> new CompletableFuture<>()).complete(ingredients);
+        }
+    }
+}